@@ -49,5 +49,72 @@ public class ExecutionThreadPoolConfig {
         executor.initialize();
         return executor;
     }
-}
 
+    /**
+     * Pool for SCRIPT mapOver chunks running in parallel (ScriptRunner.runMap).
+     * Threads mostly wait on a warm worker or subprocess, so the pool is sized like the worker pools.
+     */
+    @Bean(name = "scriptBatchExecutor")
+    public Executor scriptBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("script-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool that turns a NEXUS REST response into the node's result, off the HTTP client's I/O threads.
+     * Only that short, non-blocking step runs here — the flow or FORK branch itself then continues on
+     * flowResumeExecutor / forkResumeExecutor, since its next node may block. The queue is unbounded
+     * so a burst of responses is never rejected.
+     */
+    @Bean(name = "nodeContinuationExecutor")
+    public Executor nodeContinuationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("node-cont-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool where a background flow continues after an async node (NEXUS REST) completes; its later nodes
+     * may block. A parked run holds no thread, so far more runs can be in flight than flowExecutionExecutor
+     * admits at once — the queue is unbounded so a continuation waits for a thread instead of failing
+     * its node. Threads are capped like flowExecutionExecutor's.
+     */
+    @Bean(name = "flowResumeExecutor")
+    public Executor flowResumeExecutor() {
+        return resumeExecutor("flow-resume-");
+    }
+
+    /**
+     * Same as flowResumeExecutor for FORK branches, kept apart so a FORK node waiting on its branches
+     * never holds a thread the branches need to continue.
+     */
+    @Bean(name = "forkResumeExecutor")
+    public Executor forkResumeExecutor() {
+        return resumeExecutor("fork-resume-");
+    }
+
+    private static Executor resumeExecutor(String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(50);
+        executor.setMaxPoolSize(50);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,8 +1,18 @@
 package com.nexflow.nexflow_backend.controller;
 
+import com.nexflow.nexflow_backend.executor.http.NexusCircuitBreakers;
+import com.nexflow.nexflow_backend.executor.http.NexusHttpClients;
+import com.nexflow.nexflow_backend.executor.http.NexusOAuth2Tokens;
+import com.nexflow.nexflow_backend.executor.jdbc.NexusJdbcPools;
+import com.nexflow.nexflow_backend.executor.jdbc.NexusJdbcResultCache;
 import com.nexflow.nexflow_backend.model.domain.NexUser;
+import com.nexflow.nexflow_backend.model.domain.NexusCacheConfig;
 import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.model.domain.NexusJdbcPoolConfig;
+import com.nexflow.nexflow_backend.model.domain.NexusResilienceConfig;
+import com.nexflow.nexflow_backend.model.domain.NexusTransportConfig;
 import com.nexflow.nexflow_backend.repository.NexusConnectorRepository;
+import com.nexflow.nexflow_backend.service.NexusConnectorCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
@@ -27,7 +37,12 @@ import java.util.*;
 public class NexusController {
 
     private final NexusConnectorRepository connectorRepository;
-    private final RestTemplate restTemplate;
+    private final NexusHttpClients         httpClients;
+    private final NexusJdbcPools           jdbcPools;
+    private final NexusJdbcResultCache     jdbcResultCache;
+    private final NexusCircuitBreakers     circuitBreakers;
+    private final NexusConnectorCache      connectorCache;
+    private final NexusOAuth2Tokens        oauth2Tokens;
 
     // ── Blocked hosts for SSRF protection ────────────────────────────────────
     private static final Set<String> BLOCKED_HOSTS = Set.of(
@@ -62,6 +77,7 @@ public class NexusController {
         connector.setCreatedAt(Instant.now());
         connector.setUpdatedAt(Instant.now());
         NexusConnector saved = connectorRepository.save(connector);
+        connectorCache.invalidate(saved.getId());
         log.info("[Nexus] connector created id={} userId={} type={}", saved.getId(), user.getId(), saved.getConnectorType());
         return ResponseEntity.ok(ConnectorSummary.from(saved));
     }
@@ -95,11 +111,20 @@ public class NexusController {
                     existing.setJdbcUrl(updated.getJdbcUrl());
                     existing.setJdbcDriver(updated.getJdbcDriver());
                     existing.setDbUsername(updated.getDbUsername());
+                    existing.setTransportConfig(updated.getTransportConfig());
+                    existing.setCacheConfig(updated.getCacheConfig());
+                    existing.setResilienceConfig(updated.getResilienceConfig());
+                    existing.setPoolConfig(updated.getPoolConfig());
                     // Only update password if client sends a non-empty value
                     if (updated.getDbPassword() != null && !updated.getDbPassword().isBlank()) {
                         existing.setDbPassword(updated.getDbPassword());
                     }
                     NexusConnector saved = connectorRepository.save(existing);
+                    jdbcPools.invalidate(id);
+                    jdbcResultCache.invalidate(id);
+                    circuitBreakers.invalidate(id);
+                    connectorCache.invalidate(id);
+                    oauth2Tokens.invalidate(id);
                     log.info("[Nexus] connector updated id={} userId={}", id, user.getId());
                     return ResponseEntity.ok(ConnectorSummary.from(saved));
                 })
@@ -113,10 +138,27 @@ public class NexusController {
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
         if (!canAccess(opt.get(), user)) return ResponseEntity.status(403).build();
         connectorRepository.deleteById(id);
+        jdbcPools.invalidate(id);
+        jdbcResultCache.invalidate(id);
+        circuitBreakers.invalidate(id);
+        connectorCache.invalidate(id);
+        oauth2Tokens.invalidate(id);
         log.info("[Nexus] connector deleted id={} userId={}", id, user.getId());
         return ResponseEntity.noContent().build();
     }
 
+    /** Drops the connector's cached JDBC SELECT results, e.g. after its lookup tables were changed. */
+    @DeleteMapping("/{id}/cache")
+    public ResponseEntity<Map<String, Object>> clearCache(@PathVariable UUID id,
+                                                          @AuthenticationPrincipal NexUser user) {
+        Optional<NexusConnector> opt = connectorRepository.findById(id);
+        if (opt.isEmpty()) return ResponseEntity.notFound().build();
+        if (!canAccess(opt.get(), user)) return ResponseEntity.status(403).build();
+        int evicted = jdbcResultCache.invalidate(id);
+        log.info("[Nexus] result cache cleared id={} userId={} evicted={}", id, user.getId(), evicted);
+        return ResponseEntity.ok(Map.of("evicted", evicted));
+    }
+
     @PostMapping("/{id}/test")
     public ResponseEntity<Map<String, Object>> testConnection(
             @PathVariable UUID id,
@@ -182,6 +224,7 @@ public class NexusController {
         catch (IllegalArgumentException e) { method = HttpMethod.GET; }
 
         boolean sendsBody = bodyToSend != null && method != HttpMethod.GET;
+        RestTemplate restTemplate = httpClients.forConnector(connector);
         try {
             ResponseEntity<String> response;
             if (sendsBody) {
@@ -288,6 +331,7 @@ public class NexusController {
                         (username + ":" + password).getBytes(StandardCharsets.UTF_8));
                 headers.set("Authorization", "Basic " + encoded);
             }
+            case NexusOAuth2Tokens.AUTH_TYPE -> headers.set("Authorization", oauth2Tokens.authorization(connector));
             default -> { }
         }
     }
@@ -323,6 +367,10 @@ public class NexusController {
             Map<String, String> queryParams,
             String              jdbcUrl,
             String              jdbcDriver,
+            NexusTransportConfig transport,
+            NexusCacheConfig    cache,
+            NexusResilienceConfig resilience,
+            NexusJdbcPoolConfig pool,
             Instant             createdAt,
             Instant             updatedAt
     ) {
@@ -335,6 +383,10 @@ public class NexusController {
                     c.getDbPassword() != null && !c.getDbPassword().isBlank(),
                     c.getDefaultHeaders(), c.getQueryParams(),
                     c.getJdbcUrl(), c.getJdbcDriver(),
+                    c.getTransportConfig(),
+                    c.getCacheConfig(),
+                    c.getResilienceConfig(),
+                    c.getPoolConfig(),
                     c.getCreatedAt(), c.getUpdatedAt()
             );
         }
@@ -31,6 +31,14 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -64,6 +72,21 @@ public class FlowExecutionEngine {
     private static final int MAX_NODE_EXECUTIONS = 5_000;
 
     public NexflowContextObject execute(UUID flowId, String executionId, Map<String, Object> triggerPayload, UUID userId) {
+        return await(executeAsync(flowId, executionId, triggerPayload, userId, null));
+    }
+
+    /**
+     * Runs a flow without holding a thread while a non-blocking node (NodeExecutor.executeAsync) is in flight.
+     * Nodes run on the calling thread until one returns an unfinished stage; the walk then stops and picks
+     * up again on resumeExecutor once that stage completes. Every later node runs there too, including
+     * blocking ones (SCRIPT, JDBC, SUB_FLOW, FORK), so resumeExecutor must be a pool that may block, and
+     * one with an unbounded queue: a parked run holds no thread, so any number of them may resume at once.
+     * With a null resumeExecutor the calling thread waits for every node instead and the returned future
+     * is already complete (that is execute()).
+     */
+    public CompletableFuture<NexflowContextObject> executeAsync(UUID flowId, String executionId,
+                                                                Map<String, Object> triggerPayload, UUID userId,
+                                                                Executor resumeExecutor) {
         NexflowContextObject nco = NexflowContextObject.create(flowId.toString(), executionId, userId);
 
         log.info(
@@ -99,17 +122,89 @@ public class FlowExecutionEngine {
                 nco.getMeta().getLoopNodeHasContinueEdge().put(n.getId().toString(), hasContinue);
             }
         }
+        FlowRun run = new FlowRun(flowId, executionId, nco, allNodes, allEdges, nodeMap, startNode, resumeExecutor);
+        run.queue.add(startNode);
+        run.drive();
+        return run.done;
+    }
 
-        Queue<FlowNode> queue = new LinkedList<>();
-        queue.add(startNode);
-        boolean checkOutputFlag = true;
-        boolean reachedSuccessTerminal = false;
-        Set<UUID> executedNodeIds = new HashSet<>();
+    /**
+     * The walk state of one execution, kept outside the stack so the walk can stop at an async node
+     * and continue on another thread. Only one thread touches it at a time.
+     */
+    private final class FlowRun {
+
+        private final UUID                 flowId;
+        private final String               executionId;
+        private final NexflowContextObject nco;
+        private final List<FlowNode>       allNodes;
+        private final List<FlowEdge>       allEdges;
+        private final Map<UUID, FlowNode>  nodeMap;
+        private final FlowNode             startNode;
+        private final Executor             resumeExecutor;
+
+        private final Queue<FlowNode> queue = new LinkedList<>();
+        private boolean checkOutputFlag = true;
+        private boolean reachedSuccessTerminal = false;
+        private final Set<UUID> executedNodeIds = new HashSet<>();
         /** Nodes we marked executed only because they ran inside a FORK branch (so we don't treat "JOIN → branch nodes" as a loop). */
-        Set<UUID> branchOnlyExecutedNodeIds = new HashSet<>();
+        private final Set<UUID> branchOnlyExecutedNodeIds = new HashSet<>();
+        private final CompletableFuture<NexflowContextObject> done = new CompletableFuture<>();
+
+        private FlowRun(UUID flowId, String executionId, NexflowContextObject nco, List<FlowNode> allNodes,
+                        List<FlowEdge> allEdges, Map<UUID, FlowNode> nodeMap, FlowNode startNode, Executor resumeExecutor) {
+            this.flowId         = flowId;
+            this.executionId    = executionId;
+            this.nco            = nco;
+            this.allNodes       = allNodes;
+            this.allEdges       = allEdges;
+            this.nodeMap        = nodeMap;
+            this.startNode      = startNode;
+            this.resumeExecutor = resumeExecutor;
+        }
 
-        while (!queue.isEmpty()) {
-            FlowNode current = queue.poll();
+        /** Walks the queue until it is empty, the flow stops, or a node is still running asynchronously. */
+        private void drive() {
+            try {
+                while (!queue.isEmpty()) {
+                    FlowNode current = queue.poll();
+                    if (!beforeNode(current)) break;
+
+                    CompletableFuture<NodeContext> stage = runNode(current, nco, executionId, resumeExecutor);
+                    if (resumeExecutor != null && !stage.isDone()) {
+                        // Park the walk, not the thread: continue once the node completes.
+                        resumeOn(stage, resumeExecutor).whenComplete((result, failure) -> resume(current, result, failure));
+                        return;
+                    }
+                    NodeContext result = null;
+                    Throwable failure = null;
+                    try {
+                        result = stage.join();
+                    } catch (CompletionException | CancellationException e) {
+                        failure = unwrap(e);
+                    }
+                    if (!afterNode(current, result, failure)) break;
+                }
+                finish();
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        }
+
+        private void resume(FlowNode current, NodeContext result, Throwable failure) {
+            try {
+                if (afterNode(current, result, unwrap(failure))) {
+                    drive();
+                } else {
+                    finish();
+                }
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        }
+
+        /** Returns false when the run must stop before current. */
+        private boolean beforeNode(FlowNode current) {
             // The engine works one node at a time, then chooses what should run next.
             nco.getMeta().setCurrentNodeId(current.getId().toString());
 
@@ -128,13 +223,17 @@ public class FlowExecutionEngine {
                     "Execution stopped: max steps exceeded (" + MAX_NODE_EXECUTIONS + "). Possible loop in flow (e.g. SubFlow ↔ Script). Fix the flow to remove cycles."
                 );
                 checkOutputFlag = false;
-                break;
+                return false;
             }
 
             eventPublisher.nodeStarted(executionId, current.getId().toString());
-            NodeContext result;
+            return true;
+        }
+
+        /** Records current's result and queues what runs next. Returns false when the flow stops here. */
+        private boolean afterNode(FlowNode current, NodeContext result, Throwable failure) {
             try {
-                result = runNode(current, nco, executionId);
+                if (failure != null) throw failure;
                 // Do not overwrite START node output (set in injectTriggerPayload with output.body)
                 if (!current.getId().equals(startNode.getId())) {
                     nco.setNodeOutput(current.getId().toString(), result);
@@ -176,6 +275,7 @@ public class FlowExecutionEngine {
                 nco.setNodeOutput(current.getId().toString(), result);
             }
 
+
             log.debug(
                     "[FlowExecutionEngine] Node END executionId={} nodeId={} status={} nexKeys={}",
                     executionId,
@@ -203,7 +303,7 @@ public class FlowExecutionEngine {
             if (current.getNodeType() == NodeType.FORK && result.getStatus() == NodeStatus.FAILURE) {
                 log.error("[FlowExecutionEngine] Node '{}' (FORK) returned FAILURE — stopping flow execution (JOIN and downstream nodes will NOT run)",
                         current.getLabel());
-                break;
+                return false;
             }
 
             // Resolve next nodes, then filter: allow re-entry only for LOOP nodes (intentional); others = cycle → FAILURE
@@ -255,49 +355,70 @@ public class FlowExecutionEngine {
                         "Loop detected: execution would re-enter a node that already ran. Check for cycles in the flow (e.g. SubFlow connected back to Script, or two nodes pointing to each other). Remove the cycle to fix."
                     );
                     checkOutputFlag = false;
-                    break;
+                    return false;
                 }
             }
             queue.addAll(toEnqueue);
+            return true;
         }
 
-        finalizeExecution(nco, checkOutputFlag, reachedSuccessTerminal);
+        private void finish() {
+            finalizeExecution(nco, checkOutputFlag, reachedSuccessTerminal);
 
-        log.info(
-                "[FlowExecutionEngine] END executionId={} flowId={} status={}",
-                executionId,
-                flowId,
-                nco.getMeta().getStatus()
-        );
-
-        return nco;
+            log.info(
+                    "[FlowExecutionEngine] END executionId={} flowId={} status={}",
+                    executionId,
+                    flowId,
+                    nco.getMeta().getStatus()
+            );
+            done.complete(nco);
+        }
     }
 
     /**
-     * Runs a pre-scoped list of branch nodes in sequence on the calling thread.
+     * Runs a pre-scoped list of branch nodes in sequence, starting on the calling thread.
      *
      * CRITICAL: the nodes list must NOT contain the parent FORK node or any JOIN node.
      * Passing the full flow node list here would cause infinite recursion because each
      * branch would re-execute the FORK node and spawn another generation of branches.
      *
-     * This method is called by ForkNodeExecutor from inside a CompletableFuture —
-     * it runs on a dedicated pool thread, not the main flow thread.
+     * ForkNodeExecutor calls this on a dedicated pool thread, not the main flow thread. When a node
+     * runs asynchronously (NodeExecutor.executeAsync) that thread is released and the rest of the
+     * branch continues on resumeExecutor. The future fails with the first failing node's error.
      */
-    public void executeBranch(
+    public CompletableFuture<Void> executeBranchAsync(
             List<FlowNode> nodes,
             NexflowContextObject branchNco,
             String executionId,
-            String branchName
+            String branchName,
+            Executor resumeExecutor
     ) {
         log.info("[FlowExecutionEngine] executeBranch START branch='{}' executionId='{}' nodeCount={}",
                 branchName, executionId, nodes != null ? nodes.size() : 0);
 
         if (nodes == null || nodes.isEmpty()) {
             log.info("[FlowExecutionEngine] executeBranch END branch='{}' executionId='{}' (no nodes)", branchName, executionId);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        for (FlowNode node : nodes) {
+        try {
+            return runBranchNodes(nodes, 0, branchNco, executionId, branchName, resumeExecutor);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Runs nodes from index from on; returns early with the rest chained when a node is still running. */
+    private CompletableFuture<Void> runBranchNodes(
+            List<FlowNode> nodes,
+            int from,
+            NexflowContextObject branchNco,
+            String executionId,
+            String branchName,
+            Executor resumeExecutor
+    ) {
+        for (int i = from; i < nodes.size(); i++) {
+            FlowNode node = nodes.get(i);
 
             // Safety guard: FORK/JOIN must never run inside a branch. If they appear here,
             // branch configuration is wrong. Skip with an error log instead of recursing.
@@ -324,94 +445,119 @@ public class FlowExecutionEngine {
             eventPublisher.nodeStarted(executionId, node.getId().toString());
 
             Instant nodeStart = Instant.now();
+            CompletableFuture<NodeContext> stage = runNode(node, branchNco, executionId, resumeExecutor);
+            if (resumeExecutor != null && !stage.isDone()) {
+                int next = i + 1;
+                return resumeOn(stage, resumeExecutor).handle((result, failure) -> {
+                    finishBranchNode(node, branchNco, executionId, branchName, nodeExecution, nodeStart, result, unwrap(failure));
+                    return null;
+                }).thenCompose(ignored ->
+                        runBranchNodes(nodes, next, branchNco, executionId, branchName, resumeExecutor));
+            }
+            NodeContext result = null;
+            Throwable failure = null;
             try {
-                NodeContext result = runNode(node, branchNco, executionId);
-                branchNco.setNodeOutput(node.getId().toString(), result);
-                branchNco.setNodeAlias(toLabelKey(node.getLabel()), result);
-
-                // Auto-populate branch nex for every non-VARIABLE, non-LOOP node
-                if (result.getStatus() != NodeStatus.FAILURE && node.getNodeType() != NodeType.VARIABLE && node.getNodeType() != NodeType.LOOP) {
-                    Object valueForNex = result.getSuccessOutput() != null ? result.getSuccessOutput() : result.getOutput();
-                    if (valueForNex != null) {
-                        // 1. Auto-add under camelCase label
-                        String labelKey = toLabelKey(node.getLabel());
-                        branchNco.getNex().putIfAbsent(labelKey, valueForNex);
-
-                        // 2. Explicit saveOutputAs (overwrites)
-                        String saveAs = extractSaveOutputAs(node);
-                        if (saveAs != null && !saveAs.isBlank()) {
-                            String key = saveAs.trim();
-                            if (key.matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
-                                branchNco.getNex().put(key, valueForNex);
-                            }
+                result = stage.join();
+            } catch (CompletionException | CancellationException e) {
+                failure = unwrap(e);
+            }
+            finishBranchNode(node, branchNco, executionId, branchName, nodeExecution, nodeStart, result, failure);
+        }
+
+        log.info("[FlowExecutionEngine] executeBranch END branch='{}' executionId='{}'", branchName, executionId);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /** Persists and publishes one branch node's outcome; throws when it failed, which ends the branch. */
+    private void finishBranchNode(FlowNode node, NexflowContextObject branchNco, String executionId, String branchName,
+                                  NodeExecution nodeExecution, Instant nodeStart, NodeContext result, Throwable failure) {
+        try {
+            if (failure instanceof Error e) throw e;
+            if (failure instanceof Exception e) throw e;
+            branchNco.setNodeOutput(node.getId().toString(), result);
+            branchNco.setNodeAlias(toLabelKey(node.getLabel()), result);
+
+            // Auto-populate branch nex for every non-VARIABLE, non-LOOP node
+            if (result.getStatus() != NodeStatus.FAILURE && node.getNodeType() != NodeType.VARIABLE && node.getNodeType() != NodeType.LOOP) {
+                Object valueForNex = result.getSuccessOutput() != null ? result.getSuccessOutput() : result.getOutput();
+                if (valueForNex != null) {
+                    // 1. Auto-add under camelCase label
+                    String labelKey = toLabelKey(node.getLabel());
+                    branchNco.getNex().putIfAbsent(labelKey, valueForNex);
+
+                    // 2. Explicit saveOutputAs (overwrites)
+                    String saveAs = extractSaveOutputAs(node);
+                    if (saveAs != null && !saveAs.isBlank()) {
+                        String key = saveAs.trim();
+                        if (key.matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
+                            branchNco.getNex().put(key, valueForNex);
                         }
                     }
                 }
+            }
 
-                if (result.getStatus() == NodeStatus.FAILURE) {
-                    long durationMs = Duration.between(nodeStart, Instant.now()).toMillis();
-                    nodeExecution.setStatus(NodeExecutionStatus.FAILURE);
-                    nodeExecution.setFinishedAt(Instant.now());
-                    nodeExecution.setDurationMs(durationMs);
-                    nodeExecution.setOutputNex(branchNco.getNex() != null ? new LinkedHashMap<>(branchNco.getNex()) : new LinkedHashMap<>());
-                    nodeExecution.setErrorMessage(result.getErrorMessage() != null ? result.getErrorMessage() : "Node returned FAILURE");
-                    nodeExecutionPersistence.save(nodeExecution);
-
-                    String err = result.getErrorMessage();
-                    String message = (err != null && !err.isBlank())
-                            ? err
-                            : "Branch node '" + node.getLabel() + "' returned FAILURE";
-                    eventPublisher.nodeError(executionId, node.getId().toString(), message);
-                    throw new RuntimeException(message);
-                }
-
-                nodeExecution.setStatus(NodeExecutionStatus.SUCCESS);
-                nodeExecution.setFinishedAt(Instant.now());
-                nodeExecution.setDurationMs(Duration.between(nodeStart, Instant.now()).toMillis());
-                nodeExecution.setOutputNex(branchNco.getNex() != null ? new LinkedHashMap<>(branchNco.getNex()) : new LinkedHashMap<>());
-                nodeExecutionPersistence.save(nodeExecution);
-
-                eventPublisher.nodeCompleted(executionId, node.getId().toString(), result.getStatus(), branchNco.getNex());
-
-            } catch (RuntimeException e) {
-                long durationMs = Duration.between(nodeStart, Instant.now()).toMillis();
-                nodeExecution.setStatus(NodeExecutionStatus.FAILURE);
-                nodeExecution.setFinishedAt(Instant.now());
-                nodeExecution.setDurationMs(durationMs);
-                nodeExecution.setErrorMessage(e.getMessage());
-                nodeExecution.setOutputNex(branchNco.getNex() != null ? new LinkedHashMap<>(branchNco.getNex()) : new LinkedHashMap<>());
-                nodeExecutionPersistence.save(nodeExecution);
-
-                eventPublisher.nodeError(executionId, node.getId().toString(), e.getMessage());
-                throw e;
-            } catch (Exception e) {
+            if (result.getStatus() == NodeStatus.FAILURE) {
                 long durationMs = Duration.between(nodeStart, Instant.now()).toMillis();
                 nodeExecution.setStatus(NodeExecutionStatus.FAILURE);
                 nodeExecution.setFinishedAt(Instant.now());
                 nodeExecution.setDurationMs(durationMs);
-                nodeExecution.setErrorMessage(e.getMessage());
                 nodeExecution.setOutputNex(branchNco.getNex() != null ? new LinkedHashMap<>(branchNco.getNex()) : new LinkedHashMap<>());
+                nodeExecution.setErrorMessage(result.getErrorMessage() != null ? result.getErrorMessage() : "Node returned FAILURE");
                 nodeExecutionPersistence.save(nodeExecution);
 
-                eventPublisher.nodeError(executionId, node.getId().toString(), e.getMessage());
-                throw new RuntimeException(
-                        "Branch '" + branchName + "' failed at node '" + node.getLabel() + "': " + e.getMessage(), e);
+                String err = result.getErrorMessage();
+                String message = (err != null && !err.isBlank())
+                        ? err
+                        : "Branch node '" + node.getLabel() + "' returned FAILURE";
+                eventPublisher.nodeError(executionId, node.getId().toString(), message);
+                throw new RuntimeException(message);
             }
-        }
 
-        log.info("[FlowExecutionEngine] executeBranch END branch='{}' executionId='{}'", branchName, executionId);
+            nodeExecution.setStatus(NodeExecutionStatus.SUCCESS);
+            nodeExecution.setFinishedAt(Instant.now());
+            nodeExecution.setDurationMs(Duration.between(nodeStart, Instant.now()).toMillis());
+            nodeExecution.setOutputNex(branchNco.getNex() != null ? new LinkedHashMap<>(branchNco.getNex()) : new LinkedHashMap<>());
+            nodeExecutionPersistence.save(nodeExecution);
+
+            eventPublisher.nodeCompleted(executionId, node.getId().toString(), result.getStatus(), branchNco.getNex());
+
+        } catch (RuntimeException e) {
+            long durationMs = Duration.between(nodeStart, Instant.now()).toMillis();
+            nodeExecution.setStatus(NodeExecutionStatus.FAILURE);
+            nodeExecution.setFinishedAt(Instant.now());
+            nodeExecution.setDurationMs(durationMs);
+            nodeExecution.setErrorMessage(e.getMessage());
+            nodeExecution.setOutputNex(branchNco.getNex() != null ? new LinkedHashMap<>(branchNco.getNex()) : new LinkedHashMap<>());
+            nodeExecutionPersistence.save(nodeExecution);
+
+            eventPublisher.nodeError(executionId, node.getId().toString(), e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            long durationMs = Duration.between(nodeStart, Instant.now()).toMillis();
+            nodeExecution.setStatus(NodeExecutionStatus.FAILURE);
+            nodeExecution.setFinishedAt(Instant.now());
+            nodeExecution.setDurationMs(durationMs);
+            nodeExecution.setErrorMessage(e.getMessage());
+            nodeExecution.setOutputNex(branchNco.getNex() != null ? new LinkedHashMap<>(branchNco.getNex()) : new LinkedHashMap<>());
+            nodeExecutionPersistence.save(nodeExecution);
+
+            eventPublisher.nodeError(executionId, node.getId().toString(), e.getMessage());
+            throw new RuntimeException(
+                    "Branch '" + branchName + "' failed at node '" + node.getLabel() + "': " + e.getMessage(), e);
+        }
     }
 
-    private NodeContext runNode(FlowNode flowNode, NexflowContextObject nco, String executionId) {
+    private CompletableFuture<NodeContext> runNode(FlowNode flowNode, NexflowContextObject nco, String executionId,
+                                                   Executor resumeExecutor) {
         NodeType nodeType = flowNode.getNodeType();
         if (nodeType == null) {
             log.error("Node {} has null nodeType", flowNode.getId());
-            return NodeContext.builder()
+            return CompletableFuture.completedFuture(NodeContext.builder()
                     .nodeId(flowNode.getId().toString())
                     .nodeType("UNKNOWN")
                     .status(NodeStatus.FAILURE)
                     .errorMessage("Node type is null")
-                    .build();
+                    .build());
         }
 
         RetryConfig retry = extractRetryConfig(flowNode);
@@ -419,14 +565,29 @@ public class FlowExecutionEngine {
         long delayMs = retry.getBackoffMs() > 0 ? retry.getBackoffMs() : 1000L;
         double multiplier = retry.getBackoffMultiplier() > 0 ? retry.getBackoffMultiplier() : 1.0d;
 
-        int attempt = 0;
-        NodeContext lastContext = null;
+        return attempt(flowNode, nco, executionId, resumeExecutor, 1, maxRetries, delayMs, multiplier);
+    }
 
-        while (true) {
-            attempt++;
-            try {
-                lastContext = executorRegistry.get(nodeType).execute(flowNode, nco);
-            } catch (Exception ex) {
+    /**
+     * One try of a node. On FAILURE with retries left, the next try follows after the backoff: the calling
+     * thread sleeps when running synchronously, otherwise it is scheduled on resumeExecutor.
+     */
+    private CompletableFuture<NodeContext> attempt(FlowNode flowNode, NexflowContextObject nco, String executionId,
+                                                   Executor resumeExecutor, int attempt, int maxRetries,
+                                                   long delayMs, double multiplier) {
+        NodeType nodeType = flowNode.getNodeType();
+        CompletableFuture<NodeContext> stage;
+        try {
+            stage = executorRegistry.get(nodeType).executeAsync(flowNode, nco).toCompletableFuture();
+        } catch (Exception ex) {
+            stage = CompletableFuture.failedFuture(ex);
+        }
+
+        BiFunction<NodeContext, Throwable, CompletableFuture<NodeContext>> afterAttempt = (context, failure) -> {
+            NodeContext lastContext = context;
+            Throwable ex = unwrap(failure);
+            if (ex instanceof Error error) throw error;
+            if (ex != null) {
                 String msg = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
                 log.error("Node {} ({}) threw on attempt {}: {}", flowNode.getId(), nodeType, attempt, msg, ex);
                 lastContext = NodeContext.builder()
@@ -438,32 +599,86 @@ public class FlowExecutionEngine {
             }
 
             if (lastContext.getStatus() != NodeStatus.FAILURE) {
-                return lastContext;
+                return CompletableFuture.completedFuture(lastContext);
             }
 
             if (attempt > maxRetries) {
                 // All retries exhausted — return last FAILURE context
-                return lastContext;
+                return CompletableFuture.completedFuture(lastContext);
             }
 
-            long waitMs = delayMs;
             log.warn("Node {} ({}) failed on attempt {}/{}. Retrying in {} ms",
-                    flowNode.getId(), nodeType, attempt, maxRetries + 1, waitMs);
+                    flowNode.getId(), nodeType, attempt, maxRetries + 1, delayMs);
             eventPublisher.nodeRetrying(executionId, flowNode.getId().toString());
 
+            // Exponential backoff for next attempt
+            long nextDelayMs = (long) Math.max(0L, delayMs * multiplier);
+
+            if (resumeExecutor != null) {
+                CompletableFuture<Void> backoff = CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+                return resumeOn(backoff, resumeExecutor).thenCompose(ignored -> attempt(flowNode, nco, executionId,
+                        resumeExecutor, attempt + 1, maxRetries, nextDelayMs, multiplier));
+            }
             try {
-                Thread.sleep(waitMs);
+                Thread.sleep(delayMs);
             } catch (InterruptedException ie) {
                 Thread.currentThread().interrupt();
                 log.warn("Retry sleep interrupted for node {} — aborting further retries", flowNode.getId());
-                return lastContext;
+                return CompletableFuture.completedFuture(lastContext);
             }
+            return attempt(flowNode, nco, executionId, null, attempt + 1, maxRetries, nextDelayMs, multiplier);
+        };
 
-            // Exponential backoff for next attempt
-            delayMs = (long) Math.max(0L, delayMs * multiplier);
+        if (resumeExecutor != null && !stage.isDone()) {
+            return resumeOn(stage, resumeExecutor).handle(afterAttempt).thenCompose(Function.identity());
+        }
+        NodeContext context = null;
+        Throwable failure = null;
+        try {
+            context = stage.join();
+        } catch (CompletionException | CancellationException e) {
+            failure = e;
+        }
+        return afterAttempt.apply(context, failure);
+    }
+
+    /**
+     * stage's outcome, delivered on executor. Resume executors queue without bound, so they reject only
+     * while shutting down; the returned future then fails with the RejectedExecutionException instead of
+     * the run hanging.
+     */
+    private static <T> CompletableFuture<T> resumeOn(CompletableFuture<T> stage, Executor executor) {
+        CompletableFuture<T> resumed = new CompletableFuture<>();
+        stage.whenComplete((result, failure) -> {
+            try {
+                executor.execute(() -> {
+                    if (failure != null) resumed.completeExceptionally(failure);
+                    else resumed.complete(result);
+                });
+            } catch (RejectedExecutionException e) {
+                resumed.completeExceptionally(e);
+            }
+        });
+        return resumed;
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    /** join() for execute(): rethrows what the run failed with instead of a CompletionException. */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
         }
     }
 
+
     private RetryConfig extractRetryConfig(FlowNode flowNode) {
         Map<String, Object> cfg = flowNode.getConfig();
         if (cfg == null || !cfg.containsKey("retry")) {
@@ -0,0 +1,229 @@
+package com.nexflow.nexflow_backend.engine;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guest-side views over the nex / input maps for {@link PolyglotScriptEngine}.
+ *
+ * The script sees the live Java maps and lists without any serialisation. Writes are
+ * copy-on-write: the first put / remove on a proxy copies that one level into a private
+ * map, so a script can never mutate the execution's real NexflowContextObject — exactly
+ * like the subprocess engines, which only ever see a JSON copy.
+ *
+ * {@link #toJava} converts a script result back to plain Map / List / String / Number /
+ * Boolean, following JSON.stringify rules (undefined and functions drop out, NaN → null).
+ */
+final class PolyglotProxies {
+
+    /** Deeper results are almost certainly cyclic — JSON.stringify would throw too. */
+    private static final int MAX_RESULT_DEPTH = 64;
+
+    /** Marker for values JSON.stringify would omit (functions). */
+    private static final Object UNDEFINED = new Object();
+
+    private PolyglotProxies() {}
+
+    @SuppressWarnings("unchecked")
+    static Object wrap(Object value) {
+        if (value instanceof MapProxy || value instanceof ListProxy) return value;
+        if (value instanceof Map<?, ?> map)    return new MapProxy((Map<String, Object>) map);
+        if (value instanceof List<?> list)     return new ListProxy((List<Object>) list);
+        if (value == null || value instanceof String || value instanceof Number
+                || value instanceof Boolean || value instanceof Value) {
+            return value;
+        }
+        // UUIDs, enums, timestamps, … reach the subprocess engines as JSON strings
+        return value.toString();
+    }
+
+    static Object toJava(Value value) {
+        return toJava(value, 0);
+    }
+
+    private static Object toJava(Value value, int depth) {
+        if (depth > MAX_RESULT_DEPTH) {
+            throw new IllegalArgumentException("Script result is nested deeper than " + MAX_RESULT_DEPTH + " levels (cyclic?)");
+        }
+        if (value == null || value.isNull()) return null;
+        if (value.isBoolean())               return value.asBoolean();
+        if (value.isString())                return value.asString();
+        if (value.isNumber()) {
+            if (value.fitsInInt())  return value.asInt();
+            if (value.fitsInLong()) return value.asLong();
+            double d = value.asDouble();
+            return Double.isFinite(d) ? d : null;
+        }
+        if (value.isProxyObject()) {
+            Object proxy = value.asProxyObject();
+            if (proxy instanceof MapProxy map)   return map.toJava(depth);
+            if (proxy instanceof ListProxy list) return list.toJava(depth);
+        }
+        if (value.isDate() && value.isTime() && value.isTimeZone()) {
+            return value.asInstant().toString();
+        }
+        if (value.hasArrayElements()) {
+            List<Object> list = new ArrayList<>((int) value.getArraySize());
+            for (long i = 0; i < value.getArraySize(); i++) {
+                Object element = toJava(value.getArrayElement(i), depth + 1);
+                list.add(element == UNDEFINED ? null : element);
+            }
+            return list;
+        }
+        if (value.canExecute()) return UNDEFINED;
+        if (value.hasMembers()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String key : value.getMemberKeys()) {
+                Object member = toJava(value.getMember(key), depth + 1);
+                if (member != UNDEFINED) map.put(key, member);
+            }
+            return map;
+        }
+        return value.toString();
+    }
+
+    private static Object toJavaChild(Object child, int depth) {
+        if (child instanceof Value v)        return toJava(v, depth + 1);
+        if (child instanceof MapProxy map)   return map.toJava(depth + 1);
+        if (child instanceof ListProxy list) return list.toJava(depth + 1);
+        return child;
+    }
+
+    // ── Object proxy ──────────────────────────────────────────────────────────
+
+    static final class MapProxy implements ProxyObject {
+
+        private Map<String, Object> view;
+        private boolean copied;
+        /** Wrapped children, so `nex.a.b = 1; nex.a.b` sees its own write. */
+        private final Map<String, Object> children = new HashMap<>();
+
+        MapProxy(Map<String, Object> source) {
+            this.view = source;
+        }
+
+        @Override
+        public Object getMember(String key) {
+            Object cached = children.get(key);
+            if (cached != null) return cached;
+            Object raw = view.get(key);
+            Object wrapped = wrap(raw);
+            if (wrapped instanceof MapProxy || wrapped instanceof ListProxy) children.put(key, wrapped);
+            return wrapped;
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            return new ListProxy(new ArrayList<>(view.keySet()));
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            return view.containsKey(key);
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            copyOnWrite();
+            children.remove(key);
+            view.put(key, value);
+        }
+
+        @Override
+        public boolean removeMember(String key) {
+            copyOnWrite();
+            children.remove(key);
+            return view.remove(key) != null;
+        }
+
+        private void copyOnWrite() {
+            if (!copied) {
+                view = new LinkedHashMap<>(view);
+                copied = true;
+            }
+        }
+
+        Map<String, Object> toJava(int depth) {
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> e : view.entrySet()) {
+                Object child = children.containsKey(e.getKey()) ? children.get(e.getKey()) : e.getValue();
+                Object converted = toJavaChild(child, depth);
+                if (converted != UNDEFINED) out.put(e.getKey(), converted);
+            }
+            return out;
+        }
+    }
+
+    // ── Array proxy ───────────────────────────────────────────────────────────
+
+    static final class ListProxy implements ProxyArray {
+
+        private List<Object> view;
+        private boolean copied;
+
+        ListProxy(List<Object> source) {
+            this.view = source;
+        }
+
+        @Override
+        public Object get(long index) {
+            if (index < 0 || index >= view.size()) return null;
+            Object raw = view.get((int) index);
+            Object wrapped = wrap(raw);
+            if (raw instanceof Map<?, ?> || raw instanceof List<?>) {
+                // Keep the proxy so nested writes stick: store it in a private copy.
+                copyOnWrite();
+                view.set((int) index, wrapped);
+            }
+            return wrapped;
+        }
+
+        @Override
+        public void set(long index, Value value) {
+            copyOnWrite();
+            if (index == view.size()) {
+                view.add(value);
+            } else if (index >= 0 && index < view.size()) {
+                view.set((int) index, value);
+            } else {
+                throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + view.size());
+            }
+        }
+
+        @Override
+        public boolean remove(long index) {
+            if (index < 0 || index >= view.size()) return false;
+            copyOnWrite();
+            view.remove((int) index);
+            return true;
+        }
+
+        @Override
+        public long getSize() {
+            return view.size();
+        }
+
+        private void copyOnWrite() {
+            if (!copied) {
+                view = new ArrayList<>(view);
+                copied = true;
+            }
+        }
+
+        List<Object> toJava(int depth) {
+            List<Object> out = new ArrayList<>(view.size());
+            for (Object element : view) {
+                Object converted = toJavaChild(element, depth);
+                out.add(converted == UNDEFINED ? null : converted);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.nexflow.nexflow_backend.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.EnvironmentAccess;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.io.IOAccess;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process JavaScript engine for SCRIPT and DECISION(code) nodes (GraalJS).
+ *
+ * Opt-in with app.script.javascript-engine=polyglot. Python and the subprocess engines are unaffected.
+ *
+ * Sandbox — every context is built with:
+ *   - no file system, host class lookup, host object access, environment, native access
+ *   - no thread or process creation, no other polyglot languages
+ *   - a statement limit (app.script.polyglot.statement-limit), reset before every job
+ *   - the node's wall-clock timeout, enforced by cancelling the context
+ * There is no `require` in this engine; console output is discarded.
+ *
+ * Memory: GraalVM Community has no per-context heap limit (sandbox.MaxHeapMemory is Enterprise-only),
+ * so a script that allocates aggressively is only bounded by the statement limit and the timeout.
+ *
+ * Isolation and reuse:
+ *   - every job gets a fresh {@link Context}, closed when the job ends — globals, prototypes and
+ *     closures never survive into another job (or another tenant's job)
+ *   - one shared {@link Engine}, so parsed / compiled code is still shared by all contexts
+ *   - {@link Source} objects cached by code hash
+ *   - at most max-contexts jobs run at once
+ *
+ * nex / input are passed as copy-on-write proxies over the live maps ({@link PolyglotProxies}),
+ * not serialised.
+ *
+ * {@link #execute} returns null when the engine is disabled or unavailable, or no slot frees up
+ * within acquire-timeout-ms; ScriptRunner then uses the subprocess engines.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PolyglotScriptEngine {
+
+    /** Parameter lists of the function the user's code is compiled into, per job type. */
+    private static final String RUN_PARAMS = "nex, input";
+    private static final String MAP_PARAMS = "nex, input, item, index";
+
+    private final ScriptCodeCacheMetrics codeCacheMetrics;
+
+    @org.springframework.beans.factory.annotation.Value("${app.script.javascript-engine:subprocess}")
+    private String javascriptEngine;
+
+    @org.springframework.beans.factory.annotation.Value("${app.script.polyglot.max-contexts:8}")
+    private int maxContexts;
+
+    @org.springframework.beans.factory.annotation.Value("${app.script.polyglot.statement-limit:50000000}")
+    private long statementLimit;
+
+    @org.springframework.beans.factory.annotation.Value("${app.script.polyglot.source-cache-size:256}")
+    private int sourceCacheSize;
+
+    @org.springframework.beans.factory.annotation.Value("${app.script.polyglot.acquire-timeout-ms:200}")
+    private long acquireTimeoutMs;
+
+    private Engine engine;
+    private ResourceLimits limits;
+    private ScheduledExecutorService scheduler;
+    private Map<String, Source> sources;
+    private Semaphore slots;
+
+    @PostConstruct
+    void init() {
+        if (!"polyglot".equalsIgnoreCase(javascriptEngine)) return;
+        try {
+            engine = Engine.newBuilder("js")
+                    .option("engine.WarnInterpreterOnly", "false")
+                    .build();
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("[PolyglotScriptEngine] GraalJS is not available, JavaScript stays on subprocess: {}", e.getMessage());
+            return;
+        }
+        limits = ResourceLimits.newBuilder()
+                .statementLimit(statementLimit, null)
+                .build();
+        sources = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Source> eldest) {
+                return size() > sourceCacheSize;
+            }
+        });
+        slots = new Semaphore(maxContexts);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "polyglot-script-timeout");
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("[PolyglotScriptEngine] enabled maxContexts={} statementLimit={}", maxContexts, statementLimit);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) scheduler.shutdownNow();
+        if (engine != null) engine.close(true);
+    }
+
+    boolean isEnabled() {
+        return engine != null;
+    }
+
+    /**
+     * Runs one JavaScript job in a fresh context.
+     * Returns null when the job could not be dispatched, so the caller falls back to the subprocess engines.
+     */
+    ScriptRunner.ScriptResult execute(String userCode, Object inputData, int timeoutSeconds, boolean map) {
+        if (engine == null || !acquireSlot()) return null;
+        Context context;
+        try {
+            context = newContext();
+        } catch (RuntimeException e) {
+            slots.release();
+            log.warn("[PolyglotScriptEngine] could not create context: {}", e.getMessage());
+            return null;
+        }
+
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> timeoutTask = scheduler.schedule(() -> {
+            timedOut.set(true);
+            context.close(true); // cancels the running script from this thread
+        }, timeoutSeconds, TimeUnit.SECONDS);
+
+        try {
+            Map<?, ?> data = inputData instanceof Map<?, ?> m ? m : Map.of();
+            Object nex   = PolyglotProxies.wrap(data.get("nex")   != null ? data.get("nex")   : Map.of());
+            Object input = PolyglotProxies.wrap(data.get("input") != null ? data.get("input") : Map.of());
+            Object output = map
+                    ? runMap(function(context, userCode, MAP_PARAMS), nex, input, data)
+                    : PolyglotProxies.toJava(function(context, userCode, RUN_PARAMS).execute(nex, input));
+            return ScriptRunner.ScriptResult.ok(output);
+        } catch (PolyglotException e) {
+            // A statement-limit hit also reports isCancelled(), so check it first.
+            if (e.isResourceExhausted() && !timedOut.get()) {
+                return ScriptRunner.ScriptResult.error(
+                        "Script exceeded the limit of " + statementLimit + " statements. " +
+                        "Use a loop with a termination condition.");
+            }
+            if (timedOut.get() || e.isCancelled()) return ScriptRunner.timeoutResult(timeoutSeconds);
+            return ScriptRunner.ScriptResult.error(guestMessage(e));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // result conversion failed (cyclic result), or the context was closed under us
+            if (timedOut.get()) return ScriptRunner.timeoutResult(timeoutSeconds);
+            return ScriptRunner.ScriptResult.error(e.getMessage());
+        } finally {
+            timeoutTask.cancel(false);
+            close(context);
+            slots.release();
+        }
+    }
+
+    /**
+     * Calls fn once per element of data.items. A script error on one item is recorded and the
+     * loop moves on; limits, cancellation and engine failures still abort the whole chunk.
+     */
+    private Map<String, Object> runMap(Value fn, Object nex, Object input, Map<?, ?> data) {
+        List<?> items = data.get("items") instanceof List<?> l ? l : List.of();
+        int offset    = data.get("offset") instanceof Number n ? n.intValue() : 0;
+        List<Object> results = new ArrayList<>(items.size());
+        List<Map<String, Object>> errors = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                results.add(PolyglotProxies.toJava(fn.execute(nex, input, PolyglotProxies.wrap(items.get(i)), offset + i)));
+            } catch (PolyglotException e) {
+                if (!e.isGuestException() || e.isCancelled() || e.isResourceExhausted() || e.isExit()) throw e;
+                results.add(null);
+                errors.add(Map.of("index", offset + i, "error", guestMessage(e)));
+            }
+        }
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("results", results);
+        output.put("errors",  errors);
+        return output;
+    }
+
+    // ── Contexts ──────────────────────────────────────────────────────────────
+
+    private boolean acquireSlot() {
+        try {
+            return slots.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void close(Context context) {
+        try {
+            context.close(true);
+        } catch (RuntimeException ignored) {
+            // already closed by a timeout
+        }
+    }
+
+    private Context newContext() {
+        return Context.newBuilder("js")
+                .engine(engine)
+                .allowIO(IOAccess.NONE)
+                .allowHostAccess(HostAccess.NONE)
+                .allowHostClassLookup(className -> false)
+                .allowPolyglotAccess(PolyglotAccess.NONE)
+                .allowEnvironmentAccess(EnvironmentAccess.NONE)
+                .allowCreateThread(false)
+                .allowCreateProcess(false)
+                .allowNativeAccess(false)
+                .resourceLimits(limits)
+                .out(OutputStream.nullOutputStream())
+                .err(OutputStream.nullOutputStream())
+                .build();
+    }
+
+    /**
+     * The user's code evaluated to a function in this job's context. The Source is cached by
+     * (params, code) hash, so the shared engine reuses its parsed / compiled form.
+     */
+    private Value function(Context context, String userCode, String params) {
+        String key = sha256(params + "\n" + userCode);
+        Source source = sources.get(key);
+        codeCacheMetrics.record(ScriptCodeCacheMetrics.POLYGLOT, source != null);
+        if (source == null) source = source(key, params, userCode);
+        return context.eval(source);
+    }
+
+    private Source source(String key, String params, String userCode) {
+        return sources.computeIfAbsent(key, k -> Source.newBuilder("js",
+                        "(function(" + params + ") {\n" + userCode + "\n})", "script-" + k.substring(0, 12) + ".js")
+                .cached(true)
+                .buildLiteral());
+    }
+
+    /** JS errors surface as "boom", like the subprocess wrapper's e.message — not "Error: boom". */
+    private static String guestMessage(PolyglotException e) {
+        Value guest = e.getGuestObject();
+        if (guest != null && guest.hasMember("message")) {
+            Value message = guest.getMember("message");
+            if (message != null && message.isString()) return message.asString();
+        }
+        return e.getMessage();
+    }
+
+    private static String sha256(String code) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.nexflow.nexflow_backend.engine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional Linux cgroup v2 isolation for script processes.
+ *
+ * When app.script.cgroup.enabled=true, every one-shot script and every warm worker runs in its own
+ * child cgroup under app.script.cgroup.root with kernel-enforced limits:
+ *   cpu.max     — CPU bandwidth (quota / period), throttles a busy loop long before the watchdog fires
+ *   memory.max  — hard memory limit; the kernel OOM-kills the script when it is exceeded
+ *   pids.max    — caps fork bombs / thread explosions
+ *
+ * The root must be a cgroup v2 directory the service user may write to (a delegated subtree, e.g.
+ * systemd Delegate=yes, or a container with its own cgroup namespace). The interpreter is started
+ * through `sh -c 'echo $$ > cgroup.procs && exec …'`, so it is inside its cgroup before any user
+ * code runs and keeps the pid the watchdog sees.
+ *
+ * Everything is verified once at startup with a probe process; if any step fails the manager logs
+ * a warning and stays off, and scripts run exactly as without it.
+ */
+@Slf4j
+@Component
+public class ScriptCgroupManager {
+
+    private static final List<String> REQUIRED_CONTROLLERS = List.of("cpu", "memory", "pids");
+
+    @Value("${app.script.cgroup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.script.cgroup.root:/sys/fs/cgroup/nexflow-scripts}")
+    private String root;
+
+    /** "$QUOTA $PERIOD" in microseconds, or "max". 100000 100000 = one full core. */
+    @Value("${app.script.cgroup.cpu-max:100000 100000}")
+    private String cpuMax;
+
+    @Value("${app.script.cgroup.memory-max-mb:256}")
+    private long memoryMaxMb;
+
+    @Value("${app.script.cgroup.pids-max:64}")
+    private int pidsMax;
+
+    private Path rootPath;
+    private volatile boolean available;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        try {
+            rootPath = Path.of(root);
+            String controllers = Files.readString(rootPath.resolve("cgroup.controllers"));
+            for (String controller : REQUIRED_CONTROLLERS) {
+                if (!List.of(controllers.trim().split("\\s+")).contains(controller)) {
+                    throw new IOException("controller '" + controller + "' is not delegated to " + root);
+                }
+            }
+            Files.writeString(rootPath.resolve("cgroup.subtree_control"), "+cpu +memory +pids");
+            removeStaleGroups();
+            probe();
+            available = true;
+            log.info("[ScriptCgroupManager] enabled root={} cpu.max='{}' memory.max={}MB pids.max={}",
+                    root, cpuMax, memoryMaxMb, pidsMax);
+        } catch (IOException | RuntimeException e) {
+            log.warn("[ScriptCgroupManager] cgroup v2 isolation unavailable, scripts run without it: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isAvailable() {
+        return available;
+    }
+
+    long memoryMaxMb() {
+        return memoryMaxMb;
+    }
+
+    /** Creates a fresh child cgroup with the configured limits. */
+    Slot create(String kind) throws IOException {
+        Path dir = rootPath.resolve(kind + "-" + ProcessHandle.current().pid() + "-" + sequence.incrementAndGet());
+        Files.createDirectory(dir);
+        try {
+            Files.writeString(dir.resolve("cpu.max"),    cpuMax);
+            Files.writeString(dir.resolve("memory.max"), Long.toString(memoryMaxMb * 1024L * 1024L));
+            Files.writeString(dir.resolve("pids.max"),   Integer.toString(pidsMax));
+            Path swap = dir.resolve("memory.swap.max");
+            if (Files.exists(swap)) Files.writeString(swap, "0");
+        } catch (IOException e) {
+            Files.deleteIfExists(dir);
+            throw e;
+        }
+        return new Slot(dir);
+    }
+
+    /** Starts `true` inside a throw-away cgroup, proving the service may move processes there. */
+    private void probe() throws IOException, InterruptedException {
+        Slot slot = create("probe");
+        try {
+            Process p = new ProcessBuilder(slot.wrap(List.of("true"))).redirectErrorStream(true).start();
+            if (!p.waitFor(5, TimeUnit.SECONDS) || p.exitValue() != 0) {
+                String output = new String(p.getInputStream().readAllBytes()).trim();
+                p.destroyForcibly();
+                throw new IOException("cannot move a process into " + slot.dir + ": " + output);
+            }
+        } finally {
+            slot.close();
+        }
+    }
+
+    /**
+     * Child groups left behind by an earlier run of this service (crash, kill -9). Group names carry
+     * the owning JVM's pid, so groups of other live instances sharing the root are left alone.
+     */
+    private void removeStaleGroups() {
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(rootPath, Files::isDirectory)) {
+            for (Path child : children) {
+                String[] parts = child.getFileName().toString().split("-");
+                if (parts.length != 3) continue;
+                try {
+                    if (ProcessHandle.of(Long.parseLong(parts[1])).isEmpty()) new Slot(child).close();
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        } catch (IOException e) {
+            log.debug("[ScriptCgroupManager] could not list {}: {}", rootPath, e.getMessage());
+        }
+    }
+
+    // ── One child cgroup ──────────────────────────────────────────────────────
+
+    static final class Slot {
+
+        private final Path dir;
+
+        private Slot(Path dir) {
+            this.dir = dir;
+        }
+
+        /** Prefixes the command so the interpreter joins this cgroup before it execs. */
+        List<String> wrap(List<String> command) {
+            List<String> wrapped = new ArrayList<>(command.size() + 4);
+            wrapped.add("sh");
+            wrapped.add("-c");
+            wrapped.add("echo $$ > \"$0/cgroup.procs\" && exec \"$@\"");
+            wrapped.add(dir.toString());
+            wrapped.addAll(command);
+            return wrapped;
+        }
+
+        /** Total CPU time of everything that ran in this cgroup, from cpu.stat usage_usec. */
+        long cpuUsageMicros() {
+            return readKey("cpu.stat", "usage_usec");
+        }
+
+        /** memory.peak (kernel 5.19+), falling back to memory.current. */
+        long memoryPeakBytes() {
+            long peak = readSingle("memory.peak");
+            return peak >= 0 ? peak : memoryCurrentBytes();
+        }
+
+        long memoryCurrentBytes() {
+            return readSingle("memory.current");
+        }
+
+        /** Number of processes the kernel OOM-killed in this cgroup, from memory.events. */
+        long oomKills() {
+            return Math.max(readKey("memory.events", "oom_kill"), 0);
+        }
+
+        /**
+         * Kills anything still inside and removes the cgroup. rmdir fails while the kernel is
+         * still reaping the last process, so it is retried briefly.
+         */
+        void close() {
+            try {
+                Files.writeString(dir.resolve("cgroup.kill"), "1"); // kernel 5.14+
+            } catch (IOException ignored) {
+                // older kernel or already gone
+            }
+            for (int attempt = 0; attempt < 10; attempt++) {
+                try {
+                    Files.deleteIfExists(dir);
+                    return;
+                } catch (IOException e) {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            log.warn("[ScriptCgroupManager] could not remove {}", dir);
+        }
+
+        private long readSingle(String file) {
+            try {
+                String value = Files.readString(dir.resolve(file)).trim();
+                return "max".equals(value) ? -1 : Long.parseLong(value);
+            } catch (IOException | NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private long readKey(String file, String key) {
+            try {
+                for (String line : Files.readAllLines(dir.resolve(file))) {
+                    if (line.startsWith(key + " ")) return Long.parseLong(line.substring(key.length() + 1).trim());
+                }
+            } catch (IOException | NumberFormatException ignored) {
+                // cgroup already removed
+            }
+            return -1;
+        }
+    }
+}
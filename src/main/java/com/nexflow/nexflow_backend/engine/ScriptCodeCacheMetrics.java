@@ -0,0 +1,47 @@
+package com.nexflow.nexflow_backend.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Hit / miss counters for the script code caches, exported as
+ * nexflow.script.code.cache{cache=..., result=hit|miss} (see /actuator/metrics).
+ *
+ *   wrapper  — generated one-shot wrappers in ScriptRunner
+ *   worker   — compiled functions / code objects inside warm workers
+ *   polyglot — evaluated functions in the in-process GraalJS contexts
+ */
+@Component
+public class ScriptCodeCacheMetrics {
+
+    static final String WRAPPER  = "wrapper";
+    static final String WORKER   = "worker";
+    static final String POLYGLOT = "polyglot";
+
+    private final Map<String, Counter> hits;
+    private final Map<String, Counter> misses;
+
+    public ScriptCodeCacheMetrics(MeterRegistry registry) {
+        hits   = Map.of(WRAPPER,  counter(registry, WRAPPER,  "hit"),
+                        WORKER,   counter(registry, WORKER,   "hit"),
+                        POLYGLOT, counter(registry, POLYGLOT, "hit"));
+        misses = Map.of(WRAPPER,  counter(registry, WRAPPER,  "miss"),
+                        WORKER,   counter(registry, WORKER,   "miss"),
+                        POLYGLOT, counter(registry, POLYGLOT, "miss"));
+    }
+
+    void record(String cache, boolean hit) {
+        (hit ? hits : misses).get(cache).increment();
+    }
+
+    private static Counter counter(MeterRegistry registry, String cache, String result) {
+        return Counter.builder("nexflow.script.code.cache")
+                .description("Script code cache lookups")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,202 @@
+package com.nexflow.nexflow_backend.engine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared CPU watchdog and wall-clock timer for one-shot script processes and warm script workers.
+ *
+ * One scheduler thread serves every running script, instead of a sleeping thread per process.
+ * Every CPU_POLL_INTERVAL_MS milliseconds it reads each watched process's total CPU time
+ * via ProcessHandle and computes the CPU rate for that interval:
+ *
+ *   cpuRate = (cpuTimeUsedThisInterval) / (wallTimeElapsedThisInterval)
+ *
+ * A cpuRate of 1.0 means the process used 100% of one CPU core for the full interval.
+ * If cpuRate exceeds CPU_HIGH_THRESHOLD for CPU_HIGH_CONSECUTIVE_SAMPLES consecutive
+ * polls, the process is force-killed and {@link Watch#infiniteLoopKilled()} becomes true.
+ *
+ * The same scheduler fires the wall-clock timeout: when it expires the process is killed and
+ * {@link Watch#timedOut()} becomes true. Killing the process closes its pipes, which is what
+ * unblocks the caller reading stdout.
+ *
+ * Samples are deltas, so a warm worker that is watched for one job at a time is judged
+ * only on the CPU that job burns — earlier jobs on the same process do not count.
+ */
+@Slf4j
+@Component
+public class ScriptCpuWatchdog {
+
+    /** CPU usage rate (0.0–1.0) above which a sample is considered "high". */
+    static final double CPU_HIGH_THRESHOLD         = 0.90;
+
+    /** How many consecutive high-CPU samples before we declare an infinite loop. */
+    static final int CPU_HIGH_CONSECUTIVE_SAMPLES  = 5;
+
+    /** Interval between CPU samples in milliseconds. */
+    static final long CPU_POLL_INTERVAL_MS         = 2_000;
+
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    public ScriptCpuWatchdog() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "script-cpu-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::sampleAll, CPU_POLL_INTERVAL_MS, CPU_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Starts watching a process for one job. Close the returned Watch as soon as the job is over.
+     *
+     * Fallback: if the OS does not support ProcessHandle CPU reporting (totalCpuDuration
+     * returns empty), CPU sampling is skipped for this process and the wall-clock timeout
+     * is the only protection — no false positives.
+     *
+     * @param kill how to kill the process — warm workers also mark themselves as destroyed
+     */
+    Watch watch(Process process, int timeoutSeconds, Runnable kill) {
+        return watch(process, Duration.ofSeconds(timeoutSeconds), kill);
+    }
+
+    /** Same as {@link #watch(Process, int, Runnable)} with a sub-second timeout, e.g. for health-check pings. */
+    Watch watch(Process process, Duration timeout, Runnable kill) {
+        Watch watch = new Watch(process.toHandle(), kill);
+        if (watch.lastCpuNanos >= 0) {
+            watches.add(watch);
+        } else {
+            log.debug("[CpuWatchdog] ProcessHandle CPU duration unavailable — watchdog inactive, wall-clock timeout only.");
+        }
+        watch.timeoutTask = scheduler.schedule(watch::timeout, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        return watch;
+    }
+
+    /** Kills a one-shot script process together with anything it spawned. */
+    static void killTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private void sampleAll() {
+        for (Watch watch : watches) {
+            try {
+                watch.sample();
+            } catch (RuntimeException e) {
+                log.warn("[CpuWatchdog] sampling failed: {}", e.getMessage());
+                watches.remove(watch);
+            }
+        }
+    }
+
+    /**
+     * Returns the total CPU time consumed by the process in nanoseconds,
+     * or -1 if not available on this platform.
+     */
+    static long getCpuNanos(ProcessHandle handle) {
+        return handle.info()
+                     .totalCpuDuration()
+                     .map(Duration::toNanos)
+                     .orElse(-1L);
+    }
+
+    final class Watch implements AutoCloseable {
+
+        private final ProcessHandle handle;
+        private final Runnable      kill;
+        private long lastCpuNanos;
+        private long lastWallNanos;
+        private int  consecutiveHighSamples;
+        private ScheduledFuture<?> timeoutTask;
+        private volatile boolean infiniteLoopKilled;
+        private volatile boolean timedOut;
+        private volatile boolean closed;
+
+        private Watch(ProcessHandle handle, Runnable kill) {
+            this.handle = handle;
+            this.kill   = kill;
+            // Establish baseline before first poll interval
+            this.lastCpuNanos  = getCpuNanos(handle);
+            this.lastWallNanos = System.nanoTime();
+        }
+
+        boolean infiniteLoopKilled() {
+            return infiniteLoopKilled;
+        }
+
+        boolean timedOut() {
+            return timedOut;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            watches.remove(this);
+            if (timeoutTask != null) timeoutTask.cancel(false);
+        }
+
+        private void timeout() {
+            if (closed) return;
+            timedOut = true;
+            watches.remove(this);
+            kill.run();
+        }
+
+        private void sample() {
+            if (closed || !handle.isAlive()) {
+                watches.remove(this);
+                return;
+            }
+
+            long currentCpuNanos  = getCpuNanos(handle);
+            long currentWallNanos = System.nanoTime();
+
+            if (currentCpuNanos < 0) { // CPU reporting went away
+                watches.remove(this);
+                return;
+            }
+
+            long wallDelta = currentWallNanos - lastWallNanos;
+            // A job registered just before this tick gets judged on the next one — a few
+            // milliseconds of interpreter start-up says nothing about an infinite loop.
+            if (wallDelta < TimeUnit.MILLISECONDS.toNanos(CPU_POLL_INTERVAL_MS / 2)) return;
+
+            long cpuDelta = currentCpuNanos - lastCpuNanos;
+            lastCpuNanos  = currentCpuNanos;
+            lastWallNanos = currentWallNanos;
+
+            double cpuRate = (double) cpuDelta / wallDelta;
+
+            if (cpuRate >= CPU_HIGH_THRESHOLD) {
+                consecutiveHighSamples++;
+                // One sample is not enough. We only kill after sustained high CPU.
+                log.debug("[CpuWatchdog] High CPU sample #{} — rate={}%", consecutiveHighSamples, Math.round(cpuRate * 100));
+            } else {
+                consecutiveHighSamples = 0; // reset — CPU dropped, not an infinite loop
+            }
+
+            if (consecutiveHighSamples >= CPU_HIGH_CONSECUTIVE_SAMPLES && !closed) {
+                log.warn("[CpuWatchdog] Infinite loop detected — {} consecutive high-CPU samples. Killing process {}.",
+                        consecutiveHighSamples, handle.pid());
+                infiniteLoopKilled = true;
+                watches.remove(this);
+                kill.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.nexflow.nexflow_backend.engine;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Serialises script input for out-of-process interpreters (warm workers and one-shot processes).
+ *
+ * Small inputs are serialised once into memory and sent as-is. Once the JSON passes
+ * app.script.shared-input.min-kb it is written straight into a file on a tmpfs
+ * (app.script.shared-input.dir, /dev/shm by default) and the interpreter only receives
+ *   { "$sharedInput": "/dev/shm/nexflow-input-<pid>/input-<random>.json", ...job keys... }
+ * The wrappers read that file, so a 50 MB nex is neither held in the JVM as a byte[] nor pushed
+ * through a 64 KB pipe, and every chunk of a mapOver call shares the one file.
+ *
+ * Scripts run as the same OS user as the JVM, so the directory is write + search only (0300): a
+ * script can open the file whose name it was given, but cannot list the directory to find other
+ * executions' inputs, and the names are random UUIDs. Files are 0600 and deleted as soon as the
+ * call that wrote them is closed — nothing is reused across calls.
+ *
+ * If the directory is missing or not writable, everything is sent inline as before.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScriptInputStore {
+
+    static final String SHARED_INPUT_KEY = "$sharedInput";
+
+    private static final String DIR_PREFIX = "nexflow-input-";
+
+    private static final FileAttribute<Set<PosixFilePermission>> DIR_PERMISSIONS =
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("-wx------"));
+    private static final FileAttribute<Set<PosixFilePermission>> FILE_PERMISSIONS =
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"));
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.script.shared-input.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.script.shared-input.dir:/dev/shm}")
+    private String dir;
+
+    @Value("${app.script.shared-input.min-kb:256}")
+    private int minKb;
+
+    private Path baseDir;
+    private final Set<Path> files = new HashSet<>(); // guarded by this
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        try {
+            Path root = Path.of(dir);
+            if (!Files.isDirectory(root)) throw new IOException(dir + " does not exist");
+            removeStaleDirs(root);
+            baseDir = Files.createDirectory(root.resolve(DIR_PREFIX + ProcessHandle.current().pid()), DIR_PERMISSIONS);
+            log.info("[ScriptInputStore] inputs over {} KB are shared through {}", minKb, baseDir);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("[ScriptInputStore] shared script input unavailable, inputs go over stdin: {}", e.getMessage());
+            baseDir = null;
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        files.forEach(ScriptInputStore::deleteQuietly);
+        files.clear();
+        if (baseDir == null) return;
+        try {
+            Files.deleteIfExists(baseDir);
+        } catch (IOException ignored) {
+            // a file still in use by a dying script
+        }
+    }
+
+    /**
+     * Serialises data once for an out-of-process run. Returns null when sharing is off, in
+     * which case the caller sends data itself. Close the result once the script has finished.
+     */
+    Prepared prepare(Object data) {
+        if (baseDir == null) return null;
+
+        Path path = baseDir.resolve("input-" + UUID.randomUUID() + ".json");
+        SpillOutputStream out = new SpillOutputStream(minKb * 1024L, path);
+        try (out) {
+            objectMapper.writeValue(out, data);
+        } catch (IOException e) {
+            // tmpfs full or gone — fall back to sending the input over stdin
+            log.debug("[ScriptInputStore] could not share script input: {}", e.getMessage());
+            deleteQuietly(path);
+            return null;
+        }
+        if (!out.spilled()) return new Prepared(out.inline(), null);
+
+        register(path);
+        return new Prepared(null, path);
+    }
+
+    private synchronized void register(Path path) {
+        files.add(path);
+    }
+
+    private synchronized void release(Path path) {
+        files.remove(path);
+        deleteQuietly(path);
+    }
+
+    /** Directories of earlier JVMs on this host that did not shut down cleanly. */
+    private static void removeStaleDirs(Path root) {
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, DIR_PREFIX + "*")) {
+            for (Path stale : dirs) {
+                try {
+                    long pid = Long.parseLong(stale.getFileName().toString().substring(DIR_PREFIX.length()));
+                    if (ProcessHandle.of(pid).isPresent()) continue;
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                try {
+                    // not listable while 0300
+                    Files.setPosixFilePermissions(stale, PosixFilePermissions.fromString("rwx------"));
+                    try (DirectoryStream<Path> children = Files.newDirectoryStream(stale)) {
+                        children.forEach(ScriptInputStore::deleteQuietly);
+                    }
+                } catch (IOException | UnsupportedOperationException e) {
+                    log.debug("[ScriptInputStore] could not clean {}: {}", stale, e.getMessage());
+                }
+                deleteQuietly(stale);
+            }
+        } catch (IOException e) {
+            log.debug("[ScriptInputStore] could not scan {}: {}", root, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // removed with its directory at shutdown
+        }
+    }
+
+    // ── Handles ───────────────────────────────────────────────────────────────
+
+    /** Serialised input for one script call (or one mapOver call and all of its chunks). */
+    final class Prepared implements AutoCloseable {
+
+        private final byte[]  inline;
+        private final Path    shared;
+        private boolean       closed;
+
+        private Prepared(byte[] inline, Path shared) {
+            this.inline = inline;
+            this.shared = shared;
+        }
+
+        boolean isShared() {
+            return shared != null;
+        }
+
+        /**
+         * What to send to the interpreter in place of the input: the JSON itself, or a file reference.
+         * The JSON is written into the request as the bytes it was serialised to, never decoded again.
+         */
+        Object wire() {
+            return shared != null ? reference(Map.of()) : new RawValue(new RawJson(inline));
+        }
+
+        /** A file reference plus keys of this job only (mapOver items / offset). Only valid when isShared(). */
+        Map<String, Object> reference(Map<String, Object> jobKeys) {
+            Map<String, Object> ref = new LinkedHashMap<>(jobKeys);
+            ref.put(SHARED_INPUT_KEY, shared.toString());
+            return ref;
+        }
+
+        @Override
+        public void close() {
+            if (closed || shared == null) return;
+            closed = true;
+            release(shared);
+        }
+    }
+
+    /**
+     * Already-serialised JSON for JsonGenerator.writeRawValue. The byte-based generators used for worker
+     * requests and process stdin copy the bytes straight into their output; only a char-based generator
+     * (writeValueAsString, e.g. in a log line) ever decodes them.
+     */
+    private static final class RawJson implements SerializableString {
+
+        private final byte[] json;
+
+        private RawJson(byte[] json) {
+            this.json = json;
+        }
+
+        @Override public String getValue()              { return new String(json, StandardCharsets.UTF_8); }
+        @Override public int    charLength()            { return getValue().length(); }
+        @Override public byte[] asUnquotedUTF8()        { return json; }
+        @Override public char[] asQuotedChars()         { return JsonStringEncoder.getInstance().quoteAsString(getValue()); }
+        @Override public byte[] asQuotedUTF8()          { return JsonStringEncoder.getInstance().quoteAsUTF8(getValue()); }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + json.length > buffer.length) return -1;
+            System.arraycopy(json, 0, buffer, offset, json.length);
+            return json.length;
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(json);
+            return json.length;
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (json.length > buffer.remaining()) return -1;
+            buffer.put(json);
+            return json.length;
+        }
+
+        @Override public int appendUnquoted(char[] buffer, int offset)     { return append(getValue().toCharArray(), buffer, offset); }
+        @Override public int appendQuoted(char[] buffer, int offset)       { return append(asQuotedChars(), buffer, offset); }
+        @Override public int appendQuotedUTF8(byte[] buffer, int offset)   { return append(asQuotedUTF8(), buffer, offset); }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            byte[] quoted = asQuotedUTF8();
+            out.write(quoted);
+            return quoted.length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            byte[] quoted = asQuotedUTF8();
+            if (quoted.length > buffer.remaining()) return -1;
+            buffer.put(quoted);
+            return quoted.length;
+        }
+
+        private static int append(char[] chars, char[] buffer, int offset) {
+            if (offset + chars.length > buffer.length) return -1;
+            System.arraycopy(chars, 0, buffer, offset, chars.length);
+            return chars.length;
+        }
+
+        private static int append(byte[] bytes, byte[] buffer, int offset) {
+            if (offset + bytes.length > buffer.length) return -1;
+            System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+            return bytes.length;
+        }
+    }
+
+    /** Buffers up to threshold bytes in memory; past that, everything goes to the file instead. */
+    private static final class SpillOutputStream extends OutputStream {
+
+        private final long           threshold;
+        private final Path           path;
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private OutputStream         file;
+        private long                 size;
+
+        private SpillOutputStream(long threshold, Path path) {
+            this.threshold = threshold;
+            this.path      = path;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (file == null && size + len > threshold) {
+                Files.createFile(path, FILE_PERMISSIONS);
+                file = Files.newOutputStream(path, StandardOpenOption.WRITE);
+                memory.writeTo(file);
+                memory = null;
+            }
+            (file != null ? file : memory).write(b, off, len);
+            size += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) file.close();
+        }
+
+        boolean spilled() {
+            return file != null;
+        }
+
+        byte[] inline() {
+            return memory.toByteArray();
+        }
+
+        long size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.nexflow.nexflow_backend.engine;
+
+import java.io.IOException;
+
+/**
+ * Thrown while reading a script's result once it passes app.script.max-output-mb.
+ * The producing process is killed before this is thrown.
+ */
+class ScriptOutputTooLargeException extends IOException {
+
+    ScriptOutputTooLargeException(long limitBytes) {
+        super("Script output exceeded the " + (limitBytes / (1024 * 1024)) + " MB limit.");
+    }
+}
@@ -1,21 +1,39 @@
 package com.nexflow.nexflow_backend.engine;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexflow.nexflow_backend.NcoMeta;
+import com.nexflow.nexflow_backend.model.nco.NexflowContextObject;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.Duration;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Runs user-supplied scripts in a sandboxed subprocess.
@@ -24,18 +42,31 @@ import java.util.concurrent.atomic.AtomicReference;
  *   javascript — executed via `node`
  *   python     — executed via `python3`
  *
- * How it works:
- *   1. Write the NCO input data to a temp JSON file
- *   2. Wrap the user's code in a safe harness (error catching, result serialisation)
- *   3. Write the full script to a second temp file
- *   4. Run the subprocess, capture stdout as JSON
- *   5. Delete both temp files
- *   6. Return ScriptResult
+ * In-process JavaScript (opt-in, app.script.javascript-engine=polyglot):
+ *   JavaScript runs in a sandboxed GraalJS context from {@link PolyglotScriptEngine}, with no
+ *   subprocess at all. When that engine is off or saturated, the paths below apply.
+ *
+ * Warm workers (default):
+ *   Jobs go to a long-lived interpreter from {@link ScriptWorkerPool} when one is available,
+ *   which skips the 40–80 ms process start. If the pool is disabled, the interpreter cannot be
+ *   started, or every worker is busy, the script runs one-shot as described below.
+ *
+ * One-shot mode:
+ *   1. Wrap the user's code in a safe harness (error catching, result serialisation); wrappers
+ *      are generated once per code hash and kept in an LRU cache
+ *   2. Start `node -e` / `python3 -c` with the wrapper inline (oversized wrappers are
+ *      written once per code hash and reused)
+ *   3. Stream the NCO input data as JSON to the subprocess stdin (large inputs: a reference to
+ *      a shared-memory file written once, see {@link ScriptInputStore})
+ *   4. Skip stdout up to the result marker and stream-parse the result JSON
+ *      (capped at app.script.max-output-mb)
+ *   5. Return ScriptResult
+ * Nothing touches a disk per call.
  *
  * Two-layer protection against runaway scripts:
  *
- *   Layer 1 — CPU watchdog (primary):
- *     A daemon thread polls the subprocess CPU usage every 2 seconds.
+ *   Layer 1 — CPU watchdog (primary, see {@link ScriptCpuWatchdog}):
+ *     One shared scheduler polls the CPU usage of every running script every 2 seconds.
  *     If CPU stays above CPU_HIGH_THRESHOLD (90%) for CPU_HIGH_CONSECUTIVE_SAMPLES
  *     consecutive samples (default: 5 × 2s = 10 seconds of sustained high CPU),
  *     the process is force-killed and an "infinite loop detected" error is returned.
@@ -48,25 +79,69 @@ import java.util.concurrent.atomic.AtomicReference;
  *     A per-node configurable timeout (default 10s, max 300s) catches scripts that
  *     are stuck on I/O indefinitely (e.g. TCP connect to a host that never responds).
  *     Only fires if the CPU watchdog did not already kill the process.
+ *
+ * Optional layer 0 — cgroup v2 (see {@link ScriptCgroupManager}):
+ *   With app.script.cgroup.enabled, each one-shot script and each warm worker runs in its own
+ *   cgroup with kernel-enforced cpu.max / memory.max / pids.max. OOM kills are reported as a
+ *   memory-limit error, and CPU / memory usage is attached to the result.
+ *
+ * Threads: a one-shot run starts no threads of its own. stdout is read by the calling thread,
+ * stderr by the shared {@link ScriptStreamReactor}, and both layers run on the watchdog's scheduler.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ScriptRunner {
 
-    private static final int DEFAULT_TIMEOUT_SECONDS       = 10;
+    public  static final int DEFAULT_TIMEOUT_SECONDS       = 10;
     private static final int MAX_TIMEOUT_SECONDS           = 300;   // hard cap regardless of node config
-
-    /** CPU usage rate (0.0–1.0) above which a sample is considered "high". */
-    private static final double CPU_HIGH_THRESHOLD         = 0.90;
-
-    /** How many consecutive high-CPU samples before we declare an infinite loop. */
-    private static final int CPU_HIGH_CONSECUTIVE_SAMPLES  = 5;
-
-    /** Interval between CPU samples in milliseconds. */
-    private static final long CPU_POLL_INTERVAL_MS         = 2_000;
-
-    private final ObjectMapper objectMapper;
+    private static final int MAX_MAP_PARALLELISM           = 16;
+
+    /** Wrapped scripts up to this size are passed on the command line (Linux MAX_ARG_STRLEN is 128 KB). */
+    private static final int MAX_INLINE_SCRIPT_BYTES       = 96 * 1024;
+    private static final int MAX_STDERR_BYTES              = 64 * 1024;
+    /** How much of the output printed before the result is kept for error messages. */
+    private static final int MAX_PREFIX_BYTES              = 4 * 1024;
+    private static final int MAX_CACHED_SCRIPT_FILES       = 128;
+    private static final int MAX_CACHED_WRAPPERS           = 256;
+
+    /** Printed by both wrappers right before the result JSON. 0x1E (record separator) never shows up in normal logging. */
+    private static final byte[] RESULT_MARKER = "\u001eNEXFLOW_RESULT\u001e".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper           objectMapper;
+    private final ScriptWorkerPool       workerPool;
+    private final PolyglotScriptEngine   polyglotEngine;
+    private final ScriptCpuWatchdog      watchdog;
+    private final ScriptStreamReactor    streamReactor;
+    private final ScriptCgroupManager    cgroups;
+    private final ScriptInputStore       inputStore;
+    private final ScriptCodeCacheMetrics codeCacheMetrics;
+    @Qualifier("scriptBatchExecutor")
+    private final Executor               scriptBatchExecutor;
+
+    /** Result size cap, shared with the warm workers. Past it the script is killed and the node fails. */
+    @Value("${app.script.max-output-mb:16}")
+    private int maxOutputMb;
+
+    /** Oversized wrappers written once per code hash; LRU so a churn of huge scripts stays bounded. */
+    private final Map<String, Path> scriptFiles = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Path> eldest) {
+            if (size() <= MAX_CACHED_SCRIPT_FILES) return false;
+            try { Files.deleteIfExists(eldest.getValue()); }
+            catch (IOException ignored) {}
+            return true;
+        }
+    };
+    private Path scriptDir;
+
+    /** Generated one-shot wrappers by kind + code hash, so hot scripts are not re-wrapped on every call. */
+    private final Map<String, String> wrappers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_WRAPPERS;
+        }
+    };
 
     // ── Blocked patterns — modules / built-ins that allow network/fs/process access ──
 
@@ -98,21 +173,216 @@ public class ScriptRunner {
     }
 
     public ScriptResult run(String language, String userCode, Object inputData, int timeoutSeconds) {
+        return run(language, userCode, inputData, timeoutSeconds, null);
+    }
+
+    /** @param owner the flow owner (see {@link #owner}); warm workers are only reused for the same owner */
+    public ScriptResult run(String language, String userCode, Object inputData, int timeoutSeconds, String owner) {
         // Clamp the timeout so one bad node config cannot run forever.
-        int timeout = Math.min(Math.max(timeoutSeconds, 1), MAX_TIMEOUT_SECONDS);
-        return switch (language.toLowerCase()) {
-            case "javascript" -> {
-                String blocked = findBlockedPattern(userCode, JS_BLOCKED);
-                if (blocked != null) yield ScriptResult.error("Script uses blocked pattern: " + blocked);
-                yield runScript("js", buildJsWrapper(userCode), inputData, "node", timeout);
+        int timeout = clampTimeout(timeoutSeconds);
+        String lang = language.toLowerCase();
+        ScriptResult rejected = checkCode(lang, userCode);
+        return rejected != null ? rejected : dispatch(lang, owner, userCode, inputData, null, timeout, false);
+    }
+
+    /** Whose scripts these are, for partitioning warm workers: the flow owner, else the flow. */
+    public static String owner(NexflowContextObject nco) {
+        NcoMeta meta = nco != null ? nco.getMeta() : null;
+        if (meta == null) return null;
+        return meta.getUserId() != null ? meta.getUserId().toString() : "flow:" + meta.getFlowId();
+    }
+
+    /**
+     * Runs the script once per element of items, inside as few interpreter invocations as possible.
+     *
+     * The items are cut into chunks of batchSize; each chunk is one job whose wrapper calls the user
+     * code for every item (JavaScript: `item` / `index` parameters and `return`; Python: `item` /
+     * `index` variables and `result`). Up to parallelism chunks run at once on scriptBatchExecutor,
+     * so they spread over several warm workers.
+     *
+     * Output (on success): { results: [...one entry per item, null where it failed...],
+     *                        errors:  [{ index, error }, ...] }
+     * An error on one item does not stop the others. A chunk-level failure (timeout, infinite
+     * loop, crash, output cap) fails the whole call.
+     *
+     * timeoutSeconds is one deadline for the whole call, not per chunk: each chunk gets the time
+     * that is left when it starts, and chunks that have not started by then fail with a timeout.
+     *
+     * @param inputData { nex, input } exactly as for {@link #run}; items / offset are added per chunk
+     * @param owner     the flow owner, as for {@link #run(String, String, Object, int, String)}
+     */
+    public ScriptResult runMap(String language, String userCode, Map<String, Object> inputData, List<?> items,
+                               int batchSize, int parallelism, int timeoutSeconds, String owner) {
+        int timeout = clampTimeout(timeoutSeconds);
+        String lang = language.toLowerCase();
+        ScriptResult rejected = checkCode(lang, userCode);
+        if (rejected != null) return rejected;
+
+        int chunkSize = Math.max(1, batchSize);
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        for (int offset = 0; offset < items.size(); offset += chunkSize) {
+            Map<String, Object> chunk = new LinkedHashMap<>(inputData);
+            chunk.put("items",  items.subList(offset, Math.min(offset + chunkSize, items.size())));
+            chunk.put("offset", offset);
+            chunks.add(chunk);
+        }
+
+        // nex / input are the same for every chunk: when they are large, write them once and let
+        // each chunk carry only a reference plus its own items. Not needed if everything runs in-process.
+        boolean inProcess = "javascript".equals(lang) && polyglotEngine.isEnabled();
+        List<ScriptResult> chunkResults;
+        try (ScriptInputStore.Prepared shared = inProcess || chunks.size() <= 1 ? null : inputStore.prepare(inputData)) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+            chunkResults = runChunks(lang, owner, userCode, chunks, shared != null && shared.isShared() ? shared : null,
+                                     Math.min(Math.max(parallelism, 1), MAX_MAP_PARALLELISM), timeout, deadline);
+        }
+
+        List<Object> results = new ArrayList<>(items.size());
+        List<Object> errors  = new ArrayList<>();
+        long cpuMillis = 0, memoryBytes = 0;
+        boolean measured = false;
+        for (int i = 0; i < chunkResults.size(); i++) {
+            ScriptResult r = chunkResults.get(i);
+            if (r.resources() != null) {
+                measured = true;
+                cpuMillis  += r.resources().cpuMillis();
+                memoryBytes = Math.max(memoryBytes, r.resources().memoryBytes());
             }
-            case "python" -> {
-                String blocked = findBlockedPattern(userCode, PY_BLOCKED);
-                if (blocked != null) yield ScriptResult.error("Script uses blocked pattern: " + blocked);
-                yield runScript("py", buildPyWrapper(userCode), inputData, "python3", timeout);
+            if (!r.success()) {
+                int from = (Integer) chunks.get(i).get("offset");
+                int to   = from + ((List<?>) chunks.get(i).get("items")).size() - 1;
+                return ScriptResult.error("Items " + from + "–" + to + ": " + r.error())
+                        .withResources(measured ? new ResourceUsage(cpuMillis, memoryBytes) : null);
             }
-            default -> ScriptResult.error("Unsupported language: " + language + ". Use 'javascript' or 'python'.");
+            if (!(r.output() instanceof Map<?, ?> out)) {
+                return ScriptResult.error("Map chunk returned an unexpected result.");
+            }
+            if (out.get("results") instanceof List<?> l) results.addAll(l);
+            if (out.get("errors")  instanceof List<?> l) errors.addAll(l);
+        }
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("results", results);
+        output.put("errors",  errors);
+        return ScriptResult.ok(output).withResources(measured ? new ResourceUsage(cpuMillis, memoryBytes) : null);
+    }
+
+    private List<ScriptResult> runChunks(String lang, String owner, String userCode, List<Map<String, Object>> chunks,
+                                         ScriptInputStore.Prepared shared, int parallelism, int timeout, long deadline) {
+        if (parallelism <= 1 || chunks.size() <= 1) {
+            List<ScriptResult> results = new ArrayList<>(chunks.size());
+            for (Map<String, Object> chunk : chunks) {
+                ScriptResult r = runChunk(lang, owner, userCode, chunk, shared, timeout, deadline);
+                results.add(r);
+                if (!r.success()) break; // the whole call fails anyway
+            }
+            return results;
+        }
+
+        // At most `parallelism` chunks in flight; the calling thread waits for a free slot.
+        Semaphore slots = new Semaphore(parallelism);
+        List<CompletableFuture<ScriptResult>> futures = new ArrayList<>(chunks.size());
+        try {
+            for (Map<String, Object> chunk : chunks) {
+                slots.acquire();
+                CompletableFuture<ScriptResult> future;
+                try {
+                    future = CompletableFuture.supplyAsync(
+                            () -> runChunk(lang, owner, userCode, chunk, shared, timeout, deadline), scriptBatchExecutor);
+                } catch (RejectedExecutionException e) {
+                    future = CompletableFuture.completedFuture(runChunk(lang, owner, userCode, chunk, shared, timeout, deadline));
+                }
+                futures.add(future.whenComplete((r, e) -> slots.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.add(CompletableFuture.completedFuture(ScriptResult.error("Script execution was interrupted.")));
+        }
+        return futures.stream()
+                .map(f -> f.exceptionally(e -> ScriptResult.error("Map chunk failed: " + e.getMessage())).join())
+                .toList();
+    }
+
+    /** One chunk with the time left until the call's deadline (whole seconds, rounded up). */
+    private ScriptResult runChunk(String lang, String owner, String userCode, Map<String, Object> chunk,
+                                  ScriptInputStore.Prepared shared, int timeout, long deadline) {
+        long left = deadline - System.nanoTime();
+        if (left <= 0) return timeoutResult(timeout);
+        int seconds = (int) Math.min(timeout, (left + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        ScriptResult result = dispatch(lang, owner, userCode, chunk, chunkWire(shared, chunk), seconds, true);
+        // a chunk cut short by the call's deadline reports the node's timeout, not the seconds it had left
+        return !result.success() && System.nanoTime() - deadline >= 0
+                ? timeoutResult(timeout).withResources(result.resources())
+                : result;
+    }
+
+    /** The shared-file reference plus this chunk's items / offset, or null to send the chunk itself. */
+    private static Object chunkWire(ScriptInputStore.Prepared shared, Map<String, Object> chunk) {
+        if (shared == null) return null;
+        return shared.reference(Map.of("items", chunk.get("items"), "offset", chunk.get("offset")));
+    }
+
+    private static int clampTimeout(int timeoutSeconds) {
+        return Math.min(Math.max(timeoutSeconds, 1), MAX_TIMEOUT_SECONDS);
+    }
+
+    /** Returns an error result when the language is unsupported or the code uses a blocked pattern. */
+    private static ScriptResult checkCode(String language, String userCode) {
+        List<String> blockedPatterns = switch (language) {
+            case "javascript" -> JS_BLOCKED;
+            case "python"     -> PY_BLOCKED;
+            default -> null;
         };
+        if (blockedPatterns == null) {
+            return ScriptResult.error("Unsupported language: " + language + ". Use 'javascript' or 'python'.");
+        }
+        String blocked = findBlockedPattern(userCode, blockedPatterns);
+        return blocked != null ? ScriptResult.error("Script uses blocked pattern: " + blocked) : null;
+    }
+
+    /**
+     * In-process engine (JavaScript, opt-in) → warm worker → one-shot process.
+     *
+     * @param wire what the interpreter receives instead of inputData (a shared-input reference),
+     *             or null to serialise inputData here
+     */
+    private ScriptResult dispatch(String language, String owner, String userCode, Object inputData, Object wire, int timeout, boolean map) {
+        if ("javascript".equals(language)) {
+            ScriptResult inProcess = polyglotEngine.execute(userCode, inputData, timeout, map);
+            if (inProcess != null) return inProcess;
+        }
+        if (wire != null) return runOutOfProcess(language, owner, userCode, wire, timeout, map);
+        try (ScriptInputStore.Prepared prepared = inputStore.prepare(inputData)) {
+            return runOutOfProcess(language, owner, userCode, prepared != null ? prepared.wire() : inputData, timeout, map);
+        }
+    }
+
+    private ScriptResult runOutOfProcess(String language, String owner, String userCode, Object wire, int timeout, boolean map) {
+        String codeId = sha256(userCode.getBytes(StandardCharsets.UTF_8));
+        ScriptResult pooled = workerPool.execute(language, owner, map ? "map" : "run", userCode, codeId, wire, timeout);
+        if (pooled != null) return pooled;
+        return "javascript".equals(language)
+                ? runScript("js", wrapper(map ? "js-map" : "js", codeId, userCode), wire, "node",    timeout)
+                : runScript("py", wrapper(map ? "py-map" : "py", codeId, userCode), wire, "python3", timeout);
+    }
+
+    private String wrapper(String kind, String codeId, String userCode) {
+        String key = kind + ":" + codeId;
+        synchronized (wrappers) {
+            String cached = wrappers.get(key);
+            codeCacheMetrics.record(ScriptCodeCacheMetrics.WRAPPER, cached != null);
+            if (cached != null) return cached;
+        }
+        String wrapped = switch (kind) {
+            case "js"     -> buildJsWrapper(userCode);
+            case "js-map" -> buildJsMapWrapper(userCode);
+            case "py"     -> buildPyWrapper(userCode);
+            default       -> buildPyMapWrapper(userCode);
+        };
+        synchronized (wrappers) {
+            wrappers.put(key, wrapped);
+        }
+        return wrapped;
     }
 
     private static String findBlockedPattern(String code, List<String> patterns) {
@@ -123,11 +393,14 @@ public class ScriptRunner {
     }
 
     // ── Script wrappers ───────────────────────────────────────────────────────
+    // Both wrappers read the input document from stdin (fd 0). A large input arrives as
+    // { "$sharedInput": path, ... } instead, and the document is read from that tmpfs file.
 
     private String buildJsWrapper(String userCode) {
         return """
                 const fs    = require('fs');
-                const _data = JSON.parse(fs.readFileSync(process.argv[2], 'utf8'));
+                let   _data = JSON.parse(fs.readFileSync(0, 'utf8'));
+                if (_data.$sharedInput) _data = Object.assign(JSON.parse(fs.readFileSync(_data.$sharedInput, 'utf8')), _data);
                 // nex  — unified flat container: nex.userId, nex.fetchUser.body.items, etc.
                 // input — legacy access: input.variables, input.nodes, input.trigger (backward compat)
                 const nex   = _data.nex   || {};
@@ -138,9 +411,9 @@ public class ScriptRunner {
                         %s
                     })(nex, input);
 
-                    process.stdout.write(JSON.stringify({ success: true, output: result ?? null }));
+                    process.stdout.write('\\u001eNEXFLOW_RESULT\\u001e' + JSON.stringify({ success: true, output: result ?? null }));
                 } catch (e) {
-                    process.stdout.write(JSON.stringify({ success: false, error: e.message }));
+                    process.stdout.write('\\u001eNEXFLOW_RESULT\\u001e' + JSON.stringify({ success: false, error: e.message }));
                 }
                 """.formatted(userCode);
     }
@@ -149,8 +422,10 @@ public class ScriptRunner {
         return """
                 import json, sys
 
-                with open(sys.argv[1]) as f:
-                    _data = json.load(f)
+                _data = json.load(sys.stdin)
+                if '$sharedInput' in _data:
+                    with open(_data['$sharedInput'], 'rb') as _f:
+                        _data = {**json.load(_f), **_data}
                 # nex  — unified flat container: nex['userId'], nex['fetchUser']['body']['items'], etc.
                 # input — legacy access: input['variables'], input['nodes'], input['trigger'] (backward compat)
                 nex   = _data.get('nex',   {})
@@ -158,95 +433,178 @@ public class ScriptRunner {
 
                 try:
                 %s
-                    print(json.dumps({"success": True, "output": result}))
+                    print("\\x1eNEXFLOW_RESULT\\x1e" + json.dumps({"success": True, "output": result}))
                 except Exception as e:
-                    print(json.dumps({"success": False, "error": str(e)}))
+                    print("\\x1eNEXFLOW_RESULT\\x1e" + json.dumps({"success": False, "error": str(e)}))
+                """.formatted(indentPython(userCode));
+    }
+
+    // Map-mode wrappers: the user's code runs once per element of _data.items (see runMap).
+
+    private String buildJsMapWrapper(String userCode) {
+        return """
+                const fs     = require('fs');
+                let   _data  = JSON.parse(fs.readFileSync(0, 'utf8'));
+                if (_data.$sharedInput) _data = Object.assign(JSON.parse(fs.readFileSync(_data.$sharedInput, 'utf8')), _data);
+                const nex    = _data.nex   || {};
+                const input  = _data.input || {};
+                const items  = _data.items || [];
+                const offset = _data.offset || 0;
+
+                const _fn = function(nex, input, item, index) {
+                    %s
+                };
+                const results = [], errors = [];
+                for (let i = 0; i < items.length; i++) {
+                    try {
+                        results.push(_fn(nex, input, items[i], offset + i) ?? null);
+                    } catch (e) {
+                        results.push(null);
+                        errors.push({ index: offset + i, error: e.message });
+                    }
+                }
+                process.stdout.write('\\u001eNEXFLOW_RESULT\\u001e' + JSON.stringify({ success: true, output: { results, errors } }));
+                """.formatted(userCode);
+    }
+
+    private String buildPyMapWrapper(String userCode) {
+        return """
+                import json, sys
+
+                _data  = json.load(sys.stdin)
+                if '$sharedInput' in _data:
+                    with open(_data['$sharedInput'], 'rb') as _f:
+                        _data = {**json.load(_f), **_data}
+                nex    = _data.get('nex',   {})
+                input  = _data.get('input', {})
+                _items = _data.get('items') or []
+                _off   = _data.get('offset', 0)
+
+                def _nf_item(item, index):
+                %s
+                    return result
+
+                _results, _errors = [], []
+                for _i, _item in enumerate(_items):
+                    try:
+                        _results.append(_nf_item(_item, _off + _i))
+                    except Exception as e:
+                        _results.append(None)
+                        _errors.append({"index": _off + _i, "error": str(e)})
+                print("\\x1eNEXFLOW_RESULT\\x1e" + json.dumps({"success": True, "output": {"results": _results, "errors": _errors}}))
                 """.formatted(indentPython(userCode));
     }
 
     // ── Core subprocess runner ────────────────────────────────────────────────
 
-    @SuppressWarnings("unchecked")
     private ScriptResult runScript(String extension, String wrappedCode, Object inputData,
                                    String interpreter, int timeoutSeconds) {
-        Path scriptFile = null;
-        Path inputFile  = null;
+        List<String> command;
+        try {
+            command = buildCommand(interpreter, extension, wrappedCode);
+        } catch (UncheckedIOException e) {
+            log.error("ScriptRunner IO error: {}", e.getMessage());
+            return ScriptResult.error("Failed to run script: " + e.getMessage());
+        }
 
+        ScriptCgroupManager.Slot cgroup = openCgroup("script");
+        if (cgroup == null) return runProcess(command, inputData, timeoutSeconds);
         try {
-            inputFile  = Files.createTempFile("nf_input_",  ".json");
-            scriptFile = Files.createTempFile("nf_script_", "." + extension);
+            ScriptResult result = runProcess(cgroup.wrap(command), inputData, timeoutSeconds);
+            ResourceUsage usage = new ResourceUsage(cgroup.cpuUsageMicros() / 1000, cgroup.memoryPeakBytes());
+            // An OOM kill surfaces above as "no output" or a truncated result — report the real cause.
+            if (cgroup.oomKills() > 0) return memoryLimitResult(cgroups.memoryMaxMb()).withResources(usage);
+            return result.withResources(usage);
+        } finally {
+            cgroup.close();
+        }
+    }
 
-            Files.writeString(inputFile,  objectMapper.writeValueAsString(inputData));
-            Files.writeString(scriptFile, wrappedCode);
+    private ScriptCgroupManager.Slot openCgroup(String kind) {
+        if (!cgroups.isAvailable()) return null;
+        try {
+            return cgroups.create(kind);
+        } catch (IOException e) {
+            log.warn("[ScriptRunner] could not create cgroup, running without limits: {}", e.getMessage());
+            return null;
+        }
+    }
 
-            Process process = new ProcessBuilder(interpreter, scriptFile.toString(), inputFile.toString())
+    @SuppressWarnings("unchecked")
+    private ScriptResult runProcess(List<String> command, Object inputData, int timeoutSeconds) {
+        try {
+            Process process = new ProcessBuilder(command)
                     .redirectErrorStream(false)
                     .start();
 
-            // ── Drain stdout + stderr concurrently ────────────────────────────
-            // IMPORTANT: must drain both streams in background threads BEFORE calling
-            // waitFor(). If the script writes more than the OS pipe buffer (~64 KB on
-            // Linux) before the JVM reads, the script blocks on write() and the JVM
-            // blocks in waitFor() — deadlock, always hitting the wall-clock timeout.
-            AtomicReference<byte[]> stdoutBytes = new AtomicReference<>(new byte[0]);
-            AtomicReference<byte[]> stderrBytes = new AtomicReference<>(new byte[0]);
-
-            Thread stdoutDrainer = drainStream(process.getInputStream(), stdoutBytes);
-            Thread stderrDrainer = drainStream(process.getErrorStream(), stderrBytes);
-
-            // ── Layer 1: CPU watchdog ─────────────────────────────────────────
-            AtomicBoolean infiniteLoopKilled = new AtomicBoolean(false);
-            Thread watchdog = startCpuWatchdog(process, infiniteLoopKilled);
-            // The watchdog watches CPU usage. The waitFor() call below is the wall-clock timeout.
-
-            // ── Layer 2: wall-clock timeout ───────────────────────────────────
-            boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
-            watchdog.interrupt(); // stop watchdog — process is done or timed out
-
-            // Wait for drainer threads so stdout/stderr are fully read before we use them
-            stdoutDrainer.join(5_000);
-            stderrDrainer.join(5_000);
-
-            // Check watchdog result first — it killed the process before timeout fired
-            if (infiniteLoopKilled.get()) {
-                return ScriptResult.error(
-                    "Infinite loop detected: script consumed 100%% CPU for " +
-                    (CPU_HIGH_CONSECUTIVE_SAMPLES * CPU_POLL_INTERVAL_MS / 1000) +
-                    " seconds continuously. Use a loop with a termination condition."
-                );
-            }
+            // stderr is drained by the shared reactor so a chatty script can never block on a
+            // full pipe (~64 KB on Linux) while this thread is busy with stdin / stdout.
+            CompletableFuture<byte[]> stderrBytes =
+                    streamReactor.collect(process, process.getErrorStream(), MAX_STDERR_BYTES);
+
+            // ── Layer 1 + 2: shared CPU watchdog and wall-clock timeout ───────
+            // Either one kills the process, which closes its pipes and ends the read below.
+            try (ScriptCpuWatchdog.Watch watch = watchdog.watch(process, timeoutSeconds,
+                                                                () -> ScriptCpuWatchdog.killTree(process))) {
+
+                // ── Input over stdin ──────────────────────────────────────────
+                // The wrapper reads stdin to EOF before running any user code.
+                writeInput(process, inputData);
+
+                // ── Output: parsed straight from stdout, on this thread ───────
+                // Past the cap the process is killed and the read fails — nothing unbounded
+                // is ever buffered. Prefix output (console.log / print) is skipped, keeping
+                // only the first MAX_PREFIX_BYTES for error messages.
+                long maxOutputBytes = maxOutputMb * 1024L * 1024L;
+                ByteArrayOutputStream prefix = new ByteArrayOutputStream();
+                Map<String, Object> parsed = null;
+                IOException readFailure = null;
+                try (InputStream stdout = new CappedInputStream(process.getInputStream(), maxOutputBytes,
+                                                                () -> ScriptCpuWatchdog.killTree(process))) {
+                    parsed = readResult(stdout, prefix);
+                } catch (IOException e) {
+                    readFailure = e;
+                    ScriptCpuWatchdog.killTree(process);
+                }
 
-            if (!finished) {
-                process.destroyForcibly();
-                return ScriptResult.error(
-                    "Script timed out after " + timeoutSeconds + " seconds. " +
-                    "The script may be waiting on a network call or external resource that never responded."
-                );
-            }
+                // The result has been read, so the process is exiting; this only waits for the exit status.
+                boolean finished = process.waitFor(5, TimeUnit.SECONDS);
 
-            String stdout = new String(stdoutBytes.get()).trim();
-            String stderr = new String(stderrBytes.get()).trim();
+                // A complete result frame stands even if the exit is slow or the process is killed meanwhile.
+                if (parsed != null && readFailure == null) {
+                    if (!finished) ScriptCpuWatchdog.killTree(process);
+                    return Boolean.TRUE.equals(parsed.get("success"))
+                            ? ScriptResult.ok(parsed.get("output"))
+                            : ScriptResult.error((String) parsed.getOrDefault("error", "Script returned failure."));
+                }
 
-            if (stdout.isEmpty()) {
-                String errorMsg = stderr.isEmpty() ? "Script produced no output." : stderr;
-                return ScriptResult.error(errorMsg);
-            }
+                // Check watchdog result first — it killed the process before timeout fired
+                if (watch.infiniteLoopKilled()) {
+                    return infiniteLoopResult();
+                }
+
+                if (readFailure instanceof ScriptOutputTooLargeException) {
+                    return ScriptResult.error(readFailure.getMessage());
+                }
+
+                if (watch.timedOut() || !finished) {
+                    ScriptCpuWatchdog.killTree(process);
+                    return timeoutResult(timeoutSeconds);
+                }
+
+                if (readFailure != null) {
+                    String reason = readFailure instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : readFailure.getMessage();
+                    return ScriptResult.error("Script produced invalid JSON: " + truncate(reason, 200));
+                }
 
-            // Parse only the JSON object: from the first '{' to the end.
-            // (script may have console.log'd before the wrapper writes JSON)
-            int jsonStart = stdout.indexOf('{');
-            if (jsonStart == -1) {
+                String stdout = prefix.toString(StandardCharsets.UTF_8).trim();
+                if (stdout.isEmpty()) {
+                    String stderr = new String(awaitStderr(stderrBytes), StandardCharsets.UTF_8).trim();
+                    String errorMsg = stderr.isEmpty() ? "Script produced no output." : stderr;
+                    return ScriptResult.error(errorMsg);
+                }
                 return ScriptResult.error("Script produced no valid JSON. Output: " + truncate(stdout, 200));
             }
-            String jsonStr = stdout.substring(jsonStart);
-            Map<String, Object> parsed = objectMapper.readValue(jsonStr, Map.class);
-            boolean success = Boolean.TRUE.equals(parsed.get("success"));
-
-            if (success) {
-                return ScriptResult.ok(parsed.get("output"));
-            } else {
-                return ScriptResult.error((String) parsed.getOrDefault("error", "Script returned failure."));
-            }
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -254,134 +612,156 @@ public class ScriptRunner {
         } catch (IOException e) {
             log.error("ScriptRunner IO error: {}", e.getMessage());
             return ScriptResult.error("Failed to run script: " + e.getMessage());
-        } finally {
-            deleteSilently(scriptFile);
-            deleteSilently(inputFile);
         }
     }
 
-    // ── CPU watchdog ─────────────────────────────────────────────────────────
-
     /**
-     * Spawns a daemon thread that monitors the subprocess CPU usage.
-     *
-     * Every CPU_POLL_INTERVAL_MS milliseconds it reads the process's total CPU time
-     * via ProcessHandle and computes the CPU rate for that interval:
-     *
-     *   cpuRate = (cpuTimeUsedThisInterval) / (wallTimeElapsedThisInterval)
-     *
-     * A cpuRate of 1.0 means the process used 100% of one CPU core for the full interval.
-     * If cpuRate exceeds CPU_HIGH_THRESHOLD for CPU_HIGH_CONSECUTIVE_SAMPLES consecutive
-     * polls, the process is force-killed and infiniteLoopKilled is set to true.
-     *
-     * The watchdog stops cleanly when its thread is interrupted (called after waitFor returns).
-     *
-     * Fallback: if the OS does not support ProcessHandle CPU reporting (totalCpuDuration
-     * returns empty), the watchdog exits silently and the wall-clock timeout acts as the
-     * only protection — no false positives.
+     * `node -e <code>` / `python3 -c <code>` for normal scripts. Linux caps a single argv string
+     * at 128 KB (MAX_ARG_STRLEN), so wrappers above MAX_INLINE_SCRIPT_BYTES are written once to a
+     * file named by their hash and reused for every later run of the same code.
      */
-    private Thread startCpuWatchdog(Process process, AtomicBoolean infiniteLoopKilled) {
-        Thread watchdog = new Thread(() -> {
-            ProcessHandle handle = process.toHandle();
-
-            // Establish baseline before first poll interval
-            long lastCpuNanos  = getCpuNanos(handle);
-            long lastWallNanos = System.nanoTime();
-
-            // -1 signals that ProcessHandle CPU reporting is unsupported on this OS
-            if (lastCpuNanos < 0) {
-                log.debug("[CpuWatchdog] ProcessHandle CPU duration unavailable — watchdog inactive, wall-clock timeout only.");
-                return;
-            }
+    private List<String> buildCommand(String interpreter, String extension, String wrappedCode) {
+        byte[] code = wrappedCode.getBytes(StandardCharsets.UTF_8);
+        if (code.length <= MAX_INLINE_SCRIPT_BYTES) {
+            return List.of(interpreter, "js".equals(extension) ? "-e" : "-c", wrappedCode);
+        }
+        return List.of(interpreter, cachedScriptFile(extension, code).toString());
+    }
 
-            int consecutiveHighSamples = 0;
+    private synchronized Path cachedScriptFile(String extension, byte[] code) {
+        String key = sha256(code) + "." + extension;
+        Path path = scriptFiles.get(key);
+        if (path != null && Files.isRegularFile(path)) return path;
+        try {
+            if (scriptDir == null) scriptDir = Files.createTempDirectory("nf_scripts_");
+            path = scriptDir.resolve(key);
+            Files.write(path, code);
+            scriptFiles.put(key, path);
+            return path;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    Thread.sleep(CPU_POLL_INTERVAL_MS);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+    @PreDestroy
+    synchronized void deleteCachedScripts() {
+        scriptFiles.clear();
+        if (scriptDir == null) return;
+        try (var files = Files.list(scriptDir)) {
+            files.forEach(f -> { try { Files.deleteIfExists(f); } catch (IOException ignored) {} });
+            Files.deleteIfExists(scriptDir);
+        } catch (IOException ignored) {}
+    }
 
-                if (!handle.isAlive()) break;
+    /** Streams the input document to the script's stdin and closes it so the wrapper sees EOF. */
+    private void writeInput(Process process, Object inputData) {
+        try (OutputStream stdin = process.getOutputStream()) {
+            objectMapper.writeValue(stdin, inputData);
+        } catch (IOException e) {
+            // Broken pipe: the interpreter exited before reading its input (syntax error,
+            // killed by the watchdog). stderr / the exit path reports the real cause.
+            log.debug("[ScriptRunner] could not write script input: {}", e.getMessage());
+        }
+    }
 
-                long currentCpuNanos  = getCpuNanos(handle);
-                long currentWallNanos = System.nanoTime();
+    /**
+     * Skips stdout up to RESULT_MARKER, then parses the result object directly from the stream
+     * with Jackson. Returns null when the script ended without ever printing the marker.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readResult(InputStream stdout, ByteArrayOutputStream prefix) throws IOException {
+        int matched = 0;
+        int b;
+        while ((b = stdout.read()) != -1) {
+            if (b == RESULT_MARKER[matched]) {
+                if (++matched == RESULT_MARKER.length) {
+                    return objectMapper.readValue(stdout, Map.class);
+                }
+                continue;
+            }
+            // Not the marker after all — the partial match was ordinary output.
+            appendPrefix(prefix, RESULT_MARKER, matched);
+            matched = b == RESULT_MARKER[0] ? 1 : 0;
+            if (matched == 0) appendPrefix(prefix, new byte[] { (byte) b }, 1);
+        }
+        appendPrefix(prefix, RESULT_MARKER, matched);
+        return null;
+    }
 
-                if (currentCpuNanos < 0) break; // CPU reporting went away
+    private static void appendPrefix(ByteArrayOutputStream prefix, byte[] bytes, int len) {
+        int room = MAX_PREFIX_BYTES - prefix.size();
+        if (room > 0) prefix.write(bytes, 0, Math.min(len, room));
+    }
 
-                long cpuDelta  = currentCpuNanos  - lastCpuNanos;
-                long wallDelta = currentWallNanos  - lastWallNanos;
+    /**
+     * Counts bytes as they are read; once the total passes the limit onLimit runs (it kills the
+     * process) and {@link ScriptOutputTooLargeException} is thrown.
+     */
+    private static final class CappedInputStream extends FilterInputStream {
 
-                lastCpuNanos  = currentCpuNanos;
-                lastWallNanos = currentWallNanos;
+        private final long     limit;
+        private final Runnable onLimit;
+        private long           count;
 
-                if (wallDelta <= 0) continue;
+        private CappedInputStream(InputStream in, long limit, Runnable onLimit) {
+            super(in);
+            this.limit   = limit;
+            this.onLimit = onLimit;
+        }
 
-                double cpuRate = (double) cpuDelta / wallDelta;
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count(1);
+            return b;
+        }
 
-                if (cpuRate >= CPU_HIGH_THRESHOLD) {
-                    consecutiveHighSamples++;
-                    // One sample is not enough. We only kill after sustained high CPU.
-                    log.debug("[CpuWatchdog] High CPU sample #{} — rate={:.0f}%%", consecutiveHighSamples, cpuRate * 100);
-                } else {
-                    consecutiveHighSamples = 0; // reset — CPU dropped, not an infinite loop
-                }
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count(n);
+            return n;
+        }
 
-                if (consecutiveHighSamples >= CPU_HIGH_CONSECUTIVE_SAMPLES) {
-                    log.warn("[CpuWatchdog] Infinite loop detected — {} consecutive high-CPU samples. Killing process.",
-                            consecutiveHighSamples);
-                    infiniteLoopKilled.set(true);
-                    process.destroyForcibly();
-                    break;
-                }
+        private void count(int n) throws ScriptOutputTooLargeException {
+            count += n;
+            if (count > limit) {
+                onLimit.run();
+                throw new ScriptOutputTooLargeException(limit);
             }
-        });
+        }
+    }
 
-        watchdog.setDaemon(true);
-        watchdog.setName("script-cpu-watchdog");
-        watchdog.start();
-        return watchdog;
+    /** stderr is only needed on the error path; the reactor finishes it within one poll of the exit. */
+    private static byte[] awaitStderr(CompletableFuture<byte[]> stderr) throws InterruptedException {
+        try {
+            return stderr.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return new byte[0];
+        }
     }
 
-    /**
-     * Returns the total CPU time consumed by the process in nanoseconds,
-     * or -1 if not available on this platform.
-     */
-    private static long getCpuNanos(ProcessHandle handle) {
-        return handle.info()
-                     .totalCpuDuration()
-                     .map(Duration::toNanos)
-                     .orElse(-1L);
+    // ── Shared error results (one-shot and pooled modes) ──────────────────────
+
+    static ScriptResult infiniteLoopResult() {
+        return ScriptResult.error(
+            "Infinite loop detected: script consumed 100%% CPU for " +
+            (ScriptCpuWatchdog.CPU_HIGH_CONSECUTIVE_SAMPLES * ScriptCpuWatchdog.CPU_POLL_INTERVAL_MS / 1000) +
+            " seconds continuously. Use a loop with a termination condition."
+        );
     }
 
-    /**
-     * Spawns a daemon thread that reads the given InputStream fully into a byte array.
-     * The result is stored in the provided AtomicReference.
-     *
-     * Why: OS pipe buffers are typically 64 KB on Linux. If a script writes more than
-     * that to stdout before the JVM reads it, the script blocks on write() while the
-     * JVM is blocked in waitFor() — classic deadlock. Draining in a background thread
-     * prevents this regardless of output size.
-     */
-    private Thread drainStream(InputStream stream, AtomicReference<byte[]> target) {
-        Thread t = new Thread(() -> {
-            try {
-                ByteArrayOutputStream buf = new ByteArrayOutputStream();
-                byte[] chunk = new byte[8192];
-                int n;
-                while ((n = stream.read(chunk)) != -1) {
-                    buf.write(chunk, 0, n);
-                }
-                target.set(buf.toByteArray());
-            } catch (IOException ignored) {
-                // stream closed early (process killed) — use whatever was collected
-            }
-        });
-        t.setDaemon(true);
-        t.start();
-        return t;
+    static ScriptResult memoryLimitResult(long memoryMaxMb) {
+        return ScriptResult.error(
+            "Script exceeded the memory limit of " + memoryMaxMb + " MB and was killed."
+        );
+    }
+
+    static ScriptResult timeoutResult(int timeoutSeconds) {
+        return ScriptResult.error(
+            "Script timed out after " + timeoutSeconds + " seconds. " +
+            "The script may be waiting on a network call or external resource that never responded."
+        );
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
@@ -392,10 +772,11 @@ public class ScriptRunner {
                 .reduce("", (a, b) -> a + "\n" + b);
     }
 
-    private void deleteSilently(Path path) {
-        if (path != null) {
-            try { Files.deleteIfExists(path); }
-            catch (IOException ignored) {}
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
@@ -406,8 +787,22 @@ public class ScriptRunner {
 
     // ── Result type ───────────────────────────────────────────────────────────
 
-    public record ScriptResult(boolean success, Object output, String error) {
-        static ScriptResult ok(Object output)     { return new ScriptResult(true,  output, null); }
-        static ScriptResult error(String message) { return new ScriptResult(false, null,   message); }
+    public record ScriptResult(boolean success, Object output, String error, ResourceUsage resources) {
+        static ScriptResult ok(Object output)     { return new ScriptResult(true,  output, null,    null); }
+        static ScriptResult error(String message) { return new ScriptResult(false, null,   message, null); }
+
+        ScriptResult withResources(ResourceUsage usage) {
+            return new ScriptResult(success, output, error, usage);
+        }
+    }
+
+    /**
+     * Kernel-measured usage of one script run — only present when cgroup isolation is on.
+     * memoryBytes is the cgroup's peak for one-shot runs and its current usage after the job for warm workers.
+     */
+    public record ResourceUsage(long cpuMillis, long memoryBytes) {
+        public Map<String, Object> toMap() {
+            return Map.of("cpuMillis", cpuMillis, "memoryBytes", memoryBytes);
+        }
     }
 }
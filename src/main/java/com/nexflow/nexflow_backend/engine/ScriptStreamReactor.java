@@ -0,0 +1,133 @@
+package com.nexflow.nexflow_backend.engine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the stderr pipes of all script processes from one shared thread.
+ *
+ * JDK Process pipes are plain blocking streams (they cannot be registered with a NIO Selector),
+ * so instead of a reader thread per process this polls every registered stream every
+ * POLL_INTERVAL_MS and reads only what {@link InputStream#available()} reports — it never
+ * blocks on a pipe. A stream is finished once its process has exited and the pipe is empty.
+ *
+ * Scripts only write diagnostics to stderr, so a few milliseconds of latency is irrelevant;
+ * what matters is that the pipe never fills up and stalls the script.
+ *
+ * stdout is read by the calling thread itself (see ScriptRunner / ScriptWorker).
+ */
+@Slf4j
+@Component
+public class ScriptStreamReactor {
+
+    private static final long POLL_INTERVAL_MS = 10;
+
+    /** Per stream per poll; a stream with more waiting is picked up again on the next round. */
+    private static final int MAX_BYTES_PER_POLL = 64 * 1024;
+
+    private final Set<Drain> drains = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    public ScriptStreamReactor() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "script-stream-reactor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollAll, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Collects up to maxBytes of the stream; anything beyond is read and dropped.
+     * The future completes once the process has exited and the stream is drained.
+     */
+    CompletableFuture<byte[]> collect(Process process, InputStream stream, int maxBytes) {
+        Drain drain = new Drain(process, stream, maxBytes, null);
+        drains.add(drain);
+        return drain.result;
+    }
+
+    /** Drains a long-lived stream for the lifetime of the process, logging it at debug level. */
+    void logAtDebug(Process process, InputStream stream, String prefix) {
+        drains.add(new Drain(process, stream, 0, prefix));
+    }
+
+    private void pollAll() {
+        for (Drain drain : drains) {
+            if (drain.poll()) drains.remove(drain);
+        }
+    }
+
+    private static final class Drain {
+
+        private final Process               process;
+        private final InputStream           stream;
+        private final int                   maxBytes;
+        private final String                logPrefix;
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final byte[] chunk = new byte[8192];
+
+        private Drain(Process process, InputStream stream, int maxBytes, String logPrefix) {
+            this.process   = process;
+            this.stream    = stream;
+            this.maxBytes  = maxBytes;
+            this.logPrefix = logPrefix;
+        }
+
+        /**
+         * Reads what is available without blocking, up to MAX_BYTES_PER_POLL so one chatty process
+         * cannot starve the other streams. Returns true once the stream is done.
+         */
+        boolean poll() {
+            try {
+                // Check liveness first: once the process is gone, everything it wrote is already in the pipe.
+                boolean exited = !process.isAlive();
+                int available;
+                int read = 0;
+                while ((available = stream.available()) > 0) {
+                    if (read >= MAX_BYTES_PER_POLL) return false;
+                    int n = stream.read(chunk, 0, Math.min(available, chunk.length));
+                    if (n < 0) return finish();
+                    accept(n);
+                    read += n;
+                }
+                return exited && finish();
+            } catch (IOException e) {
+                // stream closed (process destroyed) — keep whatever was collected
+                return finish();
+            }
+        }
+
+        private void accept(int n) {
+            if (logPrefix != null) {
+                if (log.isDebugEnabled()) log.debug("{} {}", logPrefix, new String(chunk, 0, n, StandardCharsets.UTF_8).trim());
+                return;
+            }
+            int room = maxBytes - buf.size();
+            if (room > 0) buf.write(chunk, 0, Math.min(n, room));
+        }
+
+        private boolean finish() {
+            result.complete(buf.toByteArray());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.nexflow.nexflow_backend.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One long-lived interpreter process used by {@link ScriptWorkerPool}.
+ *
+ * Protocol (both directions): 4-byte big-endian length, then that many bytes of UTF-8 JSON.
+ *
+ *   request  → { "type": "run", "code": "...", "codeId": "<sha-256>", "data": { "nex": {...}, "input": {...} } }
+ *              { "type": "map", "code": "...", "codeId": "<sha-256>", "data": { "nex": {...}, "input": {...}, "items": [...], "offset": n } }
+ *              { "type": "ping" }
+ *              "data" may be { "$sharedInput": "/dev/shm/...", ... } — the harness then reads the document
+ *              from that file and lays the job's own keys over it (see {@link ScriptInputStore})
+ *   response ← { "success": true, "output": ..., "cached": bool } | { "success": false, "error": "...", "cached": bool }
+ *              map jobs answer output = { "results": [...], "errors": [{ "index": n, "error": "..." }] }
+ *              JavaScript responses also carry the job's console output as "logs"
+ *              { "type": "pong" }
+ *
+ * Jobs do not see each other or the harness:
+ *   JavaScript — every job runs in a fresh vm context (no require / process / timers) that receives
+ *                its data as a JSON string and answers with one, so no object of the harness realm is
+ *                ever reachable from user code. Scripts that need Node globals are not sent here
+ *                (see {@link ScriptWorkerPool#needsOneShot}).
+ *   Python     — every job gets a fresh namespace with its own copy of the builtins and of the json
+ *                module; afterwards builtins / json are restored and modules the job imported are
+ *                dropped. Python cannot fully isolate code in one interpreter, which is why the pool
+ *                only ever reuses a worker for the same flow owner.
+ *
+ * Each harness keeps the compiled form of up to MAX_COMPILED scripts, keyed by codeId and private to
+ * the harness: JavaScript a vm.Script (its compiled code is reused in every job's context), Python the
+ * code object from compile(). "cached" in the response says whether the job hit that cache.
+ *
+ * The harness points its own console.log / print() at stderr, so logging can never corrupt the frame
+ * stream on stdout. stderr is drained by the shared {@link ScriptStreamReactor} for the lifetime of the
+ * worker and only logged at debug level.
+ *
+ * Not thread-safe: the pool hands a worker to exactly one caller at a time.
+ */
+final class ScriptWorker {
+
+    static final String JS_HARNESS = """
+            'use strict';
+            (() => {
+                const vm   = require('vm');
+                const fs   = require('fs');
+                const util = require('util');
+                const rawWrite = process.stdout.write.bind(process.stdout);
+                const toStderr = (...args) => { process.stderr.write(util.format(...args) + '\\n'); };
+                console.log = console.info = console.debug = console.warn = console.error = toStderr;
+                process.stdout.write = (chunk, ...rest) => process.stderr.write(chunk, ...rest);
+
+                const writeFrame = (json) => {
+                    const body   = Buffer.from(json, 'utf8');
+                    const header = Buffer.alloc(4);
+                    header.writeUInt32BE(body.length, 0);
+                    rawWrite(Buffer.concat([header, body]));
+                };
+
+                const message = (e) => e && e.message !== undefined ? e.message : String(e);
+
+                // Evaluated in a fresh context per job. Only strings go in (__nexShared / __nexJson) and
+                // only a string comes out, so user code never holds an object of the harness realm.
+                const PRELUDE = `
+                    const __logs = [];
+                    let   __logBytes = 0;
+                    const __fmt = (v) => { if (typeof v === 'string') return v; try { return JSON.stringify(v); } catch (e) { return String(v); } };
+                    const __log = (...args) => {
+                        const line = args.map(__fmt).join(' ');
+                        if (__logBytes < 65536) { __logs.push(line); __logBytes += line.length; }
+                    };
+                    globalThis.console = { log: __log, info: __log, debug: __log, warn: __log, error: __log };
+                    const __data = Object.assign(globalThis.__nexShared ? JSON.parse(globalThis.__nexShared) : {},
+                                                 JSON.parse(globalThis.__nexJson));
+                    const __cached = globalThis.__nexCached;
+                    delete globalThis.__nexShared; delete globalThis.__nexJson; delete globalThis.__nexCached;
+                    const __message = (e) => e && e.message !== undefined ? e.message : String(e);
+                    const __respond = (r) => { r.cached = __cached; r.logs = __logs.join('\\\\n'); return JSON.stringify(r); };
+                `;
+
+                const RUN = (code) => PRELUDE + `
+                    const __fn = function (nex, input) {
+                ${code}
+                    };
+                    (() => {
+                        try {
+                            return __respond({ success: true, output: __fn(__data.nex || {}, __data.input || {}) ?? null });
+                        } catch (e) {
+                            return __respond({ success: false, error: __message(e) });
+                        }
+                    })();
+                `;
+
+                const MAP = (code) => PRELUDE + `
+                    const __fn = function (nex, input, item, index) {
+                ${code}
+                    };
+                    (() => {
+                        const items = __data.items || [], offset = __data.offset || 0, nex = __data.nex || {}, input = __data.input || {};
+                        const results = [], errors = [];
+                        for (let i = 0; i < items.length; i++) {
+                            try {
+                                results.push(__fn(nex, input, items[i], offset + i) ?? null);
+                            } catch (e) {
+                                results.push(null);
+                                errors.push({ index: offset + i, error: __message(e) });
+                            }
+                        }
+                        return __respond({ success: true, output: { results, errors } });
+                    })();
+                `;
+
+                // Compiled scripts by job type + codeId, least recently used first. A vm.Script is not
+                // bound to a context, so V8 reuses its compiled code in every job's fresh context.
+                const MAX_COMPILED = 256;
+                const compiled = new Map();
+                const compile = (job) => {
+                    const key = job.type + ':' + job.codeId;
+                    let script = compiled.get(key);
+                    if (script) {
+                        compiled.delete(key);
+                        compiled.set(key, script);
+                        return [script, true];
+                    }
+                    script = new vm.Script((job.type === 'map' ? MAP : RUN)(job.code), { filename: 'script.js' });
+                    if (job.codeId) {
+                        compiled.set(key, script);
+                        if (compiled.size > MAX_COMPILED) compiled.delete(compiled.keys().next().value);
+                    }
+                    return [script, false];
+                };
+
+                const runJob = (job) => {
+                    const [script, cached] = compile(job);
+                    const data    = job.data || {};
+                    // null prototype: a sandbox inheriting from this realm's Object would hand out its Function
+                    const sandbox = Object.assign(Object.create(null), { __nexJson: JSON.stringify(data), __nexCached: cached });
+                    if (data.$sharedInput) sandbox.__nexShared = fs.readFileSync(data.$sharedInput, 'utf8');
+                    const ctx = vm.createContext(sandbox, { microtaskMode: 'afterEvaluate' });
+                    const response = script.runInContext(ctx);
+                    if (typeof response !== 'string') throw new Error('script replaced the result serializer');
+                    return response;
+                };
+
+                const handle = (job) => {
+                    if (job.type === 'ping') { writeFrame(JSON.stringify({ type: 'pong' })); return; }
+                    let response;
+                    try {
+                        response = runJob(job);
+                    } catch (e) {
+                        response = JSON.stringify({ success: false, error: message(e), cached: false });
+                    }
+                    writeFrame(response);
+                };
+
+                let pending = Buffer.alloc(0);
+                process.stdin.on('data', (chunk) => {
+                    pending = pending.length ? Buffer.concat([pending, chunk]) : chunk;
+                    while (pending.length >= 4) {
+                        const len = pending.readUInt32BE(0);
+                        if (pending.length < 4 + len) break;
+                        const body = pending.subarray(4, 4 + len);
+                        pending = pending.subarray(4 + len);
+                        handle(JSON.parse(body.toString('utf8')));
+                    }
+                });
+                process.stdin.on('end', () => process.exit(0));
+            })();
+            """;
+
+    static final String PY_HARNESS = """
+            import builtins, json, struct, sys, types
+
+            def _main():
+                stdin  = sys.stdin.buffer
+                stdout = sys.stdout.buffer
+                sys.stdout = sys.stderr
+                dumps, loads, load = json.dumps, json.loads, json.load
+
+                # What each job starts from. Modules a job imports are dropped afterwards and the
+                # modules every job sees (builtins, json) are put back the way they were.
+                clean_builtins = dict(builtins.__dict__)
+                watched        = {m: dict(m.__dict__) for m in (builtins, json, json.decoder, json.encoder)}
+                base_modules   = set(sys.modules)
+
+                def read_exact(n):
+                    buf = b''
+                    while len(buf) < n:
+                        chunk = stdin.read(n - len(buf))
+                        if not chunk:
+                            return None
+                        buf += chunk
+                    return buf
+
+                def write_frame(payload):
+                    body = payload.encode('utf-8')
+                    stdout.write(struct.pack('>I', len(body)) + body)
+                    stdout.flush()
+
+                def fresh_json():
+                    module = types.ModuleType('json')
+                    module.__dict__.update(watched[json])
+                    return module
+
+                def restore():
+                    for module, snapshot in watched.items():
+                        current = module.__dict__
+                        for name in [n for n in current if n not in snapshot]:
+                            del current[name]
+                        current.update(snapshot)
+                    for name in [n for n in sys.modules if n not in base_modules]:
+                        del sys.modules[name]
+
+                def new_scope(data):
+                    return {'__builtins__': dict(clean_builtins), '__name__': '__script__',
+                            'nex': data.get('nex', {}), 'input': data.get('input', {}), 'json': fresh_json()}
+
+                def run_one(code, data):
+                    scope = new_scope(data)
+                    exec(code, scope)
+                    if 'result' not in scope:
+                        raise NameError("name 'result' is not defined")
+                    return scope['result']
+
+                # Map code is the body of _nf_item, exactly as in ScriptRunner's one-shot map wrapper.
+                def map_source(code):
+                    body = '\\n'.join('    ' + line for line in code.splitlines())
+                    return 'def _nf_item(item, index):\\n' + body + '\\n    return result\\n'
+
+                # Code objects by job type + codeId, least recently used first (dicts keep insertion order).
+                max_compiled = 256
+                compiled = {}
+
+                def compile_job(job):
+                    key  = job.get('type', 'run') + ':' + job['codeId'] if job.get('codeId') else None
+                    code = compiled.pop(key, None) if key else None
+                    hit  = code is not None
+                    if code is None:
+                        source = map_source(job['code']) if job.get('type') == 'map' else job['code']
+                        code = compile(source, '<script>', 'exec')
+                    if key:
+                        compiled[key] = code
+                        if len(compiled) > max_compiled:
+                            del compiled[next(iter(compiled))]
+                    return code, hit
+
+                def load_data(data):
+                    if data and '$sharedInput' in data:
+                        with open(data['$sharedInput'], 'rb') as f:
+                            return {**load(f), **data}
+                    return data or {}
+
+                def run_map(code, data):
+                    scope = new_scope(data)
+                    exec(code, scope)
+                    item_fn = scope['_nf_item']
+                    offset  = data.get('offset', 0)
+                    results = []
+                    errors  = []
+                    for i, item in enumerate(data.get('items') or []):
+                        try:
+                            results.append(item_fn(item, offset + i))
+                        except Exception as e:
+                            results.append(None)
+                            errors.append({'index': offset + i, 'error': str(e)})
+                    return {'results': results, 'errors': errors}
+
+                while True:
+                    header = read_exact(4)
+                    if header is None:
+                        break
+                    body = read_exact(struct.unpack('>I', header)[0])
+                    if body is None:
+                        break
+                    job = loads(body)
+                    if job.get('type') == 'ping':
+                        write_frame(dumps({'type': 'pong'}))
+                        continue
+                    cached = False
+                    try:
+                        data = load_data(job.get('data'))
+                        code, cached = compile_job(job)
+                        if job.get('type') == 'map':
+                            output = run_map(code, data)
+                        else:
+                            output = run_one(code, data)
+                        response = dumps({'success': True, 'output': output, 'cached': cached})
+                    except Exception as e:
+                        response = dumps({'success': False, 'error': str(e), 'cached': cached})
+                    finally:
+                        restore()
+                    write_frame(response)
+
+            _main()
+            """;
+
+    private final Process          process;
+    private final String           owner;
+    private final ScriptCgroupManager.Slot cgroup;
+    private final DataOutputStream stdin;
+    private final DataInputStream  stdout;
+    private int                    jobsRun;
+    private volatile boolean       destroyed;
+
+    private ScriptWorker(Process process, String owner, ScriptCgroupManager.Slot cgroup) {
+        this.process  = process;
+        this.owner    = owner;
+        this.cgroup   = cgroup;
+        this.stdin    = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.stdout   = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    /**
+     * @param owner  the flow owner whose jobs this worker runs (and no one else's)
+     * @param cgroup the worker's own cgroup, or null when cgroup isolation is off
+     */
+    static ScriptWorker start(String language, String owner, List<String> command, ScriptStreamReactor streamReactor,
+                              ScriptCgroupManager.Slot cgroup) throws IOException {
+        Process process = new ProcessBuilder(cgroup != null ? cgroup.wrap(command) : command)
+                .redirectErrorStream(false)
+                .start();
+        streamReactor.logAtDebug(process, process.getErrorStream(), "[ScriptWorker:" + language + ":" + process.pid() + "]");
+        return new ScriptWorker(process, owner, cgroup);
+    }
+
+    /**
+     * Sends one frame and blocks until the response frame arrives.
+     * Throws IOException if the process dies mid-job (killed by the watchdog or timeout, or crashed).
+     * A response frame larger than maxResponseBytes is never read: the worker is destroyed
+     * (its stdout still holds the frame) and {@link ScriptOutputTooLargeException} is thrown.
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> call(Map<String, Object> request, ObjectMapper objectMapper, long maxResponseBytes) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(request);
+        stdin.writeInt(body.length);
+        stdin.write(body);
+        stdin.flush();
+
+        int length;
+        try {
+            length = stdout.readInt();
+        } catch (EOFException e) {
+            throw new IOException("script worker exited (pid " + process.pid() + ")", e);
+        }
+        if (length < 0) throw new IOException("script worker sent a corrupt frame header");
+        if (length > maxResponseBytes) {
+            destroy();
+            throw new ScriptOutputTooLargeException(maxResponseBytes);
+        }
+        byte[] response = new byte[length];
+        stdout.readFully(response);
+        return objectMapper.readValue(response, Map.class);
+    }
+
+    void jobCompleted() {
+        jobsRun++;
+    }
+
+    int jobsRun() {
+        return jobsRun;
+    }
+
+    Process process() {
+        return process;
+    }
+
+    String owner() {
+        return owner;
+    }
+
+    /** False as soon as destroy() was called, even while the OS is still reaping the process. */
+    boolean isAlive() {
+        return !destroyed && process.isAlive();
+    }
+
+    /**
+     * Resident set size of the worker in bytes, read from /proc/<pid>/status.
+     * Returns -1 when /proc is not available (non-Linux hosts), which disables RSS recycling.
+     */
+    long residentMemoryBytes() {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    String kb = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kb) * 1024L;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+            // not Linux, or the process is already gone
+        }
+        return -1L;
+    }
+
+    ScriptCgroupManager.Slot cgroup() {
+        return cgroup;
+    }
+
+    void destroy() {
+        destroyed = true;
+        process.destroyForcibly();
+    }
+
+    /**
+     * Removes the worker's cgroup once the process is gone. Kept separate from destroy() so
+     * the pool can still read memory.events after a mid-job death.
+     */
+    void releaseCgroup() {
+        if (cgroup != null) process.onExit().thenRun(cgroup::close);
+    }
+}
@@ -0,0 +1,348 @@
+package com.nexflow.nexflow_backend.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Pool of warm interpreter processes for SCRIPT and DECISION(code) nodes.
+ *
+ * Forking a fresh `node` / `python3` per call costs 40–80 ms before any user code runs.
+ * Instead, each language keeps up to N long-lived workers ({@link ScriptWorker}) that take
+ * length-prefixed JSON jobs over stdin/stdout.
+ *
+ * Per-job guarantees are the same as one-shot mode:
+ *   - blocked patterns are checked by ScriptRunner before a job is dispatched
+ *   - the shared CPU watchdog watches the worker for the duration of the job
+ *   - the wall-clock timeout (same scheduler) kills the worker if the job does not answer in time
+ * A killed worker is discarded and a fresh one is spawned on the next acquire.
+ *
+ * Isolation: each job runs in a fresh JavaScript context / Python namespace (see {@link ScriptWorker}),
+ * and a worker only ever runs jobs of one flow owner — an idle worker of another owner is retired
+ * to make room rather than reused, so nothing a job leaves behind can reach another user's data.
+ *
+ * Recycling: a worker is retired after max-jobs jobs, or when its RSS exceeds max-rss-mb,
+ * so whatever state a script does manage to leave behind cannot build up forever.
+ *
+ * Fallback: {@link #execute} returns null when the pool is disabled, the interpreter cannot be
+ * spawned, or no worker frees up within acquire-timeout-ms. ScriptRunner then runs the script
+ * one-shot exactly as before.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScriptWorkerPool {
+
+    /** After a failed spawn, don't try the same interpreter again for this long. */
+    private static final long SPAWN_RETRY_BACKOFF_MS = 30_000;
+
+    /** How long an idle worker gets to answer a health-check ping. */
+    private static final long PING_TIMEOUT_MS = 2_000;
+
+    /**
+     * Node globals a warm JavaScript job does not get (its vm context has only the language built-ins).
+     * Scripts that mention one run one-shot, where they behave as they always have.
+     */
+    private static final Pattern NODE_GLOBALS = Pattern.compile(
+            "\\b(require|process|Buffer|global|module|exports|setTimeout|setInterval|setImmediate|queueMicrotask"
+                    + "|URL|URLSearchParams|TextEncoder|TextDecoder|fetch|atob|btoa|structuredClone|performance|crypto)\\b");
+
+    private final ObjectMapper           objectMapper;
+    private final ScriptCpuWatchdog      watchdog;
+    private final ScriptStreamReactor    streamReactor;
+    private final ScriptCgroupManager    cgroups;
+    private final ScriptCodeCacheMetrics codeCacheMetrics;
+
+    @Value("${app.script.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.script.pool.javascript-size:4}")
+    private int javascriptSize;
+
+    @Value("${app.script.pool.python-size:4}")
+    private int pythonSize;
+
+    @Value("${app.script.pool.max-jobs:500}")
+    private int maxJobsPerWorker;
+
+    @Value("${app.script.pool.max-rss-mb:256}")
+    private long maxRssMb;
+
+    @Value("${app.script.pool.acquire-timeout-ms:200}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.script.pool.health-check-seconds:30}")
+    private long healthCheckSeconds;
+
+    @Value("${app.script.max-output-mb:16}")
+    private int maxOutputMb;
+
+    private final Map<String, LanguagePool> pools = new LinkedHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        pools.put("javascript", new LanguagePool("javascript", List.of("node", "-e", ScriptWorker.JS_HARNESS), javascriptSize));
+        pools.put("python",     new LanguagePool("python",     List.of("python3", "-u", "-c", ScriptWorker.PY_HARNESS), pythonSize));
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "script-pool-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        if (enabled && healthCheckSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::healthCheck, healthCheckSeconds, healthCheckSeconds, TimeUnit.SECONDS);
+        }
+        log.info("[ScriptWorkerPool] enabled={} javascriptSize={} pythonSize={} maxJobs={} maxRssMb={}",
+                enabled, javascriptSize, pythonSize, maxJobsPerWorker, maxRssMb);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) scheduler.shutdownNow();
+        pools.values().forEach(LanguagePool::destroyAll);
+    }
+
+    /**
+     * Runs one job on a warm worker of owner (the flow owner; workers are never shared between owners).
+     * jobType is "run" (a single script call) or "map" (the script once per element of inputData.items —
+     * see ScriptRunner.runMap). codeId (the code's SHA-256) keys the compiled-code cache inside the worker.
+     * Returns null when the job could not be dispatched, so the caller falls back to one-shot mode.
+     */
+    ScriptRunner.ScriptResult execute(String language, String owner, String jobType, String userCode, String codeId,
+                                      Object inputData, int timeoutSeconds) {
+        LanguagePool pool = pools.get(language);
+        if (!enabled || pool == null || pool.maxSize <= 0 || needsOneShot(language, userCode)) return null;
+
+        ScriptWorker worker = pool.acquire(owner != null ? owner : "");
+        if (worker == null) return null;
+
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("type", jobType);
+        job.put("code", userCode);
+        job.put("codeId", codeId);
+        job.put("data", inputData);
+
+        ScriptCgroupManager.Slot cgroup = worker.cgroup();
+        long cpuBefore = cgroup != null ? cgroup.cpuUsageMicros() : 0;
+        long oomBefore = cgroup != null ? cgroup.oomKills()       : 0;
+
+        try (ScriptCpuWatchdog.Watch watch = watchdog.watch(worker.process(), timeoutSeconds, worker::destroy)) {
+            try {
+                Map<String, Object> response = worker.call(job, objectMapper, maxOutputMb * 1024L * 1024L);
+                worker.jobCompleted();
+                if (response.get("cached") instanceof Boolean hit) codeCacheMetrics.record(ScriptCodeCacheMetrics.WORKER, hit);
+                if (response.get("logs") instanceof String logs && !logs.isEmpty()) {
+                    log.debug("[ScriptWorker:{}:{}] {}", language, worker.process().pid(), logs);
+                }
+                ScriptRunner.ScriptResult result = Boolean.TRUE.equals(response.get("success"))
+                        ? ScriptRunner.ScriptResult.ok(response.get("output"))
+                        : ScriptRunner.ScriptResult.error((String) response.getOrDefault("error", "Script returned failure."));
+                return cgroup == null ? result : result.withResources(new ScriptRunner.ResourceUsage(
+                        (cgroup.cpuUsageMicros() - cpuBefore) / 1000, cgroup.memoryCurrentBytes()));
+            } catch (ScriptOutputTooLargeException e) {
+                return ScriptRunner.ScriptResult.error(e.getMessage());
+            } catch (IOException e) {
+                worker.destroy(); // a worker that broke mid-job is never reused
+                if (cgroup != null && cgroup.oomKills() > oomBefore) return ScriptRunner.memoryLimitResult(cgroups.memoryMaxMb());
+                if (watch.infiniteLoopKilled()) return ScriptRunner.infiniteLoopResult();
+                if (watch.timedOut())           return ScriptRunner.timeoutResult(timeoutSeconds);
+                log.warn("[ScriptWorkerPool] {} worker pid={} failed mid-job: {}", language, worker.process().pid(), e.getMessage());
+                return ScriptRunner.ScriptResult.error("Script worker exited unexpectedly: " + e.getMessage());
+            }
+        } finally {
+            pool.release(worker);
+        }
+    }
+
+    /** True for JavaScript that uses a Node global the warm workers' per-job contexts do not provide. */
+    static boolean needsOneShot(String language, String userCode) {
+        return "javascript".equals(language) && NODE_GLOBALS.matcher(userCode).find();
+    }
+
+    // ── Health checks ─────────────────────────────────────────────────────────
+
+    /** Pings every idle worker; workers that don't answer in time are destroyed. */
+    private void healthCheck() {
+        for (LanguagePool pool : pools.values()) {
+            for (ScriptWorker worker : pool.drainIdle()) {
+                if (ping(worker)) {
+                    pool.release(worker);
+                } else {
+                    log.warn("[ScriptWorkerPool] {} worker pid={} failed health check — replacing", pool.language, worker.process().pid());
+                    pool.discard(worker);
+                }
+            }
+        }
+    }
+
+    private boolean ping(ScriptWorker worker) {
+        // The timeout must not run on our own scheduler: it is busy running this health check.
+        ScriptCpuWatchdog.Watch watch = watchdog.watch(worker.process(), Duration.ofMillis(PING_TIMEOUT_MS), worker::destroy);
+        try {
+            Map<String, Object> response = worker.call(Map.of("type", "ping"), objectMapper, maxOutputMb * 1024L * 1024L);
+            return "pong".equals(response.get("type"));
+        } catch (IOException e) {
+            return false;
+        } finally {
+            watch.close();
+        }
+    }
+
+    // ── Per-language pool ─────────────────────────────────────────────────────
+
+    /**
+     * Up to maxSize workers of one language, each bound to the owner it was spawned for. A caller gets
+     * an idle worker of its own owner, else a new one; when the pool is full, the least recently used
+     * idle worker of another owner is retired to free its slot, and otherwise the caller waits for a
+     * release up to acquire-timeout-ms.
+     */
+    private final class LanguagePool {
+
+        private final String       language;
+        private final List<String> command;
+        private final int          maxSize;
+        /** Most recently used first. Guarded by this, as is size. */
+        private final Deque<ScriptWorker> idle = new ArrayDeque<>();
+        private int size;
+        private volatile long lastSpawnFailureMs;
+
+        private LanguagePool(String language, List<String> command, int maxSize) {
+            this.language = language;
+            this.command  = command;
+            this.maxSize  = maxSize;
+        }
+
+        ScriptWorker acquire(String owner) {
+            long         deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+            ScriptWorker evicted  = null;
+            synchronized (this) {
+                while (true) {
+                    ScriptWorker worker = takeIdle(owner);
+                    if (worker != null) return worker;
+
+                    boolean backingOff = System.currentTimeMillis() - lastSpawnFailureMs < SPAWN_RETRY_BACKOFF_MS;
+                    if (!backingOff && size < maxSize) {
+                        size++;
+                        break;
+                    }
+                    if (!backingOff && !idle.isEmpty()) {
+                        evicted = idle.pollLast(); // its slot goes to the new worker
+                        break;
+                    }
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0) return null;
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                }
+            }
+            if (evicted != null) {
+                log.debug("[ScriptWorkerPool] retiring idle {} worker pid={} for another owner", language, evicted.process().pid());
+                evicted.destroy();
+                evicted.releaseCgroup();
+            }
+            return spawn(owner);
+        }
+
+        /** Starts a worker for a slot that acquire() already reserved. */
+        private ScriptWorker spawn(String owner) {
+            ScriptCgroupManager.Slot cgroup = null;
+            try {
+                if (cgroups.isAvailable()) cgroup = cgroups.create("worker");
+                ScriptWorker worker = ScriptWorker.start(language, owner, command, streamReactor, cgroup);
+                log.info("[ScriptWorkerPool] spawned {} worker pid={} ({}/{})",
+                        language, worker.process().pid(), currentSize(), maxSize);
+                return worker;
+            } catch (IOException e) {
+                if (cgroup != null) cgroup.close();
+                lastSpawnFailureMs = System.currentTimeMillis();
+                freeSlot();
+                log.warn("[ScriptWorkerPool] could not spawn {} worker, falling back to one-shot for {}s: {}",
+                        language, SPAWN_RETRY_BACKOFF_MS / 1000, e.getMessage());
+                return null;
+            }
+        }
+
+        private ScriptWorker takeIdle(String owner) {
+            for (Iterator<ScriptWorker> it = idle.iterator(); it.hasNext(); ) {
+                ScriptWorker worker = it.next();
+                if (Objects.equals(worker.owner(), owner)) {
+                    it.remove();
+                    return worker;
+                }
+            }
+            return null;
+        }
+
+        void release(ScriptWorker worker) {
+            if (!worker.isAlive()) {
+                discard(worker);
+                return;
+            }
+            if (worker.jobsRun() >= maxJobsPerWorker) {
+                log.debug("[ScriptWorkerPool] recycling {} worker pid={} after {} jobs", language, worker.process().pid(), worker.jobsRun());
+                discard(worker);
+                return;
+            }
+            long rss = worker.residentMemoryBytes();
+            if (maxRssMb > 0 && rss > maxRssMb * 1024 * 1024) {
+                log.info("[ScriptWorkerPool] recycling {} worker pid={} — RSS {} MB over limit {} MB",
+                        language, worker.process().pid(), rss / (1024 * 1024), maxRssMb);
+                discard(worker);
+                return;
+            }
+            synchronized (this) {
+                idle.offerFirst(worker);
+                notifyAll();
+            }
+        }
+
+        void discard(ScriptWorker worker) {
+            worker.destroy();
+            worker.releaseCgroup();
+            freeSlot();
+        }
+
+        synchronized List<ScriptWorker> drainIdle() {
+            List<ScriptWorker> all = new ArrayList<>(idle);
+            idle.clear();
+            return all;
+        }
+
+        void destroyAll() {
+            drainIdle().forEach(this::discard);
+        }
+
+        private synchronized void freeSlot() {
+            size--;
+            notifyAll();
+        }
+
+        private synchronized int currentSize() {
+            return size;
+        }
+    }
+}
@@ -114,7 +114,7 @@ public class DecisionExecutor implements NodeExecutor {
         Map<String, Object> scriptData = new LinkedHashMap<>();
         scriptData.put("nex",   nco.getNex() != null ? nco.getNex() : new java.util.LinkedHashMap<>());
         scriptData.put("input", buildInput(nco));
-        ScriptRunner.ScriptResult result = scriptRunner.run(language, code, scriptData);
+        ScriptRunner.ScriptResult result = scriptRunner.run(language, code, scriptData, ScriptRunner.DEFAULT_TIMEOUT_SECONDS, ScriptRunner.owner(nco));
 
         if (!result.success()) {
             return decisionResult(nodeId, false, result.error(), "code");
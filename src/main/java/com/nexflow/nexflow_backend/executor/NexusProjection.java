@@ -0,0 +1,210 @@
+package com.nexflow.nexflow_backend.executor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A NEXUS node's "keep" list: the paths of a result the flow actually uses.
+ *
+ *   keep: ["data.items[*].id", "data.items[*].name", "data.total"]
+ *   → { "data": { "items": [ { "id": 1, "name": "a" }, ... ], "total": 42 } }
+ *
+ * A path is dot-separated field names, each optionally followed by [n] (one element) or [*] (every
+ * element); "*" as a name matches every field and a path may start with [..] when the result is an
+ * array. A field path that meets an array applies to each element, so "data.items.id" works too.
+ * Whatever a path ends on is kept whole; everything no path reaches is dropped.
+ *
+ * {@link #read} projects a JSON body while it is being parsed — dropped members are skipped token by
+ * token and never become objects. A JDBC SELECT uses {@link #fields} as the columns to read.
+ */
+public final class NexusProjection {
+
+    /** Marks "nothing kept here" — distinct from a kept JSON null. */
+    private static final Object MISSING = new Object();
+
+    /** One level of the path trie. */
+    private static final class Node {
+        boolean            whole;
+        Map<String, Node>  fields;
+        Node               anyField;
+        Map<Integer, Node> indices;
+        Node               anyIndex;
+
+        Node field(String name) {
+            if ("*".equals(name)) return anyField != null ? anyField : (anyField = new Node());
+            if (fields == null) fields = new LinkedHashMap<>();
+            return fields.computeIfAbsent(name, k -> new Node());
+        }
+
+        Node index(String index) {
+            if ("*".equals(index)) return anyIndex != null ? anyIndex : (anyIndex = new Node());
+            if (indices == null) indices = new TreeMap<>();
+            return indices.computeIfAbsent(Integer.parseInt(index), k -> new Node());
+        }
+
+        Node childField(String name) {
+            Node child = fields != null ? fields.get(name) : null;
+            return child != null ? child : anyField;
+        }
+
+        Node childIndex(int i) {
+            Node child = indices != null ? indices.get(i) : null;
+            return child != null ? child : anyIndex;
+        }
+
+        boolean hasFields() {
+            return fields != null || anyField != null;
+        }
+
+        boolean hasIndices() {
+            return indices != null || anyIndex != null;
+        }
+    }
+
+    private final List<String> paths;
+    private final Node         root = new Node();
+
+    private NexusProjection(List<String> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * The projection for a node's config.keep — a list of paths or one comma-separated string — or
+     * null when the node keeps everything. Throws IllegalArgumentException for a malformed path.
+     */
+    public static NexusProjection of(Object keep) {
+        List<String> paths = new ArrayList<>();
+        if (keep instanceof Collection<?> list) {
+            for (Object path : list) if (path != null) paths.add(String.valueOf(path).trim());
+        } else if (keep instanceof String text) {
+            for (String path : text.split(",")) paths.add(path.trim());
+        } else if (keep != null) {
+            throw new IllegalArgumentException("NEXUS keep must be a list of paths, got " + keep.getClass().getSimpleName());
+        }
+        paths.removeIf(String::isEmpty);
+        if (paths.isEmpty()) return null;
+
+        NexusProjection projection = new NexusProjection(List.copyOf(paths));
+        for (String path : paths) projection.add(path);
+        return projection;
+    }
+
+    public List<String> paths() {
+        return paths;
+    }
+
+    /**
+     * The top-level field names the paths start with, or null when a path keeps the whole result or
+     * starts with a wildcard / index — what a JDBC SELECT needs to decide which columns to read.
+     */
+    public Set<String> fields() {
+        if (root.whole || root.anyField != null || root.hasIndices() || root.fields == null) return null;
+        return new LinkedHashSet<>(root.fields.keySet());
+    }
+
+    /**
+     * Parses json keeping only the projected parts (an empty object or array when no path matches);
+     * null when json is not a JSON object or array, so the caller can fall back to treating it as text.
+     */
+    public Object read(ObjectMapper mapper, byte[] json) {
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            JsonToken first = parser.nextToken();
+            if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) return null;
+            Object value = read(mapper, parser, root);
+            if (parser.nextToken() != null) return null; // trailing content after the document
+            if (value != MISSING) return value;
+            return first == JsonToken.START_OBJECT ? new LinkedHashMap<>() : new ArrayList<>();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // ── Streaming ─────────────────────────────────────────────────────────────
+
+    /** Reads the value at the parser's current token; the parser ends on that value's last token. */
+    private static Object read(ObjectMapper mapper, JsonParser parser, Node node) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (node.whole) return mapper.readValue(parser, Object.class);
+
+        if (token == JsonToken.START_OBJECT) {
+            if (!node.hasFields()) {
+                parser.skipChildren();
+                return MISSING;
+            }
+            Map<String, Object> kept = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name  = parser.currentName();
+                Node   child = node.childField(name);
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+                Object value = read(mapper, parser, child);
+                if (value != MISSING) kept.put(name, value);
+            }
+            return kept;
+        }
+
+        if (token == JsonToken.START_ARRAY) {
+            List<Object> kept = new ArrayList<>();
+            int i = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                Node child = node.hasIndices() ? node.childIndex(i) : node;
+                i++;
+                if (child == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+                Object value = read(mapper, parser, child);
+                if (value != MISSING) kept.add(value);
+            }
+            return kept;
+        }
+
+        return MISSING; // a scalar where the path expected an object or array
+    }
+
+    // ── Parsing ───────────────────────────────────────────────────────────────
+
+    private void add(String path) {
+        Node node = root;
+        int  n    = path.length();
+        int  i    = 0;
+        while (i < n) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                if (i == 0 || i == n - 1 || path.charAt(i + 1) == '.') throw malformed(path);
+                i++;
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0) throw malformed(path);
+                String index = path.substring(i + 1, end).trim();
+                if (!index.equals("*") && !index.matches("\\d+")) throw malformed(path);
+                node = node.index(index);
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < n && path.charAt(end) != '.' && path.charAt(end) != '[') end++;
+                node = node.field(path.substring(i, end).trim());
+                i = end;
+            }
+        }
+        node.whole = true;
+    }
+
+    private static IllegalArgumentException malformed(String path) {
+        return new IllegalArgumentException("NEXUS keep: malformed path \"" + path + "\"");
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -47,6 +48,32 @@ public class ReferenceResolver {
         return result.toString();
     }
 
+    /**
+     * Resolves the inside of a single {{ }} (a path or simple expression) to its raw value instead of
+     * its string form — used where the value is bound rather than spliced into text (JDBC parameters).
+     */
+    public Object resolveValue(String expression, NexflowContextObject nco) {
+        return resolvePathOrExpression(expression.trim(), nco, null);
+    }
+
+    /** Fills each {{expr}} in a template from lookup instead of the NCO — for values local to one call (JDBC batch items). */
+    public String fill(String template, Function<String, Object> lookup) {
+        if (template == null || !template.contains("{{")) return template;
+        Matcher matcher = REF_PATTERN.matcher(template);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            Object value = lookup.apply(matcher.group(1).trim());
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value != null ? value.toString() : ""));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /** Walks a dot / [n] path (e.g. "address.city", "tags[0]") inside a value that is not part of the NCO. */
+    public Object resolveIn(Object root, String path) {
+        return resolveNestedPath(root, path);
+    }
+
     private Object resolvePathOrExpression(String path, NexflowContextObject nco, LoopState loopContext) {
         String op = null;
         int opIndex = -1;
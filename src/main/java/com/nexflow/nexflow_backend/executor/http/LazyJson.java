@@ -0,0 +1,102 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Lazy views over a JSON response body held as bytes — what NEXUS REST nodes put in their "body" output.
+ *
+ * parse() only checks that the body is well-formed JSON (a token scan that builds nothing) and returns a
+ * {@link LazyJsonObject} or {@link LazyJsonArray}. A view indexes its own level on first access and
+ * turns a member into a value only when it is read, so {{nex.api.body.data[0].id}} on a large response
+ * materializes that path and nothing else. Serializing a view (execution history, SCRIPT input, API
+ * responses) streams the original bytes through without building maps.
+ */
+public final class LazyJson {
+
+    private LazyJson() {}
+
+    /**
+     * A lazy view of body when it is a JSON object or array, otherwise null (scalars, malformed JSON,
+     * anything that is not JSON) so the caller can fall back to text.
+     */
+    public static Object parse(JsonFactory factory, byte[] body) {
+        int first = firstValueByte(body, 0);
+        if (first < 0 || (body[first] != '{' && body[first] != '[')) return null;
+        try (JsonParser parser = factory.createParser(body, first, body.length - first)) {
+            parser.nextToken();
+            parser.skipChildren();
+            if (parser.nextToken() != null) return null; // trailing content after the document
+        } catch (IOException e) {
+            return null;
+        }
+        return new Source(factory, body).value(first);
+    }
+
+    /** Index of the first byte that is not whitespace (or a UTF-8 BOM) at or after from, or -1. */
+    static int firstValueByte(byte[] buf, int from) {
+        int i = from;
+        if (i + 2 < buf.length && (buf[i] & 0xFF) == 0xEF && (buf[i + 1] & 0xFF) == 0xBB && (buf[i + 2] & 0xFF) == 0xBF) i += 3;
+        while (i < buf.length) {
+            byte b = buf[i];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') return i;
+            i++;
+        }
+        return -1;
+    }
+
+    /** The body bytes shared by every view cut from one response. */
+    record Source(JsonFactory factory, byte[] buf) {
+
+        /** A parser positioned before the value starting at offset; token offsets it reports are relative to it. */
+        JsonParser parser(int offset) throws IOException {
+            return factory.createParser(buf, offset, buf.length - offset);
+        }
+
+        /** End of the number starting at offset — a root-level parser rejects one followed by ',' or '}'. */
+        private int numberEnd(int offset) {
+            int i = offset;
+            while (i < buf.length) {
+                byte b = buf[i];
+                if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') break;
+                i++;
+            }
+            return i;
+        }
+
+        /** The value starting at offset: containers as lazy views, scalars as String / Number / Boolean / null. */
+        Object value(int offset) {
+            int at = firstValueByte(buf, offset);
+            if (at < 0) return null;
+            if (buf[at] == '{') return new LazyJsonObject(this, at);
+            if (buf[at] == '[') return new LazyJsonArray(this, at);
+            boolean number = buf[at] == '-' || (buf[at] >= '0' && buf[at] <= '9');
+            try (JsonParser parser = number ? factory.createParser(buf, at, numberEnd(at) - at) : parser(at)) {
+                JsonToken token = parser.nextToken();
+                if (token == null) return null;
+                return switch (token) {
+                    case VALUE_STRING                      -> parser.getText();
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+                    case VALUE_TRUE                        -> Boolean.TRUE;
+                    case VALUE_FALSE                       -> Boolean.FALSE;
+                    default                                -> null;
+                };
+            } catch (IOException e) {
+                throw new UncheckedIOException("Malformed JSON in NEXUS response body", e);
+            }
+        }
+
+        /** Copies the value starting at offset to gen token by token. */
+        void write(int offset, JsonGenerator gen) throws IOException {
+            try (JsonParser parser = parser(offset)) {
+                parser.nextToken();
+                gen.copyCurrentStructure(parser);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list view of one JSON array inside a response body; see {@link LazyJson}.
+ *
+ * The first access records where each element starts; an element is decoded the first time it is
+ * read and kept, so LOOP over a large array only builds the elements it reaches.
+ */
+public final class LazyJsonArray extends AbstractList<Object> implements RandomAccess, JsonSerializable {
+
+    private final LazyJson.Source source;
+    private final int             offset;
+
+    // built on first access, guarded by this
+    private int[]     elementOffsets;
+    private int       size = -1;
+    private Object[]  values;
+    private boolean[] decoded;
+
+    LazyJsonArray(LazyJson.Source source, int offset) {
+        this.source = source;
+        this.offset = offset;
+    }
+
+    @Override
+    public synchronized Object get(int index) {
+        index();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        if (!decoded[index]) {
+            values[index]  = source.value(elementOffsets[index]);
+            decoded[index] = true;
+        }
+        return values[index];
+    }
+
+    @Override
+    public synchronized int size() {
+        index();
+        return size;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        source.write(offset, gen);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private void index() {
+        if (size >= 0) return;
+        int[] starts = new int[16];
+        int   count  = 0;
+        try (JsonParser parser = source.parser(offset)) {
+            parser.nextToken(); // START_ARRAY
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = offset + (int) parser.currentTokenLocation().getByteOffset();
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed JSON in NEXUS response body", e);
+        }
+        elementOffsets = starts;
+        values         = new Object[count];
+        decoded        = new boolean[count];
+        size           = count;
+    }
+}
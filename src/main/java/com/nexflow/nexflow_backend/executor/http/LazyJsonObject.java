@@ -0,0 +1,134 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only map view of one JSON object inside a response body; see {@link LazyJson}.
+ *
+ * The first access scans this object's members (skipping over nested values) and records where each
+ * value starts; a value is decoded the first time it is read and kept. As with Jackson's own maps, a
+ * repeated key keeps its first position and its last value.
+ */
+public final class LazyJsonObject extends AbstractMap<String, Object> implements JsonSerializable {
+
+    private final LazyJson.Source source;
+    private final int             offset;
+
+    // built on first access, guarded by this
+    private Map<String, Integer> positions;
+    private int[]                valueOffsets;
+    private Object[]             values;
+    private boolean[]            decoded;
+
+    LazyJsonObject(LazyJson.Source source, int offset) {
+        this.source = source;
+        this.offset = offset;
+    }
+
+    @Override
+    public synchronized Object get(Object key) {
+        Integer i = index().get(key);
+        return i != null ? value(i) : null;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return index().containsKey(key);
+    }
+
+    @Override
+    public synchronized int size() {
+        return index().size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return LazyJsonObject.this.size();
+            }
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Integer>> it;
+                synchronized (LazyJsonObject.this) {
+                    it = index().entrySet().iterator();
+                }
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        Entry<String, Integer> e = it.next();
+                        synchronized (LazyJsonObject.this) {
+                            return new SimpleImmutableEntry<>(e.getKey(), value(e.getValue()));
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        source.write(offset, gen);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private Object value(int i) {
+        if (!decoded[i]) {
+            values[i]  = source.value(valueOffsets[i]);
+            decoded[i] = true;
+        }
+        return values[i];
+    }
+
+    private Map<String, Integer> index() {
+        if (positions != null) return positions;
+        Map<String, Integer> found   = new LinkedHashMap<>();
+        int[]                starts  = new int[16];
+        int                  count   = 0;
+        try (JsonParser parser = source.parser(offset)) {
+            parser.nextToken(); // START_OBJECT
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                starts[count] = offset + (int) parser.currentTokenLocation().getByteOffset();
+                found.put(name, count++);
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed JSON in NEXUS response body", e);
+        }
+        valueOffsets = starts;
+        values       = new Object[count];
+        decoded      = new boolean[count];
+        positions    = found;
+        return positions;
+    }
+}
@@ -0,0 +1,22 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of sending a NEXUS REST call when its target's circuit is open or its bulkhead is full.
+ * No request was made; NexusExecutor reports it as a FAILURE with rejected: CIRCUIT_OPEN | BULKHEAD_FULL.
+ */
+@Getter
+public class NexusCallRejectedException extends RuntimeException {
+
+    public enum Reason { CIRCUIT_OPEN, BULKHEAD_FULL }
+
+    private final Reason reason;
+    private final String target;
+
+    NexusCallRejectedException(Reason reason, String target, String message) {
+        super(message);
+        this.reason = reason;
+        this.target = target;
+    }
+}
@@ -0,0 +1,310 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.model.domain.NexusResilienceConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker and bulkhead per NEXUS REST target — one per connector, and for inline URL calls one
+ * per flow owner and host, so one user's failing calls never open the circuit for another user.
+ *
+ * Breaker: the outcomes of the last windowSize calls are kept. Once minimumCalls are in and the failed
+ * share reaches failureRateThreshold (or the slow share slowCallRateThreshold) the circuit opens and
+ * calls are rejected without touching the network for openSeconds. After that halfOpenCalls probes go
+ * through: all succeed → closed, any fails → open again. Failures are connection errors, timeouts,
+ * 5xx and 429; other 4xx (and bodies over the size cap) are the caller's problem and count as successes.
+ * Each request that is really sent takes one permit: callers sharing a coalesced request do not, so one
+ * upstream failure counts once.
+ *
+ * Bulkhead: at most maxConcurrentCalls per target in flight, a call waits up to maxWaitMs for a slot.
+ *
+ * Settings come from the connector's "resilience" object over app.nexus.resilience.*. Rejections throw
+ * {@link NexusCallRejectedException}. Metrics: nexflow.nexus.circuit.rejected{reason},
+ * nexflow.nexus.circuit.transitions{state} and nexflow.nexus.circuit.open.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusCircuitBreakers {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.nexus.resilience.circuit-breaker:true}")
+    private boolean circuitBreaker;
+
+    @Value("${app.nexus.resilience.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${app.nexus.resilience.slow-call-rate-threshold:100}")
+    private int slowCallRateThreshold;
+
+    @Value("${app.nexus.resilience.slow-call-duration-ms:10000}")
+    private int slowCallDurationMs;
+
+    @Value("${app.nexus.resilience.window-size:50}")
+    private int windowSize;
+
+    @Value("${app.nexus.resilience.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${app.nexus.resilience.open-seconds:30}")
+    private int openSeconds;
+
+    @Value("${app.nexus.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${app.nexus.resilience.max-concurrent-calls:0}")
+    private int maxConcurrentCalls;
+
+    @Value("${app.nexus.resilience.max-wait-ms:0}")
+    private int maxWaitMs;
+
+    /** By connector id, or "host:<owner>:<host:port>" for inline calls. */
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    private Counter rejectedOpen;
+    private Counter rejectedFull;
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    record Settings(boolean enabled, int failureRate, int slowRate, long slowNanos, int window, int minimumCalls,
+                    long openMillis, int halfOpenCalls, int maxConcurrent, long maxWaitMs) {}
+
+    @PostConstruct
+    void init() {
+        rejectedOpen = rejectedCounter(NexusCallRejectedException.Reason.CIRCUIT_OPEN);
+        rejectedFull = rejectedCounter(NexusCallRejectedException.Reason.BULKHEAD_FULL);
+        Gauge.builder("nexflow.nexus.circuit.open", breakers,
+                        b -> b.values().stream().filter(br -> br.state() != State.CLOSED).count())
+                .description("NEXUS targets whose circuit is open or half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits one call to the connector (or, when connector is null, to url's host for this owner), or
+     * throws {@link NexusCallRejectedException}. The permit must be released with the call's outcome.
+     */
+    public Permit acquire(NexusConnector connector, String owner, String url) {
+        boolean inline  = connector == null || connector.getId() == null;
+        String  key     = inline ? "host:" + owner + ":" + host(url) : connector.getId().toString();
+        Breaker breaker = breakers.computeIfAbsent(key, k -> new Breaker(inline ? "host:" + host(url) : k, settings(connector)));
+
+        long generation = breaker.tryPass();
+        if (generation < 0) {
+            rejectedOpen.increment();
+            throw new NexusCallRejectedException(NexusCallRejectedException.Reason.CIRCUIT_OPEN, breaker.name,
+                    "Circuit open for NEXUS target " + breaker.name + " — call not sent");
+        }
+        if (breaker.slots != null && !breaker.takeSlot()) {
+            breaker.abandon(generation);
+            rejectedFull.increment();
+            throw new NexusCallRejectedException(NexusCallRejectedException.Reason.BULKHEAD_FULL, breaker.name,
+                    "Too many concurrent calls to NEXUS target " + breaker.name + " (max "
+                            + breaker.settings.maxConcurrent() + ")");
+        }
+        return new Permit(breaker, generation);
+    }
+
+    /** Forgets a connector's breaker and bulkhead, e.g. after the connector was updated or deleted. */
+    public void invalidate(UUID connectorId) {
+        breakers.remove(connectorId.toString());
+    }
+
+    /** An admitted call; release exactly once with its error (null on success). */
+    public static final class Permit {
+        private final Breaker breaker;
+        private final long    generation;
+        private final long    startNanos = System.nanoTime();
+        private boolean       released;
+
+        private Permit(Breaker breaker, long generation) {
+            this.breaker    = breaker;
+            this.generation = generation;
+        }
+
+        public void release(Throwable error) {
+            synchronized (this) {
+                if (released) return;
+                released = true;
+            }
+            if (breaker.slots != null) breaker.slots.release();
+            boolean slow = System.nanoTime() - startNanos > breaker.settings.slowNanos();
+            breaker.record(generation, isFailure(error), slow);
+        }
+    }
+
+    private static boolean isFailure(Throwable error) {
+        if (error == null || error instanceof NexusResponseTooLargeException) return false;
+        if (error instanceof HttpStatusCodeException ex) {
+            int status = ex.getStatusCode().value();
+            return status >= 500 || status == 429;
+        }
+        return true;
+    }
+
+    // ── Breaker ───────────────────────────────────────────────────────────────
+
+    private final class Breaker {
+
+        private static final byte FAILED = 1;
+        private static final byte SLOW   = 2;
+
+        final String    name;
+        final Settings  settings;
+        final Semaphore slots;
+
+        // guarded by this
+        private State        state = State.CLOSED;
+        private long         generation;
+        private long         openUntil;
+        private int          probesInFlight;
+        private int          probeSuccesses;
+        private final byte[] window;
+        private int          next;
+        private int          recorded;
+        private int          failed;
+        private int          slow;
+
+        Breaker(String name, Settings settings) {
+            this.name     = name;
+            this.settings = settings;
+            this.slots    = settings.maxConcurrent() > 0 ? new Semaphore(settings.maxConcurrent(), true) : null;
+            this.window   = new byte[settings.window()];
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        /** The generation the call was admitted in, or -1 when the circuit rejects it. */
+        synchronized long tryPass() {
+            if (!settings.enabled() || state == State.CLOSED) return generation;
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() < openUntil) return -1;
+                transition(State.HALF_OPEN);
+            }
+            if (probesInFlight >= settings.halfOpenCalls()) return -1;
+            probesInFlight++;
+            return generation;
+        }
+
+        boolean takeSlot() {
+            try {
+                return slots.tryAcquire(settings.maxWaitMs(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /** Gives back a half-open probe that was admitted but never sent. */
+        synchronized void abandon(long admittedIn) {
+            if (state == State.HALF_OPEN && admittedIn == generation) probesInFlight--;
+        }
+
+        synchronized void record(long admittedIn, boolean isFailed, boolean isSlow) {
+            // outcomes of calls admitted before the last transition say nothing about the current state
+            if (!settings.enabled() || admittedIn != generation) return;
+            boolean bad = isFailed || (isSlow && settings.slowRate() > 0);
+
+            if (state == State.HALF_OPEN) {
+                probesInFlight--;
+                if (bad) transition(State.OPEN);
+                else if (++probeSuccesses >= settings.halfOpenCalls()) transition(State.CLOSED);
+                return;
+            }
+            if (state != State.CLOSED) return;
+
+            if (recorded == window.length) {
+                byte evicted = window[next];
+                if ((evicted & FAILED) != 0) failed--;
+                if ((evicted & SLOW) != 0) slow--;
+            } else {
+                recorded++;
+            }
+            byte outcome = (byte) ((isFailed ? FAILED : 0) | (isSlow ? SLOW : 0));
+            window[next] = outcome;
+            next = (next + 1) % window.length;
+            if (isFailed) failed++;
+            if (isSlow) slow++;
+
+            if (recorded < settings.minimumCalls()) return;
+            int failureRate = failed * 100 / recorded;
+            int slowRate    = slow * 100 / recorded;
+            if (failureRate >= settings.failureRate() || (settings.slowRate() > 0 && slowRate >= settings.slowRate())) {
+                log.warn("[NexusCircuitBreakers] opening circuit for {}: {}% failed, {}% slow over the last {} calls",
+                        name, failureRate, slowRate, recorded);
+                transition(State.OPEN);
+            }
+        }
+
+        private void transition(State to) {
+            state = to;
+            generation++;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+            if (to == State.OPEN) openUntil = System.currentTimeMillis() + settings.openMillis();
+            if (to == State.CLOSED) {
+                recorded = next = failed = slow = 0;
+                log.info("[NexusCircuitBreakers] circuit for {} closed", name);
+            }
+            meterRegistry.counter("nexflow.nexus.circuit.transitions", "state", to.name().toLowerCase()).increment();
+        }
+    }
+
+    // ── Settings ──────────────────────────────────────────────────────────────
+
+    private Settings settings(NexusConnector connector) {
+        NexusResilienceConfig cfg = connector != null && connector.getResilienceConfig() != null
+                ? connector.getResilienceConfig()
+                : new NexusResilienceConfig();
+        int window = clamp(cfg.getWindowSize(), windowSize, 1, 10_000);
+        return new Settings(
+                cfg.getCircuitBreaker() != null ? cfg.getCircuitBreaker() : circuitBreaker,
+                clamp(cfg.getFailureRateThreshold(),  failureRateThreshold,  1, 100),
+                clamp(cfg.getSlowCallRateThreshold(), slowCallRateThreshold, 0, 100),
+                TimeUnit.MILLISECONDS.toNanos(clamp(cfg.getSlowCallDurationMs(), slowCallDurationMs, 1, Integer.MAX_VALUE)),
+                window,
+                clamp(cfg.getMinimumCalls(),          minimumCalls,          1, window),
+                TimeUnit.SECONDS.toMillis(clamp(cfg.getOpenSeconds(), openSeconds, 1, 86_400)),
+                clamp(cfg.getHalfOpenCalls(),         halfOpenCalls,         1, 1_000),
+                clamp(cfg.getMaxConcurrentCalls(),    maxConcurrentCalls,    0, 100_000),
+                clamp(cfg.getMaxWaitMs(),             maxWaitMs,             0, 600_000));
+    }
+
+    private static int clamp(Integer value, int fallback, int min, int max) {
+        return Math.max(min, Math.min(max, value != null ? value : fallback));
+    }
+
+    private static String host(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null) return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (IllegalArgumentException ignored) {
+            // not a parseable URL — fall through and group it on its own
+        }
+        return url;
+    }
+
+    private Counter rejectedCounter(NexusCallRejectedException.Reason reason) {
+        return Counter.builder("nexflow.nexus.circuit.rejected")
+                .description("NEXUS REST calls rejected without being sent")
+                .tag("reason", reason.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,631 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.model.domain.NexusTransportConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.entity.AbstractBinAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.AbstractAsyncResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Pooled HTTP transports for NEXUS REST calls.
+ *
+ * One transport exists per distinct set of effective settings (app.nexus.http.* defaults overlaid
+ * with a connector's {@link NexusTransportConfig}), so connectors with the same tuning share a pool
+ * and connections to the same host are kept alive and reused across nodes and executions — TLS
+ * handshakes and TCP setup happen once per pooled connection, not once per call.
+ *
+ *   HTTP/1.1 (default) — Apache HttpClient 5 with a per-route connection limit, keep-alive capped at
+ *                        keepAliveSeconds, idle eviction, and built-in gzip decompression.
+ *   HTTP/2 (http2)     — JDK HttpClient, which multiplexes all requests to a host over one connection;
+ *                        gzip is handled by an interceptor.
+ *
+ * Bodies are read as bytes and capped at the connector's maxBodyKb (app.nexus.http.max-body-kb) —
+ * a bigger response fails with {@link NexusResponseTooLargeException} instead of filling the heap.
+ *
+ * Each transport also has a non-blocking side (exchangeAsync) for NEXUS nodes run through
+ * NodeExecutor.executeAsync: Apache HttpAsyncClient on a few I/O reactor threads with its own pool and
+ * the same limits, timeouts and keep-alive. http2 lets it negotiate HTTP/2 over TLS (ALPN).
+ *
+ * Pool statistics are exported per transport as nexflow.nexus.http.pool.{leased,available,pending,max}
+ * (tags transport, client=blocking|async).
+ * Transports beyond MAX_TRANSPORTS are retired least-recently-used first and closed once any request
+ * still in flight on them has timed out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusHttpClients {
+
+    private static final int MAX_TRANSPORTS      = 32;
+    private static final int MAX_PER_ROUTE_LIMIT = 500;
+    private static final int MAX_TIMEOUT_MS      = 300_000;
+
+    // The defaults RestTemplate uses, so async responses fail exactly like blocking ones and both
+    // negotiate the same Accept header the old String responses did.
+    private static final ResponseErrorHandler ERROR_HANDLER = new DefaultResponseErrorHandler();
+    private static final String               STRING_ACCEPT = "text/plain, application/json, application/*+json, */*";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.nexus.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.nexus.http.max-connections-total:200}")
+    private int maxConnectionsTotal;
+
+    @Value("${app.nexus.http.keep-alive-seconds:30}")
+    private int keepAliveSeconds;
+
+    @Value("${app.nexus.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.nexus.http.read-timeout-ms:30000}")
+    private int readTimeoutMs;
+
+    @Value("${app.nexus.http.gzip:true}")
+    private boolean gzip;
+
+    @Value("${app.nexus.http.max-body-kb:10240}")
+    private int maxBodyKb;
+
+    /** Access-ordered so the least recently used transport is retired first. Guarded by itself. */
+    private final Map<Settings, Transport> transports = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ScheduledExecutorService closer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "nexus-http-closer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    void shutdown() {
+        closer.shutdownNow();
+        synchronized (transports) {
+            transports.values().forEach(t -> t.close(CloseMode.IMMEDIATE));
+            transports.clear();
+        }
+    }
+
+    /** The transport for a connector's settings (app defaults where the connector sets nothing). */
+    public RestTemplate forConnector(NexusConnector connector) {
+        return transport(settings(connector.getTransportConfig())).restTemplate;
+    }
+
+    /** The transport with app defaults — inline NEXUS calls without a connector. */
+    public RestTemplate defaults() {
+        return transport(settings(null)).restTemplate;
+    }
+
+    /**
+     * Sends a request on the connector's transport (connector may be null for app defaults) and returns
+     * the body as bytes, at most the connector's maxBodyKb. A 4xx / 5xx throws HttpStatusCodeException
+     * as RestTemplate.exchange does.
+     */
+    public ResponseEntity<byte[]> exchange(NexusConnector connector, HttpMethod method, String url,
+                                           HttpHeaders headers, Object body) {
+        RestTemplate restTemplate = connector != null ? forConnector(connector) : defaults();
+        long         limit        = maxBodyBytes(connector);
+        return restTemplate.execute(url, method,
+                restTemplate.httpEntityCallback(new HttpEntity<>(body, headers), String.class),
+                response -> new ResponseEntity<>(readBody(response.getBody(), response.getHeaders().getContentLength(), limit, url),
+                        response.getHeaders(), response.getStatusCode()));
+    }
+
+    /**
+     * Sends a request without blocking the caller; connector may be null for app defaults.
+     * The future completes on an I/O reactor thread, so callers should move heavy work (body parsing)
+     * to their own executor. A 4xx / 5xx completes it exceptionally with the same
+     * HttpStatusCodeException RestTemplate would throw, so both paths produce identical node output.
+     * The body is buffered up to maxBodyKb as it arrives; past that the exchange is aborted, as it is
+     * when the returned future is cancelled.
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> exchangeAsync(NexusConnector connector, HttpMethod method,
+                                                                   String url, HttpHeaders headers, byte[] body) {
+        Transport transport = transport(settings(connector != null ? connector.getTransportConfig() : null));
+        long      limit     = maxBodyBytes(connector);
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+
+        SimpleRequestBuilder request = SimpleRequestBuilder.create(method.name()).setUri(url);
+        headers.forEach((name, values) -> {
+            if (body != null && HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) return; // set with the body
+            values.forEach(value -> request.addHeader(name, value));
+        });
+        if (!headers.containsKey(HttpHeaders.ACCEPT)) request.addHeader(HttpHeaders.ACCEPT, STRING_ACCEPT);
+        if (transport.settings.gzip() && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        if (body != null) {
+            MediaType type = headers.getContentType();
+            request.setBody(body, ContentType.parse(type != null ? type.toString() : MediaType.APPLICATION_JSON_VALUE));
+        }
+
+        Future<SimpleHttpResponse> exchange = transport.async().execute(
+                SimpleRequestProducer.create(request.build()), new CappedResponseConsumer(limit, url),
+                new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    result.complete(toResponseEntity(url, method, response, limit));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                for (Throwable t = e; t != null; t = t.getCause()) {
+                    if (t instanceof NexusResponseTooLargeException tooLarge) {
+                        result.completeExceptionally(tooLarge);
+                        return;
+                    }
+                }
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        // cancelling the returned future (e.g. the losing copy of a hedged request) aborts the exchange
+        result.whenComplete((ok, error) -> {
+            if (result.isCancelled()) exchange.cancel(true);
+        });
+        return result;
+    }
+
+    private static ResponseEntity<byte[]> toResponseEntity(String url, HttpMethod method, SimpleHttpResponse response,
+                                                           long limit) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) headers.add(header.getName(), header.getValue());
+        byte[] body = response.getBodyBytes() != null ? response.getBodyBytes() : new byte[0];
+        if ("gzip".equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = readBody(in, -1, limit, url);
+            }
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        BufferedResponse buffered = new BufferedResponse(response.getCode(), response.getReasonPhrase(), headers, body);
+        if (ERROR_HANDLER.hasError(buffered)) ERROR_HANDLER.handleError(URI.create(url), method, buffered);
+        return ResponseEntity.status(response.getCode()).headers(headers).body(body);
+    }
+
+    /** Reads at most limit bytes of a body; contentLength (-1 if unknown) lets an oversized one fail up front. */
+    private static byte[] readBody(InputStream in, long contentLength, long limit, String url) throws IOException {
+        if (in == null) return new byte[0];
+        if (contentLength > limit) throw new NexusResponseTooLargeException(url, limit);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 8192);
+        byte[] chunk = new byte[8192];
+        long   total = 0;
+        int    n;
+        while ((n = in.read(chunk)) != -1) {
+            total += n;
+            if (total > limit) throw new NexusResponseTooLargeException(url, limit);
+            out.write(chunk, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private long maxBodyBytes(NexusConnector connector) {
+        NexusTransportConfig cfg = connector != null ? connector.getTransportConfig() : null;
+        int kb = cfg != null && cfg.getMaxBodyKb() != null ? cfg.getMaxBodyKb() : maxBodyKb;
+        return Math.max(1, kb) * 1024L;
+    }
+
+    /** Async counterpart of readBody: buffers the body as it streams in and aborts past the limit. */
+    private static final class CappedResponseConsumer extends AbstractAsyncResponseConsumer<SimpleHttpResponse, byte[]> {
+
+        CappedResponseConsumer(long limit, String url) {
+            super(new CappedEntityConsumer(limit, url));
+        }
+
+        @Override
+        protected SimpleHttpResponse buildResult(HttpResponse response, byte[] entity, ContentType contentType) {
+            SimpleHttpResponse result = SimpleHttpResponse.copy(response);
+            if (entity != null) result.setBody(entity, contentType);
+            return result;
+        }
+
+        @Override
+        public void informationResponse(HttpResponse response, HttpContext context) {
+        }
+    }
+
+    private static final class CappedEntityConsumer extends AbstractBinAsyncEntityConsumer<byte[]> {
+
+        private final long            limit;
+        private final String          url;
+        private final ByteArrayBuffer buffer = new ByteArrayBuffer(1024);
+
+        CappedEntityConsumer(long limit, String url) {
+            this.limit = limit;
+            this.url   = url;
+        }
+
+        @Override
+        protected void streamStart(ContentType contentType) {
+        }
+
+        @Override
+        protected int capacityIncrement() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+            if (src == null) return;
+            if (buffer.length() + (long) src.remaining() > limit) {
+                throw new IOException(new NexusResponseTooLargeException(url, limit));
+            }
+            buffer.append(src);
+        }
+
+        @Override
+        protected byte[] generateContent() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public void releaseResources() {
+            buffer.clear();
+        }
+    }
+
+    // ── Settings ──────────────────────────────────────────────────────────────
+
+    record Settings(int maxPerRoute, int keepAliveSeconds, int connectTimeoutMs, int readTimeoutMs,
+                    boolean http2, boolean gzip) {
+
+        /** Short tag value for metrics, e.g. "h1-p20-ka30-ct5000-rt30000-gz". */
+        String label() {
+            return (http2 ? "h2" : "h1") + "-p" + maxPerRoute + "-ka" + keepAliveSeconds
+                    + "-ct" + connectTimeoutMs + "-rt" + readTimeoutMs + (gzip ? "-gz" : "");
+        }
+    }
+
+    private Settings settings(NexusTransportConfig cfg) {
+        if (cfg == null) cfg = new NexusTransportConfig();
+        return new Settings(
+                clamp(cfg.getMaxConnectionsPerRoute(), maxConnectionsPerRoute, 1, MAX_PER_ROUTE_LIMIT),
+                clamp(cfg.getKeepAliveSeconds(),       keepAliveSeconds,       0, 3600),
+                clamp(cfg.getConnectTimeoutMs(),       connectTimeoutMs,       100, MAX_TIMEOUT_MS),
+                clamp(cfg.getReadTimeoutMs(),          readTimeoutMs,          100, MAX_TIMEOUT_MS),
+                Boolean.TRUE.equals(cfg.getHttp2()),
+                cfg.getGzip() != null ? cfg.getGzip() : gzip);
+    }
+
+    private static int clamp(Integer value, int fallback, int min, int max) {
+        return Math.min(Math.max(value != null ? value : fallback, min), max);
+    }
+
+    // ── Transports ────────────────────────────────────────────────────────────
+
+    private Transport transport(Settings settings) {
+        List<Transport> retired = new ArrayList<>();
+        Transport transport;
+        synchronized (transports) {
+            transport = transports.get(settings);
+            if (transport != null) return transport;
+            transport = settings.http2() ? http2Transport(settings) : pooledTransport(settings);
+            transports.put(settings, transport);
+            var it = transports.values().iterator();
+            while (transports.size() > MAX_TRANSPORTS && it.hasNext()) {
+                retired.add(it.next());
+                it.remove();
+            }
+        }
+        log.info("[NexusHttp] transport created {}", settings.label());
+        for (Transport old : retired) {
+            old.removeMeters();
+            // Requests still running on it finish or time out within connect + read timeout.
+            long delayMs = (long) old.settings.connectTimeoutMs() + old.settings.readTimeoutMs();
+            closer.schedule(() -> old.close(CloseMode.GRACEFUL), delayMs, TimeUnit.MILLISECONDS);
+        }
+        return transport;
+    }
+
+    private Transport pooledTransport(Settings s) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(s.maxPerRoute())
+                .setMaxConnTotal(Math.max(maxConnectionsTotal, s.maxPerRoute()))
+                .setDefaultConnectionConfig(connectionConfig(s))
+                .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(requestConfig(s))
+                .setKeepAliveStrategy(keepAliveStrategy(s))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(s.keepAliveSeconds()))
+                .disableAutomaticRetries();
+        if (s.keepAliveSeconds() == 0) builder.setConnectionReuseStrategy((request, response, context) -> false);
+        if (!s.gzip()) builder.disableContentCompression();
+        CloseableHttpClient client = builder.build();
+
+        Transport transport = new Transport(s, new RestTemplate(new HttpComponentsClientHttpRequestFactory(client)), client, pool);
+        registerPoolGauges(transport, pool, "blocking");
+        return transport;
+    }
+
+    /** The non-blocking client for a transport, HTTP/1.1 only unless http2 is set. */
+    private CloseableHttpAsyncClient asyncClient(Transport transport) {
+        Settings s = transport.settings;
+        PoolingAsyncClientConnectionManager pool = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(s.maxPerRoute())
+                .setMaxConnTotal(Math.max(maxConnectionsTotal, s.maxPerRoute()))
+                .setDefaultConnectionConfig(connectionConfig(s))
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(s.http2() ? HttpVersionPolicy.NEGOTIATE : HttpVersionPolicy.FORCE_HTTP_1)
+                        .build())
+                .build();
+
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(requestConfig(s))
+                .setKeepAliveStrategy(keepAliveStrategy(s))
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setSoTimeout(Timeout.ofMilliseconds(s.readTimeoutMs()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(s.keepAliveSeconds()))
+                .disableAutomaticRetries();
+        if (s.keepAliveSeconds() == 0) builder.setConnectionReuseStrategy((request, response, context) -> false);
+        CloseableHttpAsyncClient client = builder.build();
+        client.start();
+
+        transport.asyncPool = pool;
+        registerPoolGauges(transport, pool, "async");
+        log.info("[NexusHttp] async client started {}", s.label());
+        return client;
+    }
+
+    private static ConnectionConfig connectionConfig(Settings s) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(s.connectTimeoutMs()))
+                .setSocketTimeout(Timeout.ofMilliseconds(s.readTimeoutMs()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+    }
+
+    private static RequestConfig requestConfig(Settings s) {
+        return RequestConfig.custom()
+                // waiting for a free pooled connection counts against the connect timeout
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(s.connectTimeoutMs()))
+                .setResponseTimeout(Timeout.ofMilliseconds(s.readTimeoutMs()))
+                .build();
+    }
+
+    /** The server's Keep-Alive header wins when it is shorter than keepAliveSeconds. */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(Settings s) {
+        TimeValue keepAlive = TimeValue.ofSeconds(s.keepAliveSeconds());
+        return (response, context) -> {
+            TimeValue offered = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return offered.compareTo(keepAlive) < 0 ? offered : keepAlive;
+        };
+    }
+
+    private void registerPoolGauges(Transport transport, ConnPoolControl<HttpRoute> pool, String client) {
+        String tag = transport.settings.label();
+        transport.meters.add(poolGauge("leased",    "Pooled connections in use",               pool, tag, client, p -> p.getTotalStats().getLeased()));
+        transport.meters.add(poolGauge("available", "Idle pooled connections ready for reuse", pool, tag, client, p -> p.getTotalStats().getAvailable()));
+        transport.meters.add(poolGauge("pending",   "Requests waiting for a pooled connection", pool, tag, client, p -> p.getTotalStats().getPending()));
+        transport.meters.add(poolGauge("max",       "Maximum pooled connections",              pool, tag, client, p -> p.getTotalStats().getMax()));
+    }
+
+    private Meter poolGauge(String name, String description, ConnPoolControl<HttpRoute> pool, String tag, String client,
+                            ToDoubleFunction<ConnPoolControl<HttpRoute>> value) {
+        return Gauge.builder("nexflow.nexus.http.pool." + name, pool, value)
+                .description(description)
+                .tag("transport", tag)
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    private Transport http2Transport(Settings s) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(s.connectTimeoutMs()))
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(Duration.ofMillis(s.readTimeoutMs()));
+        RestTemplate restTemplate = new RestTemplate(factory);
+        if (s.gzip()) restTemplate.getInterceptors().add(gzipInterceptor());
+        return new Transport(s, restTemplate, null, null);
+    }
+
+    /** Accept-Encoding: gzip plus transparent decompression, for the JDK client which does neither. */
+    private static ClientHttpRequestInterceptor gzipInterceptor() {
+        return (request, body, execution) -> {
+            if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            ClientHttpResponse response = execution.execute(request, body);
+            String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            return "gzip".equalsIgnoreCase(encoding) ? new GunzipResponse(response) : response;
+        };
+    }
+
+    private final class Transport {
+
+        private final Settings                           settings;
+        private final RestTemplate                       restTemplate;
+        private final CloseableHttpClient                apacheClient; // null for HTTP/2
+        private final PoolingHttpClientConnectionManager pool;         // null for HTTP/2
+        private final List<Meter>                        meters = new ArrayList<>(); // guarded by this
+        private CloseableHttpAsyncClient                 asyncClient;  // created on first exchangeAsync
+        private PoolingAsyncClientConnectionManager      asyncPool;
+        private boolean                                  closed;
+
+        private Transport(Settings settings, RestTemplate restTemplate,
+                          CloseableHttpClient apacheClient, PoolingHttpClientConnectionManager pool) {
+            this.settings     = settings;
+            this.restTemplate = restTemplate;
+            this.apacheClient = apacheClient;
+            this.pool         = pool;
+        }
+
+        private synchronized CloseableHttpAsyncClient async() {
+            if (closed) throw new IllegalStateException("NEXUS HTTP transport " + settings.label() + " is closed");
+            if (asyncClient == null) asyncClient = asyncClient(this);
+            return asyncClient;
+        }
+
+        private synchronized void removeMeters() {
+            meters.forEach(meterRegistry::remove);
+        }
+
+        private synchronized void close(CloseMode mode) {
+            closed = true;
+            if (asyncClient != null) {
+                asyncClient.close(mode);
+                asyncPool.close(mode);
+            }
+            if (apacheClient == null) return; // the JDK client closes its connections once unreachable
+            apacheClient.close(mode);
+            pool.close(mode);
+        }
+    }
+
+    /** A fully read async response, in the shape Spring's error handler and converters expect. */
+    private record BufferedResponse(int status, String reason, HttpHeaders headers, byte[] body)
+            implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(status);
+        }
+
+        @Override
+        public String getStatusText() {
+            return reason != null ? reason : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** A gzip-encoded response presented as its decoded body, without the now-wrong encoding / length headers. */
+    private static final class GunzipResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private InputStream body;
+
+        private GunzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(delegate.getHeaders());
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) body = new GZIPInputStream(delegate.getBody());
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
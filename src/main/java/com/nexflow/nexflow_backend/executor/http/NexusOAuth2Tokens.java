@@ -0,0 +1,230 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access tokens for connectors with authType OAUTH2_CLIENT_CREDENTIALS, shared by every node and
+ * execution that uses the connector.
+ *
+ * authConfig: tokenUrl, clientId, clientSecret, optional scope / audience, and clientAuth "basic"
+ * (default — credentials in an Authorization header) or "body" (client_id / client_secret form fields).
+ *
+ * A token is fetched once and reused until it expires. Within app.nexus.oauth2.refresh-before-seconds
+ * of expiry the next caller still gets the current token while a refresh runs in the background, so
+ * calls normally never wait for the identity provider. Refreshes are single-flight per connector:
+ * concurrent callers share one token request. After a 401 the executor calls {@link #reauthorize},
+ * which drops the rejected token and fetches a new one (again shared), and retries the call once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusOAuth2Tokens {
+
+    public static final String AUTH_TYPE = "OAUTH2_CLIENT_CREDENTIALS";
+
+    private final NexusHttpClients httpClients;
+    private final ObjectMapper     objectMapper;
+    private final MeterRegistry    meterRegistry;
+
+    @Value("${app.nexus.oauth2.refresh-before-seconds:60}")
+    private int refreshBeforeSeconds;
+
+    /** Lifetime assumed when the token response has no expires_in. */
+    @Value("${app.nexus.oauth2.default-ttl-seconds:300}")
+    private int defaultTtlSeconds;
+
+    private record Token(String authorization, long refreshAt, long expiresAt, Map<String, String> authConfig) {}
+
+    /** Token state of one connector. */
+    private static final class Slot {
+        volatile Token           token;
+        // guarded by this
+        CompletableFuture<Token> refreshing;
+    }
+
+    private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+
+    private final ExecutorService refresher = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "nexus-oauth2-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public static boolean handles(NexusConnector connector) {
+        return connector != null && AUTH_TYPE.equalsIgnoreCase(connector.getAuthType());
+    }
+
+    /**
+     * The Authorization header value for the connector, waiting for a token request only when there
+     * is no unexpired token. Throws IllegalStateException when the token cannot be obtained.
+     */
+    public String authorization(NexusConnector connector) {
+        Slot  slot  = slot(connector);
+        Token token = slot.token;
+        long  now   = System.currentTimeMillis();
+        if (usable(token, connector, now)) {
+            if (now >= token.refreshAt()) refresh(slot, connector); // proactive, the caller does not wait
+            return token.authorization();
+        }
+        return await(refresh(slot, connector), connector).authorization();
+    }
+
+    /**
+     * A fresh Authorization header after the target answered 401 to rejected. When another caller
+     * already replaced that token the replacement is returned without a new token request.
+     */
+    public CompletableFuture<String> reauthorize(NexusConnector connector, String rejected) {
+        Slot slot = slot(connector);
+        synchronized (slot) {
+            Token token = slot.token;
+            if (usable(token, connector, System.currentTimeMillis()) && !token.authorization().equals(rejected)) {
+                return CompletableFuture.completedFuture(token.authorization());
+            }
+            if (token != null && token.authorization().equals(rejected)) slot.token = null;
+        }
+        return refresh(slot, connector).thenApply(Token::authorization);
+    }
+
+    /** Forgets a connector's token, e.g. after its credentials were changed or it was deleted. */
+    public void invalidate(UUID connectorId) {
+        slots.remove(connectorId);
+    }
+
+    private Slot slot(NexusConnector connector) {
+        return connector.getId() != null ? slots.computeIfAbsent(connector.getId(), k -> new Slot()) : new Slot();
+    }
+
+    private static boolean usable(Token token, NexusConnector connector, long now) {
+        return token != null && now < token.expiresAt() && Objects.equals(token.authConfig(), connector.getAuthConfig());
+    }
+
+    /** The token request in flight for slot, starting one if there is none. */
+    private CompletableFuture<Token> refresh(Slot slot, NexusConnector connector) {
+        CompletableFuture<Token> request;
+        synchronized (slot) {
+            if (slot.refreshing != null) return slot.refreshing;
+            request = CompletableFuture.supplyAsync(() -> fetch(connector), refresher);
+            slot.refreshing = request;
+        }
+        request.whenComplete((token, error) -> {
+            synchronized (slot) {
+                slot.refreshing = null;
+                if (token != null) slot.token = token;
+            }
+            if (error != null) {
+                log.warn("[NexusOAuth2Tokens] token request for connector {} failed: {}",
+                        connector.getId(), unwrap(error).getMessage());
+            }
+        });
+        return request;
+    }
+
+    private static Token await(CompletableFuture<Token> request, NexusConnector connector) {
+        try {
+            return request.join();
+        } catch (CompletionException ex) {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof IllegalStateException ise) throw ise;
+            throw new IllegalStateException("OAuth2 token request for connector " + connector.getName()
+                    + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private Token fetch(NexusConnector connector) {
+        Map<String, String> auth     = connector.getAuthConfig() != null ? connector.getAuthConfig() : Map.of();
+        String              tokenUrl = auth.get("tokenUrl");
+        String              clientId = auth.get("clientId");
+        if (tokenUrl == null || tokenUrl.isBlank() || clientId == null || clientId.isBlank()) {
+            throw new IllegalStateException("OAuth2 connector " + connector.getName() + " needs tokenUrl and clientId");
+        }
+        String secret = auth.getOrDefault("clientSecret", "");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        StringBuilder form = new StringBuilder("grant_type=client_credentials");
+        appendParam(form, "scope",    auth.get("scope"));
+        appendParam(form, "audience", auth.get("audience"));
+        if ("body".equalsIgnoreCase(auth.get("clientAuth"))) {
+            appendParam(form, "client_id",     clientId);
+            appendParam(form, "client_secret", secret);
+        } else {
+            headers.setBasicAuth(URLEncoder.encode(clientId, StandardCharsets.UTF_8),
+                    URLEncoder.encode(secret, StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        }
+
+        long issuedAt = System.currentTimeMillis();
+        try {
+            ResponseEntity<byte[]> response = httpClients.exchange(null, HttpMethod.POST, tokenUrl, headers, form.toString());
+            Map<?, ?> body  = objectMapper.readValue(response.getBody(), Map.class);
+            Object    value = body.get("access_token");
+            if (!(value instanceof String accessToken) || accessToken.isBlank()) {
+                throw new IllegalStateException("token response from " + tokenUrl + " has no access_token");
+            }
+            String type = body.get("token_type") instanceof String t && !t.isBlank() && !t.equalsIgnoreCase("bearer")
+                    ? t
+                    : "Bearer";
+            long ttl       = TimeUnit.SECONDS.toMillis(expiresIn(body.get("expires_in")));
+            long refreshIn = Math.max(ttl / 2, ttl - TimeUnit.SECONDS.toMillis(refreshBeforeSeconds));
+            meterRegistry.counter("nexflow.nexus.oauth2.tokens", "result", "fetched").increment();
+            log.debug("[NexusOAuth2Tokens] fetched token for connector {}, expires in {}s", connector.getId(), ttl / 1000);
+            return new Token(type + " " + accessToken, issuedAt + refreshIn, issuedAt + ttl, new HashMap<>(auth));
+        } catch (Exception ex) {
+            meterRegistry.counter("nexflow.nexus.oauth2.tokens", "result", "failed").increment();
+            throw new IllegalStateException("OAuth2 token request for connector " + connector.getName()
+                    + " failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private long expiresIn(Object value) {
+        if (value instanceof Number n && n.longValue() > 0) return n.longValue();
+        if (value instanceof String s) {
+            try {
+                long seconds = Long.parseLong(s.trim());
+                if (seconds > 0) return seconds;
+            } catch (NumberFormatException ignored) {
+                // fall back to the default lifetime
+            }
+        }
+        return defaultTtlSeconds;
+    }
+
+    private static void appendParam(StringBuilder form, String name, String value) {
+        if (value == null || value.isBlank()) return;
+        form.append('&').append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,406 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Paginated fetch for NEXUS REST nodes ("paginate" in the node config): walks an API page by page and
+ * collects the items of every page into one list, so a bulk sync is one node instead of a LOOP of
+ * NEXUS + SCRIPT steps per page.
+ *
+ *   type cursor — next page: cursorParam = value at cursorPath in the body; stops when it is empty
+ *   type offset — offsetParam += limit per page (limitParam = limit); stops at a short page
+ *   type page   — pageParam = startPage, startPage + 1, ...; stops at an empty (or, with limit, short) page
+ *   type link   — follows the Link: <...>; rel="next" response header, on the first page's origin only
+ *
+ * itemsPath locates the array in each body (default: the body itself). As soon as the next page's URL
+ * is known it is requested, and the current page's items are copied while it is in flight. At most
+ * maxPages pages are read (default app.nexus.pagination.max-pages); the result says truncated when more
+ * were available. Items are held in memory up to app.nexus.pagination.max-items, or with spillToFile
+ * streamed to a {@link SpilledItems} file as they arrive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusPaginator {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]*)>\\s*;[^,]*?rel\\s*=\\s*\"?([^\",]*)\"?");
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.nexus.pagination.max-pages:100}")
+    private int maxPages;
+
+    @Value("${app.nexus.pagination.max-items:100000}")
+    private int maxItems;
+
+    @Value("${app.nexus.pagination.spill-dir:${java.io.tmpdir}/nexflow-page-spill}")
+    private String spillDir;
+
+    @Value("${app.nexus.pagination.spill-ttl-minutes:60}")
+    private int spillTtlMinutes;
+
+    private Path spillPath;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "nexus-page-spill-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public enum Type { CURSOR, OFFSET, PAGE, LINK }
+
+    /** A node's paginate settings. */
+    public record Spec(Type type, String itemsPath, String cursorPath, String cursorParam,
+                       String offsetParam, String pageParam, int startPage, String limitParam, int limit,
+                       int maxPages, boolean spillToFile) {}
+
+    /** What the fetch produced; items is a List or a {@link SpilledItems}. */
+    public record Result(List<Object> items, int pages, int statusCode, boolean truncated) {}
+
+    @PostConstruct
+    void init() {
+        spillPath = Path.of(spillDir);
+        long period = Math.max(1, Math.min(spillTtlMinutes, 10));
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /** The spec for a node's config.paginate, or null when absent. Throws IllegalArgumentException when invalid. */
+    public Spec spec(Object paginate) {
+        if (paginate == null || Boolean.FALSE.equals(paginate)) return null;
+        if (!(paginate instanceof Map<?, ?> cfg)) {
+            throw new IllegalArgumentException("NEXUS paginate must be an object with a \"type\"");
+        }
+        Type type;
+        try {
+            type = Type.valueOf(String.valueOf(cfg.get("type")).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("NEXUS paginate.type must be cursor, offset, page or link");
+        }
+        String cursorPath = text(cfg.get("cursorPath"), null);
+        if (type == Type.CURSOR && cursorPath == null) {
+            throw new IllegalArgumentException("NEXUS paginate type cursor needs cursorPath");
+        }
+        int limit = number(cfg.get("limit"), type == Type.OFFSET ? 100 : 0);
+        if (type == Type.OFFSET && limit <= 0) throw new IllegalArgumentException("NEXUS paginate type offset needs a limit");
+        int pages = number(cfg.get("maxPages"), maxPages);
+        return new Spec(type,
+                text(cfg.get("itemsPath"), null),
+                cursorPath,
+                text(cfg.get("cursorParam"), "cursor"),
+                text(cfg.get("offsetParam"), "offset"),
+                text(cfg.get("pageParam"), "page"),
+                number(cfg.get("startPage"), 1),
+                text(cfg.get("limitParam"), limit > 0 ? "limit" : null),
+                limit,
+                pages > 0 ? pages : maxPages,
+                Boolean.TRUE.equals(cfg.get("spillToFile")));
+    }
+
+    /**
+     * Reads the pages starting at url. send requests one page, parse turns a response into its body;
+     * a failure of any page fails the whole fetch with that page's exception.
+     */
+    public Result fetch(Spec spec, String url, Function<String, CompletableFuture<ResponseEntity<byte[]>>> send,
+                        Function<ResponseEntity<byte[]>, Object> parse) throws Exception {
+        Sink sink = spec.spillToFile() ? new SpillSink() : new MemorySink();
+        try {
+            String first   = firstUrl(spec, url);
+            String pageUrl = first;
+            CompletableFuture<ResponseEntity<byte[]>> next = send.apply(pageUrl);
+            int    pages      = 0;
+            int    statusCode = 0;
+            int    offset     = 0;
+            int    pageNumber = spec.startPage();
+            String cursor     = null;
+            boolean truncated = false;
+
+            while (next != null) {
+                ResponseEntity<byte[]> response = await(next);
+                Object                 body     = parse.apply(response);
+                pages++;
+                statusCode = response.getStatusCode().value();
+                List<?> items = items(spec, body);
+
+                // work out the next page and send it before copying this page's items
+                String nextUrl = switch (spec.type()) {
+                    case CURSOR -> {
+                        Object value = at(body, spec.cursorPath());
+                        String c = value != null ? String.valueOf(value) : null;
+                        yield c == null || c.isBlank() || c.equals(cursor) || items.isEmpty()
+                                ? null : withParam(first, spec.cursorParam(), cursor = c);
+                    }
+                    case OFFSET -> items.size() < spec.limit()
+                            ? null : withParam(pageUrl, spec.offsetParam(), String.valueOf(offset += spec.limit()));
+                    case PAGE -> items.isEmpty() || (spec.limit() > 0 && items.size() < spec.limit())
+                            ? null : withParam(pageUrl, spec.pageParam(), String.valueOf(++pageNumber));
+                    case LINK -> nextLink(first, pageUrl, response.getHeaders());
+                };
+                if (nextUrl != null && pages >= spec.maxPages()) {
+                    truncated = true;
+                    nextUrl   = null;
+                }
+                next = nextUrl != null ? send.apply(pageUrl = nextUrl) : null;
+
+                if (!sink.addAll(items)) {
+                    truncated = true;
+                    break;
+                }
+            }
+            log.debug("[NexusPaginator] {} pages, {} items from {}", pages, sink.size(), url);
+            return new Result(sink.finish(), pages, statusCode, truncated);
+        } catch (Exception | Error ex) {
+            sink.discard();
+            throw ex;
+        }
+    }
+
+    // ── Pages ─────────────────────────────────────────────────────────────────
+
+    private static ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> page) throws Exception {
+        try {
+            return page.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof Exception cause ? cause : ex;
+        }
+    }
+
+    private static String firstUrl(Spec spec, String url) {
+        String first = url;
+        switch (spec.type()) {
+            case OFFSET -> first = withParam(first, spec.offsetParam(), "0");
+            case PAGE   -> first = withParam(first, spec.pageParam(), String.valueOf(spec.startPage()));
+            default     -> { }
+        }
+        if (spec.limitParam() != null && spec.limit() > 0 && spec.type() != Type.LINK) {
+            first = withParam(first, spec.limitParam(), String.valueOf(spec.limit()));
+        }
+        return first;
+    }
+
+    private static List<?> items(Spec spec, Object body) {
+        Object items = spec.itemsPath() != null ? at(body, spec.itemsPath()) : body;
+        if (items == null) return List.of();
+        if (items instanceof List<?> list) return list;
+        throw new IllegalStateException("NEXUS paginate: " + (spec.itemsPath() != null ? spec.itemsPath() : "the body")
+                + " is not an array");
+    }
+
+    /** Value at a dotted path, or null. */
+    private static Object at(Object value, String path) {
+        Object current = value;
+        for (String part : path.split("\\.")) {
+            if (!(current instanceof Map<?, ?> map)) return null;
+            current = map.get(part);
+        }
+        return current;
+    }
+
+    private static String withParam(String url, String name, String value) {
+        return UriComponentsBuilder.fromUriString(url)
+                .replaceQueryParam(name, UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8))
+                .build(true)
+                .toUriString();
+    }
+
+    /**
+     * The rel="next" target of the Link header, resolved against the page's URL; null when there is none.
+     * Every page is sent with the node's headers (Authorization, API key, OAuth2 token), so a link to
+     * another scheme, host or port than the first page fails the fetch instead of being followed.
+     */
+    private static String nextLink(String first, String pageUrl, HttpHeaders headers) {
+        for (String link : headers.getOrEmpty(HttpHeaders.LINK)) {
+            Matcher m = NEXT_LINK.matcher(link);
+            while (m.find()) {
+                for (String rel : m.group(2).trim().split("\\s+")) {
+                    if (!rel.equalsIgnoreCase("next")) continue;
+                    URI next = URI.create(pageUrl).resolve(m.group(1).trim());
+                    if (!sameOrigin(URI.create(first), next)) {
+                        throw new IllegalStateException("NEXUS paginate: next link " + origin(next)
+                                + " is not on the origin of the first page " + origin(URI.create(first)));
+                    }
+                    return next.toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameOrigin(URI a, URI b) {
+        return a.getScheme() != null && a.getScheme().equalsIgnoreCase(b.getScheme())
+                && a.getHost() != null && a.getHost().equalsIgnoreCase(b.getHost())
+                && port(a) == port(b);
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() != -1) return uri.getPort();
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : "http".equalsIgnoreCase(uri.getScheme()) ? 80 : -1;
+    }
+
+    /** scheme://host:port only — the rest of a URL may carry tokens. */
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+    }
+
+    // ── Item sinks ────────────────────────────────────────────────────────────
+
+    private interface Sink {
+        /** False when the item cap was reached and the rest was dropped. */
+        boolean addAll(List<?> items) throws IOException;
+        int size();
+        List<Object> finish() throws IOException;
+        void discard();
+    }
+
+    private final class MemorySink implements Sink {
+        private final List<Object> items = new ArrayList<>();
+
+        @Override
+        public boolean addAll(List<?> page) {
+            int room = maxItems - items.size();
+            if (page.size() > room) {
+                items.addAll(page.subList(0, Math.max(0, room)));
+                return false;
+            }
+            items.addAll(page);
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        public List<Object> finish() {
+            return items;
+        }
+
+        @Override
+        public void discard() {
+            items.clear();
+        }
+    }
+
+    private final class SpillSink implements Sink {
+        private final Path         file;
+        private final OutputStream out;
+        private long[] offsets = new long[1024];
+        private int    count;
+        private long   position;
+
+        SpillSink() throws IOException {
+            Files.createDirectories(spillPath);
+            file = spillPath.resolve("items-" + UUID.randomUUID() + ".jsonl");
+            out  = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+        }
+
+        @Override
+        public boolean addAll(List<?> page) throws IOException {
+            for (Object item : page) {
+                byte[] line = objectMapper.writeValueAsBytes(item);
+                if (count + 1 >= offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                offsets[count++] = position;
+                out.write(line);
+                out.write('\n');
+                position += line.length + 1;
+            }
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public List<Object> finish() throws IOException {
+            out.close();
+            offsets[count] = position;
+            log.info("[NexusPaginator] spilled {} items to {} ({} bytes)", count, file, position);
+            return new SpilledItems(file, Arrays.copyOf(offsets, count + 1), count, objectMapper);
+        }
+
+        @Override
+        public void discard() {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // deleting it anyway
+            }
+            deleteQuietly(file);
+        }
+    }
+
+    /** Deletes spill files older than the TTL — the cursors handed out for them stop working. */
+    private void sweep() {
+        if (!Files.isDirectory(spillPath)) return;
+        FileTime cutoff = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(spillTtlMinutes));
+        try (Stream<Path> files = Files.list(spillPath)) {
+            files.filter(f -> f.getFileName().toString().startsWith("items-"))
+                 .filter(f -> {
+                     try { return Files.getLastModifiedTime(f).compareTo(cutoff) < 0; }
+                     catch (IOException e) { return false; }
+                 })
+                 .forEach(NexusPaginator::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("[NexusPaginator] could not sweep spill directory {}: {}", spillPath, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try { Files.deleteIfExists(file); }
+        catch (IOException ignored) {}
+    }
+
+    private static String text(Object value, String fallback) {
+        return value instanceof String s && !s.isBlank() ? s.trim() : fallback;
+    }
+
+    private static int number(Object value, int fallback) {
+        if (value instanceof Number n) return n.intValue();
+        if (value instanceof String s && !s.isBlank()) {
+            try { return Integer.parseInt(s.trim()); }
+            catch (NumberFormatException ignored) {}
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,210 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.model.domain.NexusTransportConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical idempotent NEXUS REST requests.
+ *
+ * While a GET / HEAD / OPTIONS with the same URL, headers and body is in flight, later callers wait
+ * for its response instead of sending their own — a webhook burst that starts 200 executions of one
+ * flow makes one upstream call, not 200. Every waiter gets its own copy of the response, and a failure
+ * (including the HttpStatusCodeException of a 4xx / 5xx) is shared the same way. A waiter that has
+ * waited coalesceMaxWaitMs gives up and sends its own request.
+ *
+ * Enabled per connector with transport.coalesce, falling back to app.nexus.http.coalesce (which also
+ * covers inline HTTP nodes). Metrics: nexflow.nexus.http.coalesce{result=leader|joined|timeout}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusRequestCoalescer {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ObjectMapper  objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.nexus.http.coalesce:false}")
+    private boolean coalesce;
+
+    @Value("${app.nexus.http.coalesce-max-wait-ms:10000}")
+    private int coalesceMaxWaitMs;
+
+    /** The response future of each request currently on the wire, by request key. */
+    private final Map<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+
+    private ObjectWriter keyWriter;
+    private Counter      leaderCounter;
+    private Counter      joinedCounter;
+    private Counter      timeoutCounter;
+
+    @PostConstruct
+    void init() {
+        keyWriter      = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        leaderCounter  = counter("leader");
+        joinedCounter  = counter("joined");
+        timeoutCounter = counter("timeout");
+        Gauge.builder("nexflow.nexus.http.coalesce.inflight", inFlight, Map::size)
+                .description("Coalescable NEXUS requests currently in flight")
+                .register(meterRegistry);
+    }
+
+    /** Identifies one coalescable request and how long followers wait for it. */
+    public record Flight(String key, long maxWaitMs) {}
+
+    /** The flight for a request, or null when it must go out on its own (disabled or not idempotent). */
+    public Flight flight(NexusConnector connector, String method, String url, HttpHeaders headers, Object body) {
+        NexusTransportConfig transport = connector != null ? connector.getTransportConfig() : null;
+        boolean enabled = transport != null && transport.getCoalesce() != null ? transport.getCoalesce() : coalesce;
+        if (!enabled || !IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ROOT))) return null;
+
+        long maxWait = transport != null && transport.getCoalesceMaxWaitMs() != null
+                ? Math.max(0, transport.getCoalesceMaxWaitMs())
+                : coalesceMaxWaitMs;
+        return new Flight(key(method, url, headers, body), maxWait);
+    }
+
+    /** Blocking exchange: the first caller runs call, identical concurrent callers wait for its result. */
+    public ResponseEntity<byte[]> exchange(Flight flight, Callable<ResponseEntity<byte[]>> call) throws Exception {
+        if (flight == null) return call.call();
+
+        CompletableFuture<ResponseEntity<byte[]>> mine   = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> shared = inFlight.putIfAbsent(flight.key(), mine);
+        if (shared == null) {
+            leaderCounter.increment();
+            try {
+                ResponseEntity<byte[]> response = call.call();
+                inFlight.remove(flight.key(), mine);
+                mine.complete(response);
+                return response;
+            } catch (Exception ex) {
+                inFlight.remove(flight.key(), mine);
+                mine.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        try {
+            ResponseEntity<byte[]> response = shared.get(flight.maxWaitMs(), TimeUnit.MILLISECONDS);
+            joinedCounter.increment();
+            return copy(response);
+        } catch (TimeoutException ex) {
+            timeoutCounter.increment();
+            log.debug("[NexusRequestCoalescer] waited {}ms for an identical request, sending our own", flight.maxWaitMs());
+            return call.call();
+        } catch (ExecutionException ex) {
+            joinedCounter.increment();
+            throw ex.getCause() instanceof Exception cause ? cause : ex;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        }
+    }
+
+    /** Async exchange with the same sharing; a follower that times out sends its own request. */
+    public CompletableFuture<ResponseEntity<byte[]>> exchangeAsync(Flight flight,
+                                                                   Supplier<CompletableFuture<ResponseEntity<byte[]>>> call) {
+        if (flight == null) return call.get();
+
+        CompletableFuture<ResponseEntity<byte[]>> mine   = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> shared = inFlight.putIfAbsent(flight.key(), mine);
+        if (shared == null) {
+            leaderCounter.increment();
+            CompletableFuture<ResponseEntity<byte[]>> sent;
+            try {
+                sent = call.get();
+            } catch (Exception ex) {
+                sent = CompletableFuture.failedFuture(ex);
+            }
+            sent.whenComplete((response, error) -> {
+                inFlight.remove(flight.key(), mine);
+                if (error != null) mine.completeExceptionally(unwrap(error));
+                else mine.complete(response);
+            });
+            return sent;
+        }
+
+        return shared.thenApply(response -> {
+                    joinedCounter.increment();
+                    return copy(response);
+                })
+                .orTimeout(flight.maxWaitMs(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = unwrap(error);
+                    if (!(cause instanceof TimeoutException)) {
+                        joinedCounter.increment();
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    timeoutCounter.increment();
+                    return call.get();
+                });
+    }
+
+    /** Response for a follower: its own header map; the body bytes are shared, nothing writes to them. */
+    private static ResponseEntity<byte[]> copy(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach(headers::addAll);
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private String key(String method, String url, HttpHeaders headers, Object body) {
+        Map<String, List<String>> sorted = new TreeMap<>();
+        headers.forEach((name, values) -> sorted.put(name.toLowerCase(Locale.ROOT), values));
+        StringBuilder raw = new StringBuilder(method.toUpperCase(Locale.ROOT)).append('\n')
+                .append(url).append('\n').append(sorted).append('\n');
+        try {
+            raw.append(keyWriter.writeValueAsString(body));
+        } catch (Exception e) {
+            raw.append(body);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("nexflow.nexus.http.coalesce")
+                .description("Coalescable NEXUS REST requests by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
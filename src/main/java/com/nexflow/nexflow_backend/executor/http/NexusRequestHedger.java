@@ -0,0 +1,282 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.model.domain.NexusTransportConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for idempotent NEXUS REST calls.
+ *
+ * When a GET / HEAD / OPTIONS has not answered within the target's hedgePercentile latency (tracked
+ * over its last app.nexus.http.hedge-window calls), a second copy is sent; whichever answers first
+ * wins and the other is cancelled. A 4xx / 5xx counts as an answer, a connection error waits for the
+ * other copy. Nothing is hedged until hedge-min-samples latencies are known.
+ *
+ * Hedges are paid from one global budget: every call adds hedge-budget-percent of a hedge, a hedge
+ * costs one, and at most hedge-budget-burst can be saved up — so hedging never adds more than that
+ * share of extra load, including while a slow target makes every call a candidate.
+ *
+ * Enabled per connector with transport.hedge (transport.hedgePercentile / hedgeMinDelayMs override
+ * the delay), falling back to app.nexus.http.hedge. Metrics: nexflow.nexus.http.hedge{result=sent|won|denied}
+ * and nexflow.nexus.http.hedge.budget.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusRequestHedger {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    /** One hedge, in budget units. */
+    private static final long HEDGE_COST = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.nexus.http.hedge:false}")
+    private boolean hedge;
+
+    @Value("${app.nexus.http.hedge-percentile:95}")
+    private int hedgePercentile;
+
+    @Value("${app.nexus.http.hedge-min-delay-ms:20}")
+    private int hedgeMinDelayMs;
+
+    @Value("${app.nexus.http.hedge-window:200}")
+    private int hedgeWindow;
+
+    @Value("${app.nexus.http.hedge-min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${app.nexus.http.hedge-budget-percent:10}")
+    private int hedgeBudgetPercent;
+
+    @Value("${app.nexus.http.hedge-budget-burst:20}")
+    private int hedgeBudgetBurst;
+
+    /** Recent latencies by connector id, or "host:<host:port>" for inline calls. */
+    private final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+    private final AtomicLong budget = new AtomicLong();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "nexus-hedge-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Counter sentCounter;
+    private Counter wonCounter;
+    private Counter deniedCounter;
+
+    @PostConstruct
+    void init() {
+        budget.set((long) hedgeBudgetBurst * HEDGE_COST);
+        sentCounter   = counter("sent");
+        wonCounter    = counter("won");
+        deniedCounter = counter("denied");
+        Gauge.builder("nexflow.nexus.http.hedge.budget", budget, b -> (double) b.get() / HEDGE_COST)
+                .description("Hedged NEXUS requests that may currently be sent")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /** How one call may be hedged: delayMs < 0 while the target's latency is still being learned. */
+    public record Hedge(Latencies latencies, long delayMs) {}
+
+    /** The hedge for a request, or null when it must not be hedged (disabled or not idempotent). */
+    public Hedge plan(NexusConnector connector, String method, String url) {
+        NexusTransportConfig transport = connector != null ? connector.getTransportConfig() : null;
+        boolean enabled = transport != null && transport.getHedge() != null ? transport.getHedge() : hedge;
+        if (!enabled || !IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ROOT))) return null;
+
+        String key = connector != null && connector.getId() != null ? connector.getId().toString() : "host:" + host(url);
+        Latencies recent = latencies.computeIfAbsent(key, k -> new Latencies(Math.max(1, hedgeWindow)));
+        int percentile = transport != null && transport.getHedgePercentile() != null
+                ? Math.max(1, Math.min(99, transport.getHedgePercentile()))
+                : hedgePercentile;
+        long minDelay = transport != null && transport.getHedgeMinDelayMs() != null
+                ? Math.max(0, transport.getHedgeMinDelayMs())
+                : hedgeMinDelayMs;
+        long delay = recent.percentile(percentile, hedgeMinSamples);
+        return new Hedge(recent, delay < 0 ? -1 : Math.max(minDelay, delay));
+    }
+
+    /**
+     * Sends the request via send and, if it is still outstanding after the hedge delay and the budget
+     * allows, a second copy. The returned future completes with the first answer.
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(Hedge plan,
+                                                              Supplier<CompletableFuture<ResponseEntity<byte[]>>> send) {
+        if (plan == null) return send.get();
+        deposit();
+
+        Race race  = new Race();
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<byte[]>> primary = start(send);
+        race.add(primary);
+        primary.whenComplete((response, error) -> {
+            // a primary cancelled because the hedge won still took at least this long
+            plan.latencies().record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            race.settle(primary, response, error);
+        });
+        if (plan.delayMs() < 0) return race.result;
+
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (race.result.isDone()) return;
+            if (!withdraw()) {
+                deniedCounter.increment();
+                return;
+            }
+            CompletableFuture<ResponseEntity<byte[]>> hedged = start(send);
+            if (!race.add(hedged)) {
+                hedged.cancel(true);
+                return;
+            }
+            sentCounter.increment();
+            hedged.whenComplete((response, error) -> {
+                if (race.settle(hedged, response, error)) wonCounter.increment();
+            });
+        }, plan.delayMs(), TimeUnit.MILLISECONDS);
+        race.result.whenComplete((response, error) -> timeout.cancel(false));
+        return race.result;
+    }
+
+    private static CompletableFuture<ResponseEntity<byte[]>> start(Supplier<CompletableFuture<ResponseEntity<byte[]>>> send) {
+        try {
+            return send.get();
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    // ── Race ──────────────────────────────────────────────────────────────────
+
+    /** The copies of one request; the first answer completes result and cancels the rest. */
+    private static final class Race {
+        final CompletableFuture<ResponseEntity<byte[]>>       result   = new CompletableFuture<>();
+        final List<CompletableFuture<ResponseEntity<byte[]>>> attempts = new CopyOnWriteArrayList<>();
+        // guarded by this
+        private int pending;
+
+        synchronized boolean add(CompletableFuture<ResponseEntity<byte[]>> attempt) {
+            if (result.isDone()) return false;
+            attempts.add(attempt);
+            pending++;
+            return true;
+        }
+
+        /** True when this attempt's outcome became the result. */
+        boolean settle(CompletableFuture<ResponseEntity<byte[]>> attempt, ResponseEntity<byte[]> response, Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            synchronized (this) {
+                pending--;
+                if (result.isDone() || attempt.isCancelled()) return false;
+                if (cause != null && !(cause instanceof HttpStatusCodeException) && pending > 0) return false;
+                if (cause == null) result.complete(response);
+                else result.completeExceptionally(cause);
+            }
+            for (CompletableFuture<ResponseEntity<byte[]>> other : attempts) {
+                if (other != attempt) other.cancel(true);
+            }
+            return true;
+        }
+    }
+
+    // ── Latency window ────────────────────────────────────────────────────────
+
+    /** The last few latencies of one target, with the percentile recomputed every few samples. */
+    public static final class Latencies {
+        private final long[] window;
+        private int          next;
+        private int          recorded;
+        private int          sinceSort;
+        private long[]       sorted = new long[0];
+
+        Latencies(int size) {
+            this.window = new long[size];
+        }
+
+        synchronized void record(long millis) {
+            window[next] = millis;
+            next = (next + 1) % window.length;
+            if (recorded < window.length) recorded++;
+            sinceSort++;
+        }
+
+        /** The p-th percentile in ms, or -1 with fewer than minSamples recorded. */
+        synchronized long percentile(int p, int minSamples) {
+            if (recorded < Math.max(1, minSamples)) return -1;
+            if (sorted.length != recorded || sinceSort >= Math.max(1, window.length / 10)) {
+                sorted = Arrays.copyOf(window, recorded);
+                Arrays.sort(sorted);
+                sinceSort = 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    // ── Budget ────────────────────────────────────────────────────────────────
+
+    private void deposit() {
+        long cap  = (long) hedgeBudgetBurst * HEDGE_COST;
+        long gain = HEDGE_COST * hedgeBudgetPercent / 100;
+        budget.accumulateAndGet(gain, (current, add) -> Math.min(cap, current + add));
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long current = budget.get();
+            if (current < HEDGE_COST) return false;
+            if (budget.compareAndSet(current, current - HEDGE_COST)) return true;
+        }
+    }
+
+    private static String host(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null) return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (IllegalArgumentException ignored) {
+            // not a parseable URL — fall through and group it on its own
+        }
+        return url;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("nexflow.nexus.http.hedge")
+                .description("Hedged NEXUS REST requests by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,446 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nexflow.nexflow_backend.model.domain.NexusCacheConfig;
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in response cache for NEXUS REST calls (connector "cache" config or node config.cache).
+ *
+ * Entries are keyed by method, URL, the auth header plus any configured keyHeaders, and the resolved
+ * request body. Freshness follows the response's Cache-Control (no-store, no-cache, max-age minus Age)
+ * or Expires, unless ttlOverrideSeconds replaces it; defaultTtlSeconds covers responses without either,
+ * and everything is capped at maxTtlSeconds. A stale entry that has an ETag or Last-Modified is kept for
+ * app.nexus.cache.stale-retention-seconds and revalidated with If-None-Match / If-Modified-Since — a 304
+ * refreshes it without re-downloading the body.
+ *
+ * Storage is an LRU heap store bounded by app.nexus.cache.max-heap-mb; with "redis": true entries are
+ * also written to Redis (shared across instances, surviving restarts) and heap misses read through it.
+ * Only 2xx responses are cached; errors never are.
+ *
+ * Every cached call reports { result: hit|miss|revalidated, hits, misses } in the node output, counted
+ * per node, and nexflow.nexus.http.cache{result} is exported for the whole app.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusResponseCache {
+
+    private static final Set<String> DEFAULT_METHODS   = Set.of("GET", "HEAD");
+    private static final String      REDIS_PREFIX      = "nexus:http:cache:";
+    private static final int         MAX_TRACKED_NODES = 4096;
+    private static final int         ENTRY_OVERHEAD    = 512;
+
+    public static final String HIT         = "hit";
+    public static final String MISS        = "miss";
+    public static final String REVALIDATED = "revalidated";
+
+    private final ObjectMapper                        objectMapper;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final MeterRegistry                       meterRegistry;
+
+    @Value("${app.nexus.cache.max-heap-mb:64}")
+    private int maxHeapMb;
+
+    @Value("${app.nexus.cache.max-entry-kb:1024}")
+    private int maxEntryKb;
+
+    @Value("${app.nexus.cache.default-ttl-seconds:0}")
+    private int defaultTtlSeconds;
+
+    @Value("${app.nexus.cache.max-ttl-seconds:86400}")
+    private int maxTtlSeconds;
+
+    @Value("${app.nexus.cache.stale-retention-seconds:3600}")
+    private int staleRetentionSeconds;
+
+    @Value("${app.nexus.cache.redis:false}")
+    private boolean redisDefault;
+
+    /** Access-ordered so the least recently used entry goes first. Guarded by itself, as is heapBytes. */
+    private final Map<String, Entry> heap = new LinkedHashMap<>(16, 0.75f, true);
+    private long heapBytes;
+
+    /** hits / misses per node id, reported in the node output. */
+    private final Map<String, long[]> nodeCounts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+            return size() > MAX_TRACKED_NODES;
+        }
+    };
+
+    private ObjectWriter keyWriter;
+    private Counter      hitCounter;
+    private Counter      missCounter;
+    private Counter      revalidatedCounter;
+
+    @PostConstruct
+    void init() {
+        keyWriter          = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        hitCounter         = counter(HIT);
+        missCounter        = counter(MISS);
+        revalidatedCounter = counter(REVALIDATED);
+        Gauge.builder("nexflow.nexus.http.cache.bytes", this, c -> { synchronized (c.heap) { return c.heapBytes; } })
+                .description("Approximate heap used by cached NEXUS responses")
+                .register(meterRegistry);
+    }
+
+    /** A cached response; headers keep every value so validators and Cache-Control survive a round trip. */
+    public record Entry(int status, Map<String, List<String>> headers, byte[] body,
+                        long storedAt, long freshUntil, long keepUntil) {
+
+        ResponseEntity<byte[]> toResponse() {
+            HttpHeaders httpHeaders = new HttpHeaders();
+            headers.forEach(httpHeaders::addAll);
+            return new ResponseEntity<>(body, httpHeaders, HttpStatusCode.valueOf(status));
+        }
+
+        String header(String name) {
+            for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+                if (e.getKey().equalsIgnoreCase(name) && !e.getValue().isEmpty()) return e.getValue().get(0);
+            }
+            return null;
+        }
+
+        long weight() {
+            return (long) (body != null ? body.length : 0) + ENTRY_OVERHEAD;
+        }
+    }
+
+    /** One call's cache state: its key, effective settings and whatever entry was found. */
+    public static final class Plan {
+        private final String   nodeId;
+        private final String   key;
+        private final Settings settings;
+        private final Entry    entry;
+
+        private Plan(String nodeId, String key, Settings settings, Entry entry) {
+            this.nodeId   = nodeId;
+            this.key      = key;
+            this.settings = settings;
+            this.entry    = entry;
+        }
+
+        public boolean fresh() {
+            return entry != null && System.currentTimeMillis() < entry.freshUntil();
+        }
+    }
+
+    /** The response to use and how the cache produced it; cacheOutput() goes into the node output. */
+    public record Outcome(ResponseEntity<byte[]> response, String result, long hits, long misses) {
+        public Map<String, Object> cacheOutput() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("result", result);
+            out.put("hits",   hits);
+            out.put("misses", misses);
+            return out;
+        }
+    }
+
+    private record Settings(Set<String> methods, List<String> keyHeaders, int defaultTtl, Integer ttlOverride,
+                            int maxTtl, boolean redis) {}
+
+    /**
+     * Cache state for a call, or null when caching is off for it (not enabled on the connector or node,
+     * or a method that is not cached). nodeCache is the node's config.cache: true / false or an object.
+     */
+    public Plan plan(String nodeId, NexusConnector connector, Object nodeCache,
+                     String method, String url, HttpHeaders headers, Object body) {
+        Settings settings = settings(connector, nodeCache);
+        if (settings == null || !settings.methods().contains(method.toUpperCase(Locale.ROOT))) return null;
+
+        String key   = key(connector, settings, method, url, headers, body);
+        Entry  entry = lookup(key, settings.redis());
+        return new Plan(nodeId, key, settings, entry);
+    }
+
+    /** Serves a fresh entry without a request. */
+    public Outcome hit(Plan plan) {
+        hitCounter.increment();
+        long[] counts = count(plan.nodeId, true);
+        return new Outcome(plan.entry.toResponse(), HIT, counts[0], counts[1]);
+    }
+
+    /** The request headers plus If-None-Match / If-Modified-Since when a stale entry can be revalidated. */
+    public HttpHeaders requestHeaders(Plan plan, HttpHeaders headers) {
+        if (plan == null || plan.entry == null) return headers;
+        String etag         = plan.entry.header(HttpHeaders.ETAG);
+        String lastModified = plan.entry.header(HttpHeaders.LAST_MODIFIED);
+        if (etag == null && lastModified == null) return headers;
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.putAll(headers);
+        if (etag != null && !conditional.containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            conditional.set(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null && !conditional.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+            conditional.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+        return conditional;
+    }
+
+    /**
+     * Handles the response to a cached call: a 304 refreshes and serves the stored entry, a cacheable
+     * 2xx is stored, anything else passes through.
+     */
+    public Outcome complete(Plan plan, ResponseEntity<byte[]> response) {
+        long now = System.currentTimeMillis();
+
+        if (response.getStatusCode().value() == 304 && plan.entry != null) {
+            Map<String, List<String>> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            merged.putAll(plan.entry.headers());
+            response.getHeaders().forEach((name, values) -> {
+                if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)) merged.put(name, values);
+            });
+            Entry refreshed = entry(plan.settings, plan.entry.status(), merged, plan.entry.body(), now);
+            if (refreshed != null) store(plan.key, refreshed, plan.settings.redis());
+            revalidatedCounter.increment();
+            long[] counts = count(plan.nodeId, true);
+            Entry served = refreshed != null ? refreshed : plan.entry;
+            return new Outcome(served.toResponse(), REVALIDATED, counts[0], counts[1]);
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            response.getHeaders().forEach(headers::put);
+            Entry entry = entry(plan.settings, response.getStatusCode().value(), headers, response.getBody(), now);
+            if (entry != null) store(plan.key, entry, plan.settings.redis());
+        }
+        missCounter.increment();
+        long[] counts = count(plan.nodeId, false);
+        return new Outcome(response, MISS, counts[0], counts[1]);
+    }
+
+    // ── Freshness ────────────────────────────────────────────────────────────
+
+    /** Builds the entry to store, or null when the response must not be stored. */
+    private Entry entry(Settings settings, int status, Map<String, List<String>> headers, byte[] body, long now) {
+        HttpHeaders h = new HttpHeaders();
+        headers.forEach(h::addAll);
+
+        String vary = h.getFirst(HttpHeaders.VARY);
+        if (vary != null && vary.contains("*")) return null;
+
+        Map<String, String> cc = cacheControl(h.getCacheControl());
+        if (cc.containsKey("no-store")) return null;
+
+        long freshSeconds;
+        if (settings.ttlOverride() != null) {
+            freshSeconds = settings.ttlOverride();
+        } else if (cc.containsKey("no-cache")) {
+            freshSeconds = 0;
+        } else if (cc.get("max-age") != null && cc.get("max-age").matches("\\d+")) {
+            long age = 0;
+            String ageHeader = h.getFirst("Age");
+            if (ageHeader != null && ageHeader.trim().matches("\\d+")) age = Long.parseLong(ageHeader.trim());
+            freshSeconds = Math.max(0, Long.parseLong(cc.get("max-age")) - age);
+        } else if (h.getExpires() > 0) {
+            long date = h.getDate() > 0 ? h.getDate() : now;
+            freshSeconds = Math.max(0, (h.getExpires() - date) / 1000);
+        } else {
+            freshSeconds = settings.defaultTtl();
+        }
+        freshSeconds = Math.min(freshSeconds, settings.maxTtl());
+
+        boolean validators = h.getETag() != null || h.getFirst(HttpHeaders.LAST_MODIFIED) != null;
+        long freshUntil = now + freshSeconds * 1000;
+        long keepUntil  = freshUntil + (validators ? staleRetentionSeconds * 1000L : 0);
+        if (keepUntil <= now) return null;
+        return new Entry(status, headers, body, now, freshUntil, keepUntil);
+    }
+
+    private static Map<String, String> cacheControl(String header) {
+        Map<String, String> directives = new LinkedHashMap<>();
+        if (header == null) return directives;
+        for (String part : header.split(",")) {
+            String p = part.trim();
+            if (p.isEmpty()) continue;
+            int eq = p.indexOf('=');
+            if (eq < 0) directives.put(p.toLowerCase(Locale.ROOT), null);
+            else directives.put(p.substring(0, eq).trim().toLowerCase(Locale.ROOT), p.substring(eq + 1).trim().replace("\"", ""));
+        }
+        return directives;
+    }
+
+    // ── Storage ──────────────────────────────────────────────────────────────
+
+    private Entry lookup(String key, boolean redis) {
+        long now = System.currentTimeMillis();
+        synchronized (heap) {
+            Entry entry = heap.get(key);
+            if (entry != null) {
+                if (entry.keepUntil() > now) return entry;
+                heap.remove(key);
+                heapBytes -= entry.weight();
+            }
+        }
+        if (!redis) return null;
+
+        StringRedisTemplate template = redisTemplateProvider.getIfAvailable();
+        if (template == null) return null;
+        try {
+            String json = template.opsForValue().get(REDIS_PREFIX + key);
+            if (json == null) return null;
+            Entry entry = objectMapper.readValue(json, Entry.class);
+            if (entry.keepUntil() <= now) return null;
+            putHeap(key, entry);
+            return entry;
+        } catch (Exception ex) {
+            log.warn("[NexusResponseCache] Redis read failed: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String key, Entry entry, boolean redis) {
+        putHeap(key, entry);
+        if (!redis) return;
+
+        StringRedisTemplate template = redisTemplateProvider.getIfAvailable();
+        if (template == null) return;
+        try {
+            long ttlMs = entry.keepUntil() - System.currentTimeMillis();
+            if (ttlMs > 0) {
+                template.opsForValue().set(REDIS_PREFIX + key, objectMapper.writeValueAsString(entry), Duration.ofMillis(ttlMs));
+            }
+        } catch (Exception ex) {
+            log.warn("[NexusResponseCache] Redis write failed: {}", ex.getMessage());
+        }
+    }
+
+    private void putHeap(String key, Entry entry) {
+        long weight   = entry.weight();
+        long maxBytes = maxHeapMb * 1024L * 1024L;
+        synchronized (heap) {
+            Entry previous = heap.remove(key);
+            if (previous != null) heapBytes -= previous.weight();
+            if (weight > maxEntryKb * 1024L || weight > maxBytes) return;
+
+            heap.put(key, entry);
+            heapBytes += weight;
+            var it = heap.entrySet().iterator();
+            while (heapBytes > maxBytes && it.hasNext()) {
+                heapBytes -= it.next().getValue().weight();
+                it.remove();
+            }
+        }
+    }
+
+    // ── Keys, settings, counts ───────────────────────────────────────────────
+
+    private String key(NexusConnector connector, Settings settings, String method, String url,
+                       HttpHeaders headers, Object body) {
+        Set<String> keyHeaders = new LinkedHashSet<>();
+        keyHeaders.add(HttpHeaders.AUTHORIZATION);
+        if (connector != null && "API_KEY".equalsIgnoreCase(connector.getAuthType()) && connector.getAuthConfig() != null) {
+            keyHeaders.add(connector.getAuthConfig().getOrDefault("headerName", "X-API-Key"));
+        }
+        keyHeaders.addAll(settings.keyHeaders());
+
+        StringBuilder raw = new StringBuilder(method.toUpperCase(Locale.ROOT)).append('\n').append(url).append('\n');
+        Map<String, List<String>> selected = new TreeMap<>();
+        for (String name : keyHeaders) {
+            List<String> values = headers.get(name);
+            if (values != null) selected.put(name.toLowerCase(Locale.ROOT), values);
+        }
+        raw.append(selected).append('\n');
+        try {
+            raw.append(keyWriter.writeValueAsString(body));
+        } catch (Exception e) {
+            raw.append(body);
+        }
+        return sha256(raw.toString());
+    }
+
+    private Settings settings(NexusConnector connector, Object nodeCache) {
+        NexusCacheConfig node = null;
+        if (nodeCache instanceof Boolean b) {
+            node = new NexusCacheConfig();
+            node.setEnabled(b);
+        } else if (nodeCache instanceof Map<?, ?> m) {
+            node = objectMapper.convertValue(m, NexusCacheConfig.class);
+        }
+        NexusCacheConfig conn = connector != null ? connector.getCacheConfig() : null;
+
+        Boolean enabled = pick(node != null ? node.getEnabled() : null, conn != null ? conn.getEnabled() : null, null);
+        if (node != null && node.getEnabled() == null && (conn == null || conn.getEnabled() == null)) {
+            enabled = true; // a node-level cache object turns caching on by itself
+        }
+        if (!Boolean.TRUE.equals(enabled)) return null;
+
+        List<String> methods = pick(node != null ? node.getMethods() : null, conn != null ? conn.getMethods() : null, null);
+        Set<String> methodSet = new LinkedHashSet<>();
+        if (methods != null) methods.forEach(m -> methodSet.add(m.toUpperCase(Locale.ROOT)));
+        else methodSet.addAll(DEFAULT_METHODS);
+
+        List<String> keyHeaders = new ArrayList<>();
+        if (conn != null && conn.getKeyHeaders() != null) keyHeaders.addAll(conn.getKeyHeaders());
+        if (node != null && node.getKeyHeaders() != null) keyHeaders.addAll(node.getKeyHeaders());
+
+        int maxTtl = pick(node != null ? node.getMaxTtlSeconds() : null, conn != null ? conn.getMaxTtlSeconds() : null, maxTtlSeconds);
+        return new Settings(
+                methodSet,
+                keyHeaders,
+                pick(node != null ? node.getDefaultTtlSeconds() : null, conn != null ? conn.getDefaultTtlSeconds() : null, defaultTtlSeconds),
+                pick(node != null ? node.getTtlOverrideSeconds() : null, conn != null ? conn.getTtlOverrideSeconds() : null, null),
+                Math.max(0, maxTtl),
+                pick(node != null ? node.getRedis() : null, conn != null ? conn.getRedis() : null, redisDefault));
+    }
+
+    private static <T> T pick(T node, T connector, T fallback) {
+        return node != null ? node : connector != null ? connector : fallback;
+    }
+
+    private long[] count(String nodeId, boolean hit) {
+        synchronized (nodeCounts) {
+            long[] counts = nodeCounts.computeIfAbsent(nodeId, k -> new long[2]);
+            counts[hit ? 0 : 1]++;
+            return counts.clone();
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("nexflow.nexus.http.cache")
+                .description("NEXUS response cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown while reading a NEXUS response body once it passes the connector's maxBodyKb
+ * (app.nexus.http.max-body-kb). The rest of the body is not read.
+ */
+public class NexusResponseTooLargeException extends RestClientException {
+
+    NexusResponseTooLargeException(String url, long limitBytes) {
+        super("Response from " + url + " exceeded the " + (limitBytes / 1024) + " KB body limit.");
+    }
+}
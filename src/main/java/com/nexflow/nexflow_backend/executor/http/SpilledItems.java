@@ -0,0 +1,125 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Items of a paginated NEXUS REST fetch streamed to a spill file (one JSON value per line) instead of
+ * the heap — what the node hands downstream as "items" when paginate.spillToFile is set.
+ *
+ * Works like the JDBC SpilledRowSet: get(i) reads one item at its recorded offset, iteration streams
+ * the file, and serializing the NCO yields a summary with the first PREVIEW_ITEMS items and a message
+ * saying so (never the file's path). Files are deleted by NexusPaginator after
+ * app.nexus.pagination.spill-ttl-minutes.
+ */
+public final class SpilledItems extends AbstractList<Object> implements RandomAccess {
+
+    static final int PREVIEW_ITEMS = 20;
+
+    private final Path         file;
+    /** Byte offset of each item, plus the end of the last item. */
+    private final long[]       offsets;
+    private final int          size;
+    private final ObjectMapper objectMapper;
+
+    SpilledItems(Path file, long[] offsets, int size, ObjectMapper objectMapper) {
+        this.file         = file;
+        this.offsets      = offsets;
+        this.size         = size;
+        this.objectMapper = objectMapper;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        int length = (int) (offsets[index + 1] - offsets[index]);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = offsets[index];
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) break;
+            }
+            return objectMapper.readValue(buffer.array(), 0, buffer.position(), Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled NEXUS pages are no longer readable: " + file, e);
+        }
+    }
+
+    /** Streams the file front to back; the reader closes itself once the last item has been read. */
+    @Override
+    public Iterator<Object> iterator() {
+        BufferedReader reader;
+        try {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            if (size == 0) reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled NEXUS pages are no longer readable: " + file, e);
+        }
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Object next() {
+                if (next >= size) throw new NoSuchElementException();
+                try {
+                    String line = reader.readLine();
+                    if (++next == size) reader.close();
+                    return objectMapper.readValue(line, Object.class);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Spilled NEXUS pages are no longer readable: " + file, e);
+                }
+            }
+        };
+    }
+
+    /** What the items look like wherever the NCO is serialized. */
+    @JsonValue
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("spilled",   true);
+        summary.put("message",   "Spilled to a file: only the first " + PREVIEW_ITEMS + " of " + size + " items are"
+                + " included here (SCRIPT input, history). LOOP, MAPPER and templates read every item; turn"
+                + " spillToFile off to pass all items to a SCRIPT node.");
+        summary.put("itemCount", size);
+        List<Object> preview = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.min(size, PREVIEW_ITEMS); i++) preview.add(get(i));
+        } catch (UncheckedIOException e) {
+            summary.put("expired", true);
+        }
+        summary.put("preview",   preview);
+        return summary;
+    }
+}
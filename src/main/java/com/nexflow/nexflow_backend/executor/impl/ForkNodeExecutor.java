@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +37,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -58,6 +60,9 @@ public class ForkNodeExecutor implements NodeExecutor {
     /** Dedicated pool for branch tasks so branches run in parallel (not shared with main flow thread). */
     @Qualifier("forkBranchExecutor")
     private final Executor forkBranchExecutor;
+    /** Where a branch continues after an async node (NEXUS REST) completes; never rejects. */
+    @Qualifier("forkResumeExecutor")
+    private final Executor forkResumeExecutor;
 
     @Override
     public NodeType supportedType() {
@@ -144,16 +149,13 @@ public class ForkNodeExecutor implements NodeExecutor {
 
         // Launch all branches on dedicated executor — each with its own scoped node list
         List<CompletableFuture<BranchResult>> futures = branchNames.stream()
-                .map(branchName -> CompletableFuture.supplyAsync(
-                        () -> runBranch(
-                                branchName,
-                                resolvedBranchNodes.get(branchName),
-                                nco,
-                                branchNexCopies.get(branchName),
-                                executionId,
-                                forkNodeId
-                        ),
-                        forkBranchExecutor
+                .map(branchName -> runBranch(
+                        branchName,
+                        resolvedBranchNodes.get(branchName),
+                        nco,
+                        branchNexCopies.get(branchName),
+                        executionId,
+                        forkNodeId
                 ))
                 .toList();
 
@@ -297,7 +299,11 @@ public class ForkNodeExecutor implements NodeExecutor {
                 .build();
     }
 
-    private BranchResult runBranch(
+    /**
+     * Starts one branch on forkBranchExecutor. The branch runs through FlowExecutionEngine.executeBranchAsync,
+     * so a branch waiting on an async node holds no thread; it continues on forkResumeExecutor.
+     */
+    private CompletableFuture<BranchResult> runBranch(
             String branchName,
             List<FlowNode> branchNodes,
             NexflowContextObject parentNco,
@@ -312,37 +318,41 @@ public class ForkNodeExecutor implements NodeExecutor {
             log.warn("[ForkNode] Branch '{}' has no configured nodes — completing with empty nex.", branchName);
             eventPublisher.branchCompleted(executionId, forkNodeId.toString(),
                     branchName, NodeStatus.SUCCESS, 0L, null);
-            return BranchResult.success(branchName, new LinkedHashMap<>(), 0L);
+            return CompletableFuture.completedFuture(BranchResult.success(branchName, new LinkedHashMap<>(), 0L));
         }
 
-        try {
-            // Build isolated branch NCO; share meta but override nex
-            NexflowContextObject branchNco = NexflowContextObject.forBranch(
-                    parentNco,
-                    branchNex != null ? branchNex : new LinkedHashMap<>(),
-                    branchName
-            );
-
-            eventPublisher.branchStarted(executionId, forkNodeId.toString(), branchName);
-
-            // Execute ONLY the pre-resolved branch nodes — not the full flow
-            engineProvider.getObject().executeBranch(branchNodes, branchNco, executionId, branchName);
-
-            long durationMs = System.currentTimeMillis() - startMs;
-            eventPublisher.branchCompleted(executionId, forkNodeId.toString(), branchName, NodeStatus.SUCCESS, durationMs, null);
-
-            log.info("[ForkNode] Branch '{}' SUCCESS in {}ms", branchName, durationMs);
-            return BranchResult.success(branchName, branchNco.getNex(), durationMs);
+        // Build isolated branch NCO; share meta but override nex
+        NexflowContextObject branchNco = NexflowContextObject.forBranch(
+                parentNco,
+                branchNex != null ? branchNex : new LinkedHashMap<>(),
+                branchName
+        );
 
-        } catch (Throwable t) {
-            // Catch everything so the CompletableFuture never completes exceptionally —
-            // otherwise allOf().join() would throw and onBranchFailure would never be applied.
-            long durationMs = System.currentTimeMillis() - startMs;
-            String msg = t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
-            log.error("[ForkNode] Branch '{}' FAILED after {}ms: {}", branchName, durationMs, msg, t);
-            eventPublisher.branchCompleted(executionId, forkNodeId.toString(), branchName, NodeStatus.FAILURE, durationMs, msg);
-            return BranchResult.failure(branchName, msg, durationMs);
-        }
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    eventPublisher.branchStarted(executionId, forkNodeId.toString(), branchName);
+
+                    // Execute ONLY the pre-resolved branch nodes — not the full flow
+                    return engineProvider.getObject().executeBranchAsync(
+                            branchNodes, branchNco, executionId, branchName, forkResumeExecutor);
+                }, forkBranchExecutor)
+                .thenCompose(Function.identity())
+                // Handle everything so the CompletableFuture never completes exceptionally —
+                // otherwise allOf().join() would throw and onBranchFailure would never be applied.
+                .handle((ignored, error) -> {
+                    long durationMs = System.currentTimeMillis() - startMs;
+                    if (error == null) {
+                        eventPublisher.branchCompleted(executionId, forkNodeId.toString(), branchName, NodeStatus.SUCCESS, durationMs, null);
+
+                        log.info("[ForkNode] Branch '{}' SUCCESS in {}ms", branchName, durationMs);
+                        return BranchResult.success(branchName, branchNco.getNex(), durationMs);
+                    }
+                    Throwable t = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    String msg = t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+                    log.error("[ForkNode] Branch '{}' FAILED after {}ms: {}", branchName, durationMs, msg, t);
+                    eventPublisher.branchCompleted(executionId, forkNodeId.toString(), branchName, NodeStatus.FAILURE, durationMs, msg);
+                    return BranchResult.failure(branchName, msg, durationMs);
+                });
     }
 
     private List<BranchResult> applyStrategy(
@@ -1,55 +1,116 @@
 package com.nexflow.nexflow_backend.executor.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexflow.nexflow_backend.NcoMeta;
 import com.nexflow.nexflow_backend.repository.NodeExecutor;
+import com.nexflow.nexflow_backend.executor.NexusProjection;
 import com.nexflow.nexflow_backend.executor.ReferenceResolver;
+import com.nexflow.nexflow_backend.executor.http.NexusCallRejectedException;
+import com.nexflow.nexflow_backend.executor.http.LazyJson;
+import com.nexflow.nexflow_backend.executor.http.NexusCircuitBreakers;
+import com.nexflow.nexflow_backend.executor.http.NexusHttpClients;
+import com.nexflow.nexflow_backend.executor.http.NexusOAuth2Tokens;
+import com.nexflow.nexflow_backend.executor.http.NexusPaginator;
+import com.nexflow.nexflow_backend.executor.http.NexusRequestCoalescer;
+import com.nexflow.nexflow_backend.executor.http.NexusRequestHedger;
+import com.nexflow.nexflow_backend.executor.http.NexusResponseCache;
+import com.nexflow.nexflow_backend.executor.jdbc.NexusJdbcPools;
+import com.nexflow.nexflow_backend.executor.jdbc.NexusJdbcResultCache;
+import com.nexflow.nexflow_backend.executor.jdbc.NexusJdbcResults;
+import com.nexflow.nexflow_backend.executor.jdbc.ParameterizedQuery;
 import com.nexflow.nexflow_backend.model.domain.FlowNode;
 import com.nexflow.nexflow_backend.model.domain.NodeType;
 import com.nexflow.nexflow_backend.model.domain.NexusConnector;
 import com.nexflow.nexflow_backend.model.nco.NexflowContextObject;
 import com.nexflow.nexflow_backend.model.nco.NodeContext;
 import com.nexflow.nexflow_backend.model.nco.NodeStatus;
-import com.nexflow.nexflow_backend.repository.NexusConnectorRepository;
+import com.nexflow.nexflow_backend.service.NexusConnectorCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Executes NEXUS nodes.
  *
- * Two modes, determined by the connector's connectorType field:
+ * Two modes, determined by the connector's connectorType field (connectors come from
+ * NexusConnectorCache, so a node normally doesn't touch the database to find its connector):
  *
  *   REST  — merges connector's baseUrl + auth + defaultHeaders with the node's
- *           path / method / headers / body config. Fires the HTTP call.
+ *           path / method / headers / body config. Fires the HTTP call, or answers it
+ *           from NexusResponseCache when the connector / node enables caching. Identical
+ *           concurrent GETs can share one upstream call (NexusRequestCoalescer), and a
+ *           per-connector circuit breaker / bulkhead fails calls fast while the target is down.
+ *           Slow idempotent calls can be hedged with a second copy (NexusRequestHedger).
+ *           OAUTH2_CLIENT_CREDENTIALS connectors get their token from NexusOAuth2Tokens; a 401
+ *           refreshes it and the call is retried once.
  *
- *   JDBC  — uses connector's jdbcUrl/jdbcDriver/dbUsername/dbPassword to open
- *           a JDBC connection, resolves {{}} refs in the query, executes it,
- *           and returns the result rows as a list of maps.
+ *   JDBC  — borrows a connection from the connector's pool (NexusJdbcPools, built from
+ *           jdbcUrl/jdbcDriver/dbUsername/dbPassword), resolves {{}} refs in the query,
+ *           executes it, and returns the result rows as a list of maps. With
+ *           "parameterized": true the refs become bind parameters of a PreparedStatement
+ *           instead of being pasted into the SQL text. SELECTs with "cache" are answered
+ *           from NexusJdbcResultCache without a connection while the result is fresh.
+ *
+ * Either mode takes a "keep" list of paths (NexusProjection): REST bodies are projected while they
+ * are parsed and SELECTs only read the named columns, so the node output — and everything copied
+ * from it — holds just what the flow uses.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class NexusExecutor implements NodeExecutor {
 
-    /** Short driver names from Nexus UI (e.g. "postgresql") → JDBC Driver class name for Class.forName(). */
-    private static final Map<String, String> JDBC_DRIVER_CLASSES = Map.of(
-        "postgresql", "org.postgresql.Driver",
-        "mysql",      "com.mysql.cj.jdbc.Driver",
-        "mariadb",    "org.mariadb.jdbc.Driver",
-        "oracle",     "oracle.jdbc.OracleDriver",
-        "sqlserver",  "com.microsoft.sqlserver.jdbc.SQLServerDriver"
-    );
+    private static final int MAX_PARSED_QUERIES = 512;
 
-    private final NexusConnectorRepository connectorRepository;
+    private final NexusConnectorCache      connectorCache;
     private final ReferenceResolver        resolver;
-    private final RestTemplate             restTemplate;
+    private final NexusHttpClients         httpClients;
+    private final NexusResponseCache       responseCache;
+    private final NexusRequestCoalescer    coalescer;
+    private final NexusRequestHedger       hedger;
+    private final NexusCircuitBreakers     circuitBreakers;
+    private final NexusOAuth2Tokens        oauth2Tokens;
+    private final NexusPaginator           paginator;
+    private final NexusJdbcPools           jdbcPools;
+    private final NexusJdbcResults         jdbcResults;
+    private final NexusJdbcResultCache     jdbcResultCache;
     private final ObjectMapper             objectMapper;
+    /** Where async REST responses are parsed and handed back to the engine. */
+    @Qualifier("nodeContinuationExecutor")
+    private final Executor                 nodeContinuationExecutor;
+
+    /** Whether REST nodes without captureHeaders put the response headers in their output. */
+    @Value("${app.nexus.http.capture-headers:false}")
+    private boolean captureHeaders;
+
+    /** Items per executeBatch round trip when a BATCH node sets no batchSize. */
+    @Value("${app.nexus.jdbc.batch-size:500}")
+    private int jdbcBatchSize;
+
+    /** Parameterized JDBC queries by raw query text, so each node's SQL is parsed once. */
+    private final Map<String, ParameterizedQuery> parsedQueries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ParameterizedQuery> eldest) {
+            return size() > MAX_PARSED_QUERIES;
+        }
+    };
 
     @Override
     public NodeType supportedType() {
@@ -73,7 +134,7 @@ public class NexusExecutor implements NodeExecutor {
             return executeInlineRest(nodeId, config, nco);
         }
 
-        NexusConnector connector = connectorRepository.findById(UUID.fromString(connectorId))
+        NexusConnector connector = connectorCache.find(UUID.fromString(connectorId))
                 .orElse(null);
 
         if (connector == null) {
@@ -85,61 +146,104 @@ public class NexusExecutor implements NodeExecutor {
                 : executeRest(nodeId, connector, config, nco);
     }
 
+    /**
+     * Non-blocking path used by the engine: REST calls go out on the async HTTP client and the flow
+     * thread is released until the response arrives; the response is turned into the node result on
+     * the continuation pool. JDBC connectors still run synchronously on the calling thread.
+     */
+    @Override
+    public CompletionStage<NodeContext> executeAsync(FlowNode node, NexflowContextObject nco) {
+        Map<String, Object> config      = node.getConfig();
+        String              nodeId      = node.getId().toString();
+        String              connectorId = config != null ? (String) config.get("connectorId") : null;
+
+        if (connectorId == null || connectorId.isBlank()) {
+            RestCall call;
+            try {
+                call = inlineCall(nodeId, config, nco);
+            } catch (IllegalArgumentException ex) {
+                return CompletableFuture.completedFuture(failureContext(nodeId, null, ex.getMessage()));
+            }
+            return sendAsync(call);
+        }
+
+        NexusConnector connector = connectorCache.find(UUID.fromString(connectorId))
+                .orElse(null);
+
+        if (connector == null) {
+            return CompletableFuture.completedFuture(failureContext(nodeId, null, "Connector not found: " + connectorId));
+        }
+
+        if ("JDBC".equalsIgnoreCase(connector.getConnectorType())) {
+            return CompletableFuture.completedFuture(executeJdbc(nodeId, connector, config, nco));
+        }
+        RestCall call;
+        try {
+            call = connectorCall(nodeId, connector, config, nco);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            return CompletableFuture.completedFuture(failureContext(nodeId, null, ex.getMessage()));
+        }
+        return sendAsync(call);
+    }
+
     /** Inline HTTP (no connector): config has url, method, headers, body. Same output shape as connector REST for compatibility. */
-    @SuppressWarnings("unchecked")
     private NodeContext executeInlineRest(String nodeId, Map<String, Object> config, NexflowContextObject nco) {
-        if (config == null) return failureContext(nodeId, null, "NEXUS inline HTTP: no config");
-        String url    = resolver.resolve((String) config.get("url"), nco);
-        String method = (String) config.getOrDefault("method", "GET");
-        if (url == null || url.isBlank()) {
-            return failureContext(nodeId, null, "NEXUS inline HTTP: url is required");
+        try {
+            return send(inlineCall(nodeId, config, nco));
+        } catch (IllegalArgumentException ex) {
+            return failureContext(nodeId, null, ex.getMessage());
         }
-        Map<String, Object> headers = resolver.resolveMap((Map<String, Object>) config.getOrDefault("headers", new HashMap<>()), nco);
-        Map<String, Object> body   = resolver.resolveMap((Map<String, Object>) config.getOrDefault("body", new HashMap<>()), nco);
+    }
 
-        try {
-            HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-            headers.forEach((k, v) -> httpHeaders.set(k, String.valueOf(v)));
+    // ── REST execution ────────────────────────────────────────────────────────
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, httpHeaders);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.valueOf(method.toUpperCase()), request, String.class);
+    private NodeContext executeRest(String nodeId, NexusConnector connector,
+                                    Map<String, Object> config, NexflowContextObject nco) {
+        try {
+            return send(connectorCall(nodeId, connector, config, nco));
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            return failureContext(nodeId, null, ex.getMessage());
+        }
+    }
 
-            Map<String, Object> successOutput = new LinkedHashMap<>();
-            successOutput.put("statusCode", response.getStatusCode().value());
-            successOutput.put("body",       parseBody(response.getBody()));
-            successOutput.put("headers",    response.getHeaders().toSingleValueMap());
+    /**
+     * A resolved REST request; connector is null for inline HTTP. cache and captureHeaders are the
+     * node's config.cache / config.captureHeaders as given, keep its projection (null = whole body),
+     * paginate its page walk (null = one request). owner is the flow owner, which scopes the circuit
+     * breaker of inline calls.
+     */
+    private record RestCall(String nodeId, NexusConnector connector, String url, String method,
+                            HttpHeaders headers, Map<String, Object> body, Object cache, Object captureHeaders,
+                            NexusProjection keep, NexusPaginator.Spec paginate, String owner) {
 
-            return NodeContext.builder()
-                    .nodeId(nodeId).nodeType(NodeType.NEXUS.name())
-                    .status(NodeStatus.SUCCESS)
-                    .input(Map.of("url", url, "method", method, "body", body))
-                    .successOutput(successOutput)
-                    .build();
+        Map<String, Object> input() {
+            return Map.of("url", url, "method", method, "body", body);
+        }
 
-        } catch (HttpStatusCodeException ex) {
-            Map<String, Object> failureOutput = new LinkedHashMap<>();
-            failureOutput.put("statusCode", ex.getStatusCode().value());
-            failureOutput.put("body",       parseBody(ex.getResponseBodyAsString()));
-            failureOutput.put("error",      ex.getMessage());
-            return NodeContext.builder()
-                    .nodeId(nodeId).nodeType(NodeType.NEXUS.name())
-                    .status(NodeStatus.FAILURE)
-                    .input(Map.of("url", url, "method", method, "body", body))
-                    .failureOutput(failureOutput)
-                    .errorMessage(ex.getMessage())
-                    .build();
-        } catch (Exception ex) {
-            log.error("NEXUS inline HTTP node {} failed: {}", nodeId, ex.getMessage());
-            return failureContext(nodeId, Map.of("url", url, "method", method), ex.getMessage());
+        String kind() {
+            return connector != null ? "REST" : "inline HTTP";
         }
     }
 
-    // ── REST execution ────────────────────────────────────────────────────────
+    @SuppressWarnings("unchecked")
+    private RestCall inlineCall(String nodeId, Map<String, Object> config, NexflowContextObject nco) {
+        if (config == null) throw new IllegalArgumentException("NEXUS inline HTTP: no config");
+        String url    = resolver.resolve((String) config.get("url"), nco);
+        String method = (String) config.getOrDefault("method", "GET");
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("NEXUS inline HTTP: url is required");
+        }
+        Map<String, Object> headers = resolver.resolveMap((Map<String, Object>) config.getOrDefault("headers", new HashMap<>()), nco);
+        Map<String, Object> body   = resolver.resolveMap((Map<String, Object>) config.getOrDefault("body", new HashMap<>()), nco);
+
+        return new RestCall(nodeId, null, url, method, httpHeaders(headers), body,
+                config.get("cache"), config.get("captureHeaders"), NexusProjection.of(config.get("keep")),
+                paginator.spec(config.get("paginate")), owner(nco));
+    }
 
     @SuppressWarnings("unchecked")
-    private NodeContext executeRest(String nodeId, NexusConnector connector,
-                                    Map<String, Object> config, NexflowContextObject nco) {
+    private RestCall connectorCall(String nodeId, NexusConnector connector,
+                                   Map<String, Object> config, NexflowContextObject nco) {
 
         // Resolve path and build full URL
         String path   = resolver.resolve((String) config.getOrDefault("path", ""), nco);
@@ -158,45 +262,246 @@ public class NexusExecutor implements NodeExecutor {
         Map<String, Object> body = resolver.resolveMap(
                 (Map<String, Object>) config.getOrDefault("body", new HashMap<>()), nco);
 
+        return new RestCall(nodeId, connector, url, method, httpHeaders(mergedHeaders), body,
+                config.get("cache"), config.get("captureHeaders"), NexusProjection.of(config.get("keep")),
+                paginator.spec(config.get("paginate")), owner(nco));
+    }
+
+    /** The flow owner's id, or the flow's when the run has no owner. */
+    private static String owner(NexflowContextObject nco) {
+        NcoMeta meta = nco.getMeta();
+        if (meta == null) return null;
+        return meta.getUserId() != null ? meta.getUserId().toString() : "flow:" + meta.getFlowId();
+    }
+
+    private static HttpHeaders httpHeaders(Map<String, Object> headers) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+        headers.forEach((k, v) -> httpHeaders.set(k, String.valueOf(v)));
+        return httpHeaders;
+    }
+
+    private NodeContext send(RestCall call) {
+        if (call.paginate() != null) return sendPaginated(call);
+        try {
+            NexusResponseCache.Plan cached = cachePlan(call);
+            if (cached != null && cached.fresh()) return successContext(call, responseCache.hit(cached));
+
+            HttpHeaders              headers = responseCache.requestHeaders(cached, call.headers());
+            NexusRequestHedger.Hedge hedge   = hedger.plan(call.connector(), call.method(), call.url());
+            // the breaker sits inside the coalescer: only requests that are really sent count
+            ResponseEntity<byte[]> response = coalescer.exchange(
+                    coalescer.flight(call.connector(), call.method(), call.url(), headers, call.body()),
+                    () -> guarded(call, call.url(), () -> hedge != null ? hedged(call, hedge, headers) : exchange(call, headers)));
+            return cached != null
+                    ? successContext(call, responseCache.complete(cached, response))
+                    : successContext(call, response, null);
+        } catch (Exception ex) {
+            return errorContext(call, ex);
+        }
+    }
+
+    private CompletionStage<NodeContext> sendAsync(RestCall call) {
+        // a page walk runs on the calling thread, like JDBC; its pages are still prefetched asynchronously
+        if (call.paginate() != null) return CompletableFuture.completedFuture(sendPaginated(call));
+        NexusResponseCache.Plan                   cached;
+        CompletableFuture<ResponseEntity<byte[]>> response;
         try {
-            HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-            mergedHeaders.forEach((k, v) -> httpHeaders.set(k, String.valueOf(v)));
+            cached = cachePlan(call);
+            if (cached != null && cached.fresh()) {
+                return CompletableFuture.completedFuture(successContext(call, responseCache.hit(cached)));
+            }
+            HttpHeaders headers = responseCache.requestHeaders(cached, call.headers());
+            byte[]      body    = objectMapper.writeValueAsBytes(call.body());
+            NexusRequestHedger.Hedge hedge = hedger.plan(call.connector(), call.method(), call.url());
+            response = coalescer.exchangeAsync(
+                    coalescer.flight(call.connector(), call.method(), call.url(), headers, call.body()),
+                    () -> guardedAsync(call, call.url(),
+                            () -> hedger.exchange(hedge, () -> exchangeAsync(call, call.url(), headers, body))));
+        } catch (Exception ex) {
+            return CompletableFuture.completedFuture(errorContext(call, ex));
+        }
+        // off the HTTP client's I/O thread before parsing the body
+        return response.handleAsync((ok, error) -> {
+            if (ok == null) return errorContext(call, unwrap(error));
+            return cached != null
+                    ? successContext(call, responseCache.complete(cached, ok))
+                    : successContext(call, ok, null);
+        }, nodeContinuationExecutor);
+    }
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, httpHeaders);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url, HttpMethod.valueOf(method.toUpperCase()), request, String.class);
+    /** One blocking exchange; an OAuth2 connector's 401 gets a fresh token and one retry. */
+    private ResponseEntity<byte[]> exchange(RestCall call, HttpHeaders headers) {
+        HttpMethod method = HttpMethod.valueOf(call.method().toUpperCase());
+        try {
+            return httpClients.exchange(call.connector(), method, call.url(), headers, call.body());
+        } catch (HttpClientErrorException.Unauthorized ex) {
+            if (!NexusOAuth2Tokens.handles(call.connector())) throw ex;
+            String authorization;
+            try {
+                authorization = oauth2Tokens.reauthorize(call.connector(), headers.getFirst(HttpHeaders.AUTHORIZATION)).join();
+            } catch (CompletionException failed) {
+                throw failed.getCause() instanceof RuntimeException cause ? cause : failed;
+            }
+            return httpClients.exchange(call.connector(), method, call.url(), reauthorized(headers, authorization), call.body());
+        }
+    }
 
-            Map<String, Object> successOutput = new LinkedHashMap<>();
-            successOutput.put("statusCode", response.getStatusCode().value());
-            successOutput.put("body",       parseBody(response.getBody()));
-            successOutput.put("headers",    response.getHeaders().toSingleValueMap());
+    /** A blocking exchange that may be hedged — both copies go out on the async client. */
+    private ResponseEntity<byte[]> hedged(RestCall call, NexusRequestHedger.Hedge hedge, HttpHeaders headers) throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(call.body());
+        try {
+            return hedger.exchange(hedge, () -> exchangeAsync(call, call.url(), headers, body)).join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof Exception cause ? cause : ex;
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> exchangeAsync(RestCall call, String url, HttpHeaders headers,
+                                                                    byte[] body) {
+        HttpMethod method = HttpMethod.valueOf(call.method().toUpperCase());
+        CompletableFuture<ResponseEntity<byte[]>> response =
+                httpClients.exchangeAsync(call.connector(), method, url, headers, body);
+        if (!NexusOAuth2Tokens.handles(call.connector())) return response;
+        CompletableFuture<ResponseEntity<byte[]>> retried = response.exceptionallyCompose(error -> {
+            if (!(unwrap(error) instanceof HttpClientErrorException.Unauthorized)) return CompletableFuture.failedFuture(unwrap(error));
+            return oauth2Tokens.reauthorize(call.connector(), headers.getFirst(HttpHeaders.AUTHORIZATION))
+                    .thenCompose(authorization -> httpClients.exchangeAsync(call.connector(), method, url,
+                            reauthorized(headers, authorization), body));
+        });
+        retried.whenComplete((ok, error) -> {
+            if (retried.isCancelled()) response.cancel(true); // a losing hedge
+        });
+        return retried;
+    }
 
+    /** One request through the circuit breaker and bulkhead, recording its outcome once. */
+    private ResponseEntity<byte[]> guarded(RestCall call, String url, Callable<ResponseEntity<byte[]>> request) throws Exception {
+        NexusCircuitBreakers.Permit permit = circuitBreakers.acquire(call.connector(), call.owner(), url);
+        try {
+            ResponseEntity<byte[]> response = request.call();
+            permit.release(null);
+            return response;
+        } catch (Exception ex) {
+            permit.release(ex);
+            throw ex;
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> guardedAsync(RestCall call, String url,
+                                                                 Supplier<CompletableFuture<ResponseEntity<byte[]>>> request) {
+        NexusCircuitBreakers.Permit permit = circuitBreakers.acquire(call.connector(), call.owner(), url);
+        CompletableFuture<ResponseEntity<byte[]>> sent;
+        try {
+            sent = request.get();
+        } catch (RuntimeException ex) {
+            permit.release(ex);
+            throw ex;
+        }
+        return sent.whenComplete((ok, error) -> permit.release(unwrap(error)));
+    }
+
+    private static HttpHeaders reauthorized(HttpHeaders headers, String authorization) {
+        HttpHeaders retry = new HttpHeaders();
+        retry.putAll(headers);
+        retry.set(HttpHeaders.AUTHORIZATION, authorization);
+        return retry;
+    }
+
+    /**
+     * Walks the pages of a paginate node (NexusPaginator). Every page passes the circuit breaker and
+     * gets the OAuth2 401 retry; the response cache and coalescing do not apply.
+     */
+    private NodeContext sendPaginated(RestCall call) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(call.body());
+            NexusPaginator.Result result = paginator.fetch(call.paginate(), call.url(),
+                    url -> guardedAsync(call, url, () -> exchangeAsync(call, url, call.headers(), body)),
+                    response -> parseBody(response.getBody(), response.getHeaders().getContentType(), call.keep()));
+
+            Map<String, Object> successOutput = new LinkedHashMap<>();
+            successOutput.put("statusCode", result.statusCode());
+            successOutput.put("items",      result.items());
+            successOutput.put("itemCount",  result.items().size());
+            successOutput.put("pages",      result.pages());
+            if (result.truncated()) successOutput.put("truncated", true);
+
+            Map<String, Object> input = new LinkedHashMap<>(call.input());
+            input.put("paginate", call.paginate().type().name().toLowerCase());
             return NodeContext.builder()
-                    .nodeId(nodeId).nodeType(NodeType.NEXUS.name())
+                    .nodeId(call.nodeId()).nodeType(NodeType.NEXUS.name())
                     .status(NodeStatus.SUCCESS)
-                    .input(Map.of("url", url, "method", method, "body", body))
+                    .input(input)
                     .successOutput(successOutput)
                     .build();
+        } catch (Exception ex) {
+            return errorContext(call, ex);
+        }
+    }
+
+    private NexusResponseCache.Plan cachePlan(RestCall call) {
+        return responseCache.plan(call.nodeId(), call.connector(), call.cache(),
+                call.method(), call.url(), call.headers(), call.body());
+    }
+
+    private NodeContext successContext(RestCall call, NexusResponseCache.Outcome outcome) {
+        return successContext(call, outcome.response(), outcome.cacheOutput());
+    }
 
-        } catch (HttpStatusCodeException ex) {
+    private NodeContext successContext(RestCall call, ResponseEntity<byte[]> response, Map<String, Object> cache) {
+        Map<String, Object> successOutput = new LinkedHashMap<>();
+        successOutput.put("statusCode", response.getStatusCode().value());
+        successOutput.put("body",       parseBody(response.getBody(), response.getHeaders().getContentType(), call.keep()));
+        Map<String, String> headers = capturedHeaders(call, response.getHeaders());
+        if (headers != null) successOutput.put("headers", headers);
+        if (cache != null) successOutput.put("cache", cache);
+
+        return NodeContext.builder()
+                .nodeId(call.nodeId()).nodeType(NodeType.NEXUS.name())
+                .status(NodeStatus.SUCCESS)
+                .input(call.input())
+                .successOutput(successOutput)
+                .build();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private NodeContext errorContext(RestCall call, Throwable error) {
+        if (error instanceof NexusCallRejectedException ex) {
+            // Nothing was sent: the target is failing or saturated, so the flow takes its FAILURE edge at once
+            Map<String, Object> failureOutput = new LinkedHashMap<>();
+            failureOutput.put("error",    ex.getMessage());
+            failureOutput.put("rejected", ex.getReason().name());
+            failureOutput.put("target",   ex.getTarget());
+
+            log.warn("NEXUS {} node {} rejected: {}", call.kind(), call.nodeId(), ex.getMessage());
+            return NodeContext.builder()
+                    .nodeId(call.nodeId()).nodeType(NodeType.NEXUS.name())
+                    .status(NodeStatus.FAILURE)
+                    .input(call.input())
+                    .failureOutput(failureOutput)
+                    .errorMessage(ex.getMessage())
+                    .build();
+        }
+        if (error instanceof HttpStatusCodeException ex) {
             Map<String, Object> failureOutput = new LinkedHashMap<>();
             failureOutput.put("statusCode", ex.getStatusCode().value());
-            failureOutput.put("body",       parseBody(ex.getResponseBodyAsString()));
+            failureOutput.put("body",       parseBody(ex.getResponseBodyAsByteArray(),
+                    ex.getResponseHeaders() != null ? ex.getResponseHeaders().getContentType() : null));
             failureOutput.put("error",      ex.getMessage());
 
             return NodeContext.builder()
-                    .nodeId(nodeId).nodeType(NodeType.NEXUS.name())
+                    .nodeId(call.nodeId()).nodeType(NodeType.NEXUS.name())
                     .status(NodeStatus.FAILURE)
-                    .input(Map.of("url", url, "method", method, "body", body))
+                    .input(call.input())
                     .failureOutput(failureOutput)
                     .errorMessage(ex.getMessage())
                     .build();
-
-        } catch (Exception ex) {
-            log.error("NEXUS REST node {} failed: {}", nodeId, ex.getMessage());
-            return failureContext(nodeId, Map.of("url", url, "method", method), ex.getMessage());
         }
+        log.error("NEXUS {} node {} failed: {}", call.kind(), call.nodeId(), error.getMessage());
+        return failureContext(call.nodeId(), Map.of("url", call.url(), "method", call.method()), error.getMessage());
     }
 
     // ── JDBC execution ────────────────────────────────────────────────────────
@@ -204,51 +509,64 @@ public class NexusExecutor implements NodeExecutor {
     private NodeContext executeJdbc(String nodeId, NexusConnector connector,
                                     Map<String, Object> config, NexflowContextObject nco) {
 
-        String rawQuery   = (String) config.getOrDefault("query", "");
-        String queryType  = (String) config.getOrDefault("queryType", "SELECT");
-        String query      = resolver.resolve(rawQuery, nco);
+        String  rawQuery      = (String) config.getOrDefault("query", "");
+        String  queryType     = (String) config.getOrDefault("queryType", "SELECT");
+        boolean parameterized = Boolean.TRUE.equals(config.get("parameterized"));
 
-        if (query.isBlank()) {
+        if (rawQuery.isBlank()) {
             return failureContext(nodeId, Map.of("query", rawQuery), "NEXUS JDBC node has no query configured");
         }
+        if ("BATCH".equalsIgnoreCase(queryType)) {
+            return executeJdbcBatch(nodeId, connector, config, nco, rawQuery);
+        }
 
-        // Load driver class (Nexus UI stores short name e.g. "postgresql" → map to org.postgresql.Driver)
-        String driverKey = connector.getJdbcDriver() != null ? connector.getJdbcDriver().trim() : null;
-        if (driverKey != null && !driverKey.isBlank()) {
-            String driverClass = JDBC_DRIVER_CLASSES.getOrDefault(driverKey.toLowerCase(Locale.ROOT), driverKey);
-            try {
-                Class.forName(driverClass);
-            } catch (ClassNotFoundException ex) {
-                return failureContext(nodeId, Map.of("query", query),
-                        "JDBC driver not found on classpath: " + driverClass
-                        + ". Add the driver dependency to pom.xml.");
+        // Parameterized: the SQL text stays fixed and the resolved refs travel as bind values
+        String       query;
+        List<Object> params;
+        if (parameterized) {
+            ParameterizedQuery parsed = parsedQuery(rawQuery);
+            query  = parsed.sql();
+            params = bindValues(parsed, nco);
+        } else {
+            query  = resolver.resolve(rawQuery, nco);
+            params = null;
+            if (query.isBlank()) {
+                return failureContext(nodeId, Map.of("query", rawQuery), "NEXUS JDBC node has no query configured");
             }
         }
 
-        try (Connection conn = DriverManager.getConnection(
-                connector.getJdbcUrl(),
-                connector.getDbUsername(),
-                connector.getDbPassword())) {
-
-            Map<String, Object> input = Map.of("query", query, "queryType", queryType);
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put("query",     query);
+        input.put("queryType", queryType);
+        if (params != null) input.put("parameters", params);
 
-            if ("SELECT".equalsIgnoreCase(queryType)) {
-                List<Map<String, Object>> rows = executeSelect(conn, query);
+        boolean                   select = "SELECT".equalsIgnoreCase(queryType);
+        NexusJdbcResults.Options  options;
+        NexusJdbcResultCache.Plan cached = null;
+        NexusJdbcPools.Pool       pool;
+        try {
+            options = jdbcResults.options(config);
+            if (select) {
+                cached = jdbcResultCache.plan(nodeId, connector, config.get("cache"), query, params, options);
+                // a cache hit never borrows a connection
+                if (cached != null && cached.hit()) return selectContext(nodeId, input, query, jdbcResultCache.hit(cached));
+            }
+            pool    = jdbcPools.forConnector(connector);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            return failureContext(nodeId, Map.of("query", query), ex.getMessage());
+        }
 
-                Map<String, Object> successOutput = new LinkedHashMap<>();
-                successOutput.put("rows",     rows);
-                successOutput.put("rowCount", rows.size());
-                successOutput.put("query",    query);
+        try (Connection conn = pool.connection()) {
 
-                return NodeContext.builder()
-                        .nodeId(nodeId).nodeType(NodeType.NEXUS.name())
-                        .status(NodeStatus.SUCCESS)
-                        .input(input).successOutput(successOutput)
-                        .build();
+            if (select) {
+                NexusJdbcResults.Result result = executeSelect(conn, query, params, options, pool.statementTimeoutSeconds());
+                return cached != null
+                        ? selectContext(nodeId, input, query, jdbcResultCache.complete(cached, result))
+                        : selectContext(nodeId, input, query, result, null);
 
             } else {
                 // INSERT / UPDATE / DELETE
-                int affected = executeUpdate(conn, query);
+                int affected = executeUpdate(conn, query, params, pool.statementTimeoutSeconds());
 
                 Map<String, Object> successOutput = new LinkedHashMap<>();
                 successOutput.put("rowsAffected", affected);
@@ -269,54 +587,220 @@ public class NexusExecutor implements NodeExecutor {
         }
     }
 
-    private List<Map<String, Object>> executeSelect(Connection conn, String query) throws SQLException {
-        List<Map<String, Object>> rows = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs   = stmt.executeQuery(query)) {
+    private NodeContext selectContext(String nodeId, Map<String, Object> input, String query,
+                                      NexusJdbcResultCache.Outcome outcome) {
+        return selectContext(nodeId, input, query, outcome.result(), outcome.cacheOutput());
+    }
 
-            ResultSetMetaData meta = rs.getMetaData();
-            int colCount = meta.getColumnCount();
+    private NodeContext selectContext(String nodeId, Map<String, Object> input, String query,
+                                      NexusJdbcResults.Result result, Map<String, Object> cache) {
+        List<Map<String, Object>> rows = result.rows();
 
-            while (rs.next()) {
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (int i = 1; i <= colCount; i++) {
-                    row.put(meta.getColumnLabel(i), rs.getObject(i));
+        Map<String, Object> successOutput = new LinkedHashMap<>();
+        successOutput.put("rows",     rows);
+        successOutput.put("rowCount", rows.size());
+        successOutput.put("query",    query);
+        if (result.truncated()) successOutput.put("truncated", true);
+        if (cache != null) successOutput.put("cache", cache);
+
+        return NodeContext.builder()
+                .nodeId(nodeId).nodeType(NodeType.NEXUS.name())
+                .status(NodeStatus.SUCCESS)
+                .input(input).successOutput(successOutput)
+                .build();
+    }
+
+    private NexusJdbcResults.Result executeSelect(Connection conn, String query, List<Object> params,
+                                                  NexusJdbcResults.Options options,
+                                                  int timeoutSeconds) throws SQLException {
+        return jdbcResults.select(conn, options, () -> {
+            if (params != null) {
+                try (PreparedStatement stmt = prepare(conn, query, params, 0)) {
+                    jdbcResults.configure(stmt, options, timeoutSeconds);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        return jdbcResults.read(rs, options);
+                    }
                 }
-                rows.add(row);
             }
-        }
-        return rows;
+            try (Statement stmt = conn.createStatement()) {
+                jdbcResults.configure(stmt, options, timeoutSeconds);
+                try (ResultSet rs = stmt.executeQuery(query)) {
+                    return jdbcResults.read(rs, options);
+                }
+            }
+        });
     }
 
-    private int executeUpdate(Connection conn, String query) throws SQLException {
-        try (Statement stmt = conn.createStatement()) {
+    private int executeUpdate(Connection conn, String query, List<Object> params,
+                              int timeoutSeconds) throws SQLException {
+        if (params != null) {
+            try (PreparedStatement stmt = prepare(conn, query, params, timeoutSeconds)) {
+                return stmt.executeUpdate();
+            }
+        }
+        try (Statement stmt = statement(conn, timeoutSeconds)) {
             return stmt.executeUpdate(query);
         }
     }
 
-    // ── Helpers ───────────────────────────────────────────────────────────────
-
-    private void applyAuth(NexusConnector connector, Map<String, Object> headers) {
-        if (connector.getAuthConfig() == null || "NONE".equalsIgnoreCase(connector.getAuthType())) return;
+    private static Statement statement(Connection conn, int timeoutSeconds) throws SQLException {
+        Statement stmt = conn.createStatement();
+        if (timeoutSeconds > 0) stmt.setQueryTimeout(timeoutSeconds);
+        return stmt;
+    }
 
-        switch (connector.getAuthType().toUpperCase()) {
-            case "BEARER" -> {
-                String token = connector.getAuthConfig().get("token");
-                if (token != null) headers.put("Authorization", "Bearer " + token);
+    /** The pooled connection's driver keeps a statement cache, so the same SQL reuses its server-side plan. */
+    private static PreparedStatement prepare(Connection conn, String sql, List<Object> params,
+                                             int timeoutSeconds) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        try {
+            if (timeoutSeconds > 0) stmt.setQueryTimeout(timeoutSeconds);
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
             }
-            case "API_KEY" -> {
-                String key      = connector.getAuthConfig().getOrDefault("headerName", "X-API-Key");
-                String keyValue = connector.getAuthConfig().get("key");
-                if (keyValue != null) headers.put(key, keyValue);
+            return stmt;
+        } catch (SQLException ex) {
+            stmt.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * BATCH: runs one parameterized statement per element of the "items" array through
+     * addBatch / executeBatch, batchSize items per round trip, all in one transaction.
+     * {{item}} / {{item.field}} refer to the current element; other refs resolve against the NCO.
+     */
+    private NodeContext executeJdbcBatch(String nodeId, NexusConnector connector, Map<String, Object> config,
+                                         NexflowContextObject nco, String rawQuery) {
+        ParameterizedQuery parsed = parsedQuery(rawQuery);
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put("query",     parsed.sql());
+        input.put("queryType", "BATCH");
+
+        Object items = config.get("items") instanceof String ref ? resolver.resolveToObject(ref, nco) : config.get("items");
+        if (!(items instanceof Iterable<?> iterable)) {
+            return failureContext(nodeId, input, "NEXUS JDBC batch needs \"items\" to reference an array, got "
+                    + (items == null ? "nothing" : items.getClass().getSimpleName()));
+        }
+        int batchSize = config.get("batchSize") instanceof Number n && n.intValue() > 0 ? n.intValue() : jdbcBatchSize;
+        input.put("batchSize", batchSize);
+
+        NexusJdbcResults.Options options;
+        NexusJdbcPools.Pool      pool;
+        try {
+            options = jdbcResults.options(config);
+            pool    = jdbcPools.forConnector(connector);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            return failureContext(nodeId, input, ex.getMessage());
+        }
+        int timeout = options.queryTimeoutSeconds() != null ? options.queryTimeoutSeconds() : pool.statementTimeoutSeconds();
+
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        int  itemCount    = 0;
+        long rowsAffected = 0;
+        try (Connection conn = pool.connection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(parsed.sql())) {
+                if (timeout > 0) stmt.setQueryTimeout(timeout);
+                int pending = 0;
+                for (Object item : iterable) {
+                    List<Object> values = bindValues(parsed,
+                            expr -> batchValue(expr, item, nco),
+                            template -> resolver.fill(template, expr -> batchValue(expr, item, nco)));
+                    for (int i = 0; i < values.size(); i++) stmt.setObject(i + 1, values.get(i));
+                    stmt.addBatch();
+                    itemCount++;
+                    if (++pending == batchSize) {
+                        rowsAffected += runChunk(stmt, chunks, pending);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) rowsAffected += runChunk(stmt, chunks, pending);
+                conn.commit();
+            } catch (SQLException | RuntimeException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
-            case "BASIC" -> {
-                String username = connector.getAuthConfig().getOrDefault("username", "");
-                String password = connector.getAuthConfig().getOrDefault("password", "");
-                String encoded  = Base64.getEncoder()
-                        .encodeToString((username + ":" + password).getBytes());
-                headers.put("Authorization", "Basic " + encoded);
+        } catch (SQLException | RuntimeException ex) {
+            log.error("NEXUS JDBC batch node {} failed after {} chunk(s): {}", nodeId, chunks.size(), ex.getMessage());
+            Map<String, Object> failureInput = new LinkedHashMap<>(input);
+            failureInput.put("failedChunk", chunks.size());
+            failureInput.put("completedChunks", chunks);
+            return failureContext(nodeId, failureInput,
+                    (ex instanceof SQLException ? "SQL error: " : "") + ex.getMessage() + " (batch rolled back)");
+        }
+
+        Map<String, Object> successOutput = new LinkedHashMap<>();
+        successOutput.put("rowsAffected", rowsAffected);
+        successOutput.put("itemCount",    itemCount);
+        successOutput.put("chunks",       chunks);
+        successOutput.put("query",        parsed.sql());
+        successOutput.put("queryType",    "BATCH");
+
+        return NodeContext.builder()
+                .nodeId(nodeId).nodeType(NodeType.NEXUS.name())
+                .status(NodeStatus.SUCCESS)
+                .input(input).successOutput(successOutput)
+                .build();
+    }
+
+    /** Sends the queued batch and records its counts; drivers that only report success count as unknown. */
+    private static long runChunk(PreparedStatement stmt, List<Map<String, Object>> chunks, int items) throws SQLException {
+        int[] counts = stmt.executeBatch();
+        long affected = 0;
+        int  unknown  = 0;
+        for (int count : counts) {
+            if (count >= 0) affected += count;
+            else if (count == Statement.SUCCESS_NO_INFO) unknown++;
+        }
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("chunk",        chunks.size());
+        chunk.put("items",        items);
+        chunk.put("rowsAffected", affected);
+        if (unknown > 0) chunk.put("unknownCounts", unknown);
+        chunks.add(chunk);
+        return affected;
+    }
+
+    private Object batchValue(String expression, Object item, NexflowContextObject nco) {
+        if (expression.equals("item")) return item;
+        if (expression.startsWith("item.")) return resolver.resolveIn(item, expression.substring(5));
+        return resolver.resolveValue(expression, nco);
+    }
+
+    private ParameterizedQuery parsedQuery(String rawQuery) {
+        synchronized (parsedQueries) {
+            return parsedQueries.computeIfAbsent(rawQuery, ParameterizedQuery::parse);
+        }
+    }
+
+    /** Resolves each parameter; maps and lists are bound as JSON text, everything else keeps its type. */
+    private List<Object> bindValues(ParameterizedQuery parsed, NexflowContextObject nco) {
+        return bindValues(parsed, expr -> resolver.resolveValue(expr, nco), template -> resolver.resolve(template, nco));
+    }
+
+    private List<Object> bindValues(ParameterizedQuery parsed, Function<String, Object> valueOf,
+                                    Function<String, String> fill) {
+        List<Object> values = new ArrayList<>(parsed.params().size());
+        for (ParameterizedQuery.Param param : parsed.params()) {
+            Object value = param.isTemplate() ? fill.apply(param.template()) : valueOf.apply(param.expression());
+            if (value instanceof Map || value instanceof Collection) {
+                try { value = objectMapper.writeValueAsString(value); }
+                catch (Exception e) { value = value.toString(); }
             }
+            values.add(value);
         }
+        return values;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void applyAuth(NexusConnector connector, Map<String, Object> headers) {
+        headers.putAll(connectorCache.authHeaders(connector));
+        if (NexusOAuth2Tokens.handles(connector)) headers.put(HttpHeaders.AUTHORIZATION, oauth2Tokens.authorization(connector));
     }
 
     private String buildUrl(String baseUrl, String path) {
@@ -326,11 +810,41 @@ public class NexusExecutor implements NodeExecutor {
         return base + p;
     }
 
-    @SuppressWarnings("unchecked")
-    private Object parseBody(String body) {
-        if (body == null || body.isBlank()) return null;
-        try { return objectMapper.readValue(body, Map.class); }
-        catch (Exception e) { return body; }
+    private Object parseBody(byte[] body, MediaType contentType) {
+        return parseBody(body, contentType, null);
+    }
+
+    /**
+     * JSON objects and arrays become lazy views over the body bytes (LazyJson) — or, with a keep
+     * projection, just the kept paths read straight off the parser; anything else the body decoded as
+     * text. Only the fields a later node reads are ever materialized.
+     */
+    private Object parseBody(byte[] body, MediaType contentType, NexusProjection keep) {
+        if (body == null || body.length == 0) return null;
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset()
+                : StandardCharsets.UTF_8;
+        byte[] json = charset.equals(StandardCharsets.UTF_8) ? body : new String(body, charset).getBytes(StandardCharsets.UTF_8);
+        Object parsed = keep != null ? keep.read(objectMapper, json) : LazyJson.parse(objectMapper.getFactory(), json);
+        if (parsed != null) return parsed;
+        String text = new String(body, charset);
+        return text.isBlank() ? null : text;
+    }
+
+    /**
+     * Response headers for the node output, only when asked for: config.captureHeaders true (all) or a
+     * list of names, defaulting to app.nexus.http.capture-headers.
+     */
+    private Map<String, String> capturedHeaders(RestCall call, HttpHeaders headers) {
+        Object capture = call.captureHeaders() != null ? call.captureHeaders() : captureHeaders;
+        if (Boolean.TRUE.equals(capture)) return headers.toSingleValueMap();
+        if (!(capture instanceof Collection<?> names)) return null;
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (Object name : names) {
+            String value = headers.getFirst(String.valueOf(name));
+            if (value != null) selected.put(String.valueOf(name), value);
+        }
+        return selected;
     }
 
     private NodeContext failureContext(String nodeId, Map<String, Object> input, String error) {
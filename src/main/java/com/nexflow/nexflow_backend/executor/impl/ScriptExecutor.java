@@ -1,6 +1,7 @@
 package com.nexflow.nexflow_backend.executor.impl;
 
 import com.nexflow.nexflow_backend.engine.ScriptRunner;
+import com.nexflow.nexflow_backend.executor.ReferenceResolver;
 import com.nexflow.nexflow_backend.repository.NodeExecutor;
 import com.nexflow.nexflow_backend.model.domain.FlowNode;
 import com.nexflow.nexflow_backend.model.domain.NodeType;
@@ -12,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,7 +25,7 @@ import java.util.Map;
  *   "code":     "const items = nex.fetchOrders?.body?.items ?? []; return items.filter(i => i.active)"
  * }
  *
- * The script subprocess receives a JSON file containing:
+ * The script receives (on stdin, or as proxies in the in-process engine):
  * {
  *   "nex":   { ...unified flat container: nex.userId, nex.fetchUser.body.items, nex.start.body... },
  *   "input": { ...legacy object: input.variables, input.nodes, input.trigger, input.nex (backward compat)... }
@@ -35,15 +37,24 @@ import java.util.Map;
  * JavaScript: use `return` to return a value.
  * Python: assign your final value to a variable named `result`.
  *
+ * Map mode ("mapOver": "nex.items", optional "batchSize", "parallelism"): the code runs once per
+ * array element with `item` / `index` in scope — see {@link #executeMap}.
+ *
  * SUCCESS edge: script ran without error. Return value in successOutput.result
  * FAILURE edge: script threw an error. Error message in failureOutput.error
+ *
+ * With cgroup isolation on (app.script.cgroup.enabled), both outputs also carry
+ * resources: { cpuMillis, memoryBytes } measured by the kernel.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ScriptExecutor implements NodeExecutor {
 
-    private final ScriptRunner scriptRunner;
+    private static final int DEFAULT_MAP_BATCH_SIZE = 100;
+
+    private final ScriptRunner      scriptRunner;
+    private final ReferenceResolver resolver;
 
     @Override
     public NodeType supportedType() {
@@ -77,8 +88,13 @@ public class ScriptExecutor implements NodeExecutor {
         scriptData.put("nex",   nco.getNex() != null ? nco.getNex() : new LinkedHashMap<>());
         scriptData.put("input", buildLegacyInput(nco));
 
+        // Map mode: run the code once per element of an array, in as few interpreter calls as possible.
+        if (config.get("mapOver") instanceof String mapOver && !mapOver.isBlank()) {
+            return executeMap(node, nco, language, code, mapOver, scriptData, timeoutSeconds);
+        }
+
         // Run it
-        ScriptRunner.ScriptResult result = scriptRunner.run(language, code, scriptData, timeoutSeconds);
+        ScriptRunner.ScriptResult result = scriptRunner.run(language, code, scriptData, timeoutSeconds, ScriptRunner.owner(nco));
 
         if (result.success()) {
             Object output = result.output();
@@ -106,6 +122,7 @@ public class ScriptExecutor implements NodeExecutor {
             Map<String, Object> successOutput = new LinkedHashMap<>();
             successOutput.put("result",   nullOutput ? null : output);
             successOutput.put("language", language);
+            if (result.resources() != null) successOutput.put("resources", result.resources().toMap());
 
             return NodeContext.builder()
                     .nodeId(nodeId)
@@ -115,10 +132,61 @@ public class ScriptExecutor implements NodeExecutor {
                     .successOutput(successOutput)
                     .build();
         } else {
-            return failure(nodeId, result.error());
+            return failure(nodeId, result.error(), result.resources());
         }
     }
 
+    /**
+     * mapOver mode: "mapOver" names an array ("nex.items", "{{nex.fetchOrders.body.items}}"), and the
+     * code is called once per element with `item` and `index` in scope. Chunks of "batchSize" items
+     * (default 100) each take one interpreter call; "parallelism" (default 1) chunks run at once.
+     *
+     * successOutput: { result: [...one entry per item...], errors: [{ index, error }], itemCount, errorCount, language }
+     * Errors on single items are reported in errors[]; a timeout or crash of a chunk fails the node.
+     */
+    private NodeContext executeMap(FlowNode node, NexflowContextObject nco, String language, String code,
+                                   String mapOver, Map<String, Object> scriptData, int timeoutSeconds) {
+        String nodeId = node.getId().toString();
+        Map<String, Object> config = node.getConfig();
+
+        Object resolved = resolver.resolveToObject(mapOver, nco);
+        if (!(resolved instanceof List<?> items)) {
+            return failure(nodeId, "mapOver '" + mapOver + "' did not resolve to an array"
+                    + (resolved == null ? " (value is missing)." : " (got " + resolved.getClass().getSimpleName() + ")."));
+        }
+        int batchSize   = config.get("batchSize")   instanceof Number n ? n.intValue() : DEFAULT_MAP_BATCH_SIZE;
+        int parallelism = config.get("parallelism") instanceof Number n ? n.intValue() : 1;
+
+        ScriptRunner.ScriptResult result =
+                scriptRunner.runMap(language, code, scriptData, items, batchSize, parallelism, timeoutSeconds,
+                        ScriptRunner.owner(nco));
+        if (!result.success()) {
+            return failure(nodeId, result.error(), result.resources());
+        }
+
+        Map<?, ?> mapped = (Map<?, ?>) result.output();
+        List<?> errors = mapped.get("errors") instanceof List<?> l ? l : List.of();
+        if (!errors.isEmpty()) {
+            log.warn("[ScriptExecutor] Node '{}' mapOver: {} of {} items failed", node.getLabel(), errors.size(), items.size());
+        }
+
+        Map<String, Object> successOutput = new LinkedHashMap<>();
+        successOutput.put("result",     mapped.get("results"));
+        successOutput.put("errors",     errors);
+        successOutput.put("itemCount",  items.size());
+        successOutput.put("errorCount", errors.size());
+        successOutput.put("language",   language);
+        if (result.resources() != null) successOutput.put("resources", result.resources().toMap());
+
+        return NodeContext.builder()
+                .nodeId(nodeId)
+                .nodeType(NodeType.SCRIPT.name())
+                .status(NodeStatus.SUCCESS)
+                .input(Map.of("language", language, "codeLength", code.length(), "mapOver", mapOver, "itemCount", items.size()))
+                .successOutput(successOutput)
+                .build();
+    }
+
     /**
      * Builds the legacy `input` object for backward-compatible scripts that use input.variables.x, input.nodes.x, etc.
      * New scripts should use the top-level `nex` object instead.
@@ -158,12 +226,19 @@ public class ScriptExecutor implements NodeExecutor {
     }
 
     private NodeContext failure(String nodeId, String error) {
+        return failure(nodeId, error, null);
+    }
+
+    private NodeContext failure(String nodeId, String error, ScriptRunner.ResourceUsage resources) {
+        Map<String, Object> failureOutput = new LinkedHashMap<>();
+        failureOutput.put("error", error);
+        if (resources != null) failureOutput.put("resources", resources.toMap());
         return NodeContext.builder()
                 .nodeId(nodeId)
                 .nodeType(NodeType.SCRIPT.name())
                 .status(NodeStatus.FAILURE)
                 .input(Map.of())
-                .failureOutput(Map.of("error", error))
+                .failureOutput(failureOutput)
                 .errorMessage(error)
                 .build();
     }
@@ -0,0 +1,330 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.model.domain.NexusJdbcPoolConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HikariCP connection pools for NEXUS JDBC connectors, one per connector id.
+ *
+ * Without a pool every JDBC node paid a full TCP + TLS + auth handshake to the customer database
+ * before running a query that often takes a fraction of that. Pools are created on first use with
+ * app.nexus.jdbc.* defaults overlaid by the connector's {@link NexusJdbcPoolConfig}, and replaced
+ * whenever the connector's URL, driver, credentials or pool settings change — either through
+ * {@link #invalidate(UUID)} (NexusController update / delete) or because the settings seen at
+ * lookup no longer match, which also covers edits made through another instance.
+ *
+ * A replaced pool is retired rather than closed outright: it stops handing out connections and is
+ * closed once queries still running on it have finished. Pools nobody has used for
+ * app.nexus.jdbc.pool-idle-minutes are closed entirely, so a connector that ran once does not hold
+ * connections or a housekeeping task forever. All pools share one housekeeping thread.
+ *
+ * Metrics: HikariCP's own hikaricp.connections.* meters (tag pool=nexus-jdbc-&lt;connectorId&gt;-&lt;n&gt;,
+ * n counting replacements) plus nexflow.nexus.jdbc.pools for the number of open pools.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusJdbcPools {
+
+    /** Short driver names from Nexus UI (e.g. "postgresql") → JDBC Driver class name. */
+    private static final Map<String, String> JDBC_DRIVER_CLASSES = Map.of(
+        "postgresql", "org.postgresql.Driver",
+        "mysql",      "com.mysql.cj.jdbc.Driver",
+        "mariadb",    "org.mariadb.jdbc.Driver",
+        "oracle",     "oracle.jdbc.OracleDriver",
+        "sqlserver",  "com.microsoft.sqlserver.jdbc.SQLServerDriver"
+    );
+
+    private static final int MAX_POOL_SIZE_LIMIT   = 100;
+    private static final int MIN_IDLE_TIMEOUT_S    = 10;     // HikariCP floor
+    private static final int MIN_MAX_LIFETIME_S    = 30;     // HikariCP floor
+    private static final long RETIRE_CHECK_MS      = 2_000;
+    private static final long RETIRE_MAX_WAIT_MS   = 600_000;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.nexus.jdbc.max-pool-size:5}")
+    private int maxPoolSize;
+
+    @Value("${app.nexus.jdbc.min-idle:0}")
+    private int minIdle;
+
+    @Value("${app.nexus.jdbc.idle-timeout-seconds:300}")
+    private int idleTimeoutSeconds;
+
+    @Value("${app.nexus.jdbc.max-lifetime-seconds:1800}")
+    private int maxLifetimeSeconds;
+
+    @Value("${app.nexus.jdbc.connection-timeout-ms:10000}")
+    private int connectionTimeoutMs;
+
+    @Value("${app.nexus.jdbc.statement-timeout-seconds:60}")
+    private int statementTimeoutSeconds;
+
+    /** Prepared statements each pooled connection's driver keeps, keyed by SQL text (0 = driver default). */
+    @Value("${app.nexus.jdbc.statement-cache-size:256}")
+    private int statementCacheSize;
+
+    @Value("${app.nexus.jdbc.pool-idle-minutes:30}")
+    private int poolIdleMinutes;
+
+    private final Map<UUID, Pool> pools      = new ConcurrentHashMap<>();
+    private final AtomicLong      generation = new AtomicLong();
+
+    /** Housekeeping for every pool plus retire / idle checks; a pool never owns a thread of its own. */
+    private final ScheduledThreadPoolExecutor housekeeper = housekeeper();
+
+    @PostConstruct
+    void init() {
+        long period = Math.max(1, Math.min(poolIdleMinutes, 5));
+        housekeeper.scheduleWithFixedDelay(this::closeIdlePools, period, period, TimeUnit.MINUTES);
+        Gauge.builder("nexflow.nexus.jdbc.pools", pools, Map::size)
+                .description("Open NEXUS JDBC connection pools")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pools.values().forEach(pool -> pool.dataSource.close());
+        pools.clear();
+        housekeeper.shutdownNow();
+    }
+
+    /**
+     * The pool for a connector, created or replaced as needed.
+     * Throws IllegalStateException when the configured driver is not on the classpath.
+     */
+    public Pool forConnector(NexusConnector connector) {
+        Settings settings = settings(connector);
+        Pool pool = pools.get(connector.getId());
+        if (pool != null && pool.settings.equals(settings)) {
+            pool.touch();
+            return pool;
+        }
+        synchronized (pools) {
+            pool = pools.get(connector.getId());
+            if (pool != null && pool.settings.equals(settings)) {
+                pool.touch();
+                return pool;
+            }
+            Pool created = create(connector.getId(), settings);
+            pools.put(connector.getId(), created);
+            if (pool != null) {
+                log.info("[NexusJdbcPools] connector {} settings changed — replacing pool {}", connector.getId(), pool.name());
+                retire(pool);
+            }
+            return created;
+        }
+    }
+
+    /** Drops the pool of a connector that was edited or deleted; running queries are allowed to finish. */
+    public void invalidate(UUID connectorId) {
+        if (connectorId == null) return;
+        Pool pool;
+        synchronized (pools) {
+            pool = pools.remove(connectorId);
+        }
+        if (pool != null) {
+            log.info("[NexusJdbcPools] connector {} changed — retiring pool {}", connectorId, pool.name());
+            retire(pool);
+        }
+    }
+
+    // ── Pool lifecycle ───────────────────────────────────────────────────────
+
+    private Pool create(UUID connectorId, Settings s) {
+        if (s.driverClass() != null) {
+            try {
+                Class.forName(s.driverClass());
+            } catch (ClassNotFoundException ex) {
+                throw new IllegalStateException("JDBC driver not found on classpath: " + s.driverClass()
+                        + ". Add the driver dependency to pom.xml.");
+            }
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("nexus-jdbc-" + connectorId + "-" + generation.incrementAndGet());
+        config.setJdbcUrl(s.url());
+        if (s.driverClass() != null) config.setDriverClassName(s.driverClass());
+        if (s.username() != null) config.setUsername(s.username());
+        if (s.password() != null) config.setPassword(s.password());
+        config.setMaximumPoolSize(s.maxPoolSize());
+        config.setMinimumIdle(s.minIdle());
+        config.setIdleTimeout(TimeUnit.SECONDS.toMillis(s.idleTimeoutSeconds()));
+        config.setMaxLifetime(TimeUnit.SECONDS.toMillis(s.maxLifetimeSeconds()));
+        config.setConnectionTimeout(s.connectionTimeoutMs());
+        // Don't connect while building the pool: an unreachable database should fail the node on
+        // getConnection() with the driver's SQLException, exactly as DriverManager did.
+        config.setInitializationFailTimeout(-1);
+        config.setScheduledExecutor(housekeeper);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        statementCacheProperties(s.url()).forEach(config::addDataSourceProperty);
+        // MySQL ignores the statement fetch size (and buffers whole results) unless cursor fetch is on
+        if (s.url() != null && s.url().toLowerCase(Locale.ROOT).startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("useCursorFetch", "true");
+        }
+
+        Pool pool = new Pool(s, new HikariDataSource(config));
+        log.info("[NexusJdbcPools] created pool {} (maxPoolSize={}, minIdle={})",
+                pool.name(), s.maxPoolSize(), s.minIdle());
+        return pool;
+    }
+
+    /** Closes a pool once nothing is borrowed from it (or after RETIRE_MAX_WAIT_MS at the latest). */
+    private void retire(Pool pool) {
+        long deadline = System.currentTimeMillis() + RETIRE_MAX_WAIT_MS;
+        Runnable check = new Runnable() {
+            @Override
+            public void run() {
+                if (pool.active() == 0 || System.currentTimeMillis() >= deadline) {
+                    pool.dataSource.close();
+                    log.info("[NexusJdbcPools] closed retired pool {}", pool.name());
+                } else {
+                    housekeeper.schedule(this, RETIRE_CHECK_MS, TimeUnit.MILLISECONDS);
+                }
+            }
+        };
+        pool.dataSource.getHikariPoolMXBean().softEvictConnections();
+        // First look after a short delay so a node that has just been handed this pool can still borrow from it
+        housekeeper.schedule(check, RETIRE_CHECK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Driver-side prepared statement caching, so a parameterized NEXUS query prepared again on the same
+     * pooled connection reuses the statement (and its server-side plan) instead of re-parsing it.
+     * PostgreSQL caches by default and switches to a named server statement after prepareThreshold uses.
+     */
+    private Map<String, String> statementCacheProperties(String url) {
+        if (statementCacheSize <= 0 || url == null) return Map.of();
+        String size  = String.valueOf(statementCacheSize);
+        String lower = url.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("jdbc:postgresql:")) {
+            return Map.of("preparedStatementCacheQueries", size);
+        }
+        if (lower.startsWith("jdbc:mysql:")) {
+            return Map.of("cachePrepStmts", "true", "prepStmtCacheSize", size,
+                          "prepStmtCacheSqlLimit", "8192", "useServerPrepStmts", "true");
+        }
+        if (lower.startsWith("jdbc:mariadb:")) {
+            return Map.of("cachePrepStmts", "true", "prepStmtCacheSize", size, "useServerPrepStmts", "true");
+        }
+        return Map.of();
+    }
+
+    private void closeIdlePools() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(poolIdleMinutes);
+        synchronized (pools) {
+            pools.entrySet().removeIf(e -> {
+                Pool pool = e.getValue();
+                if (pool.lastUsed >= cutoff || pool.active() > 0) return false;
+                pool.dataSource.close();
+                log.info("[NexusJdbcPools] closed pool {} after {} idle minutes", pool.name(), poolIdleMinutes);
+                return true;
+            });
+        }
+    }
+
+    // ── Settings ─────────────────────────────────────────────────────────────
+
+    private Settings settings(NexusConnector connector) {
+        NexusJdbcPoolConfig c = connector.getPoolConfig() != null ? connector.getPoolConfig() : new NexusJdbcPoolConfig();
+
+        String driverKey = connector.getJdbcDriver() != null ? connector.getJdbcDriver().trim() : "";
+        String driverClass = driverKey.isEmpty() ? null
+                : JDBC_DRIVER_CLASSES.getOrDefault(driverKey.toLowerCase(Locale.ROOT), driverKey);
+
+        int max = clamp(c.getMaxPoolSize() != null ? c.getMaxPoolSize() : maxPoolSize, 1, MAX_POOL_SIZE_LIMIT);
+        return new Settings(
+                connector.getJdbcUrl(),
+                driverClass,
+                connector.getDbUsername(),
+                connector.getDbPassword(),
+                max,
+                clamp(c.getMinIdle() != null ? c.getMinIdle() : minIdle, 0, max),
+                Math.max(MIN_IDLE_TIMEOUT_S, c.getIdleTimeoutSeconds() != null ? c.getIdleTimeoutSeconds() : idleTimeoutSeconds),
+                Math.max(MIN_MAX_LIFETIME_S, c.getMaxLifetimeSeconds() != null ? c.getMaxLifetimeSeconds() : maxLifetimeSeconds),
+                Math.max(250, c.getConnectionTimeoutMs() != null ? c.getConnectionTimeoutMs() : connectionTimeoutMs),
+                Math.max(0, c.getStatementTimeoutSeconds() != null ? c.getStatementTimeoutSeconds() : statementTimeoutSeconds));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static ScheduledThreadPoolExecutor housekeeper() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "nexus-jdbc-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /** Effective connection + pool settings; a pool is reused only while these stay equal. */
+    private record Settings(String url, String driverClass, String username, String password,
+                            int maxPoolSize, int minIdle, int idleTimeoutSeconds, int maxLifetimeSeconds,
+                            int connectionTimeoutMs, int statementTimeoutSeconds) {
+        @Override
+        public String toString() {
+            return "Settings[url=" + url + ", username=" + username + ", maxPoolSize=" + maxPoolSize + "]";
+        }
+    }
+
+    /** One connector's pool. */
+    public static final class Pool {
+
+        private final Settings         settings;
+        private final HikariDataSource dataSource;
+        private volatile long          lastUsed = System.currentTimeMillis();
+
+        private Pool(Settings settings, HikariDataSource dataSource) {
+            this.settings   = settings;
+            this.dataSource = dataSource;
+        }
+
+        /** Borrows a connection; closing it returns it to the pool. */
+        public Connection connection() throws SQLException {
+            touch();
+            return dataSource.getConnection();
+        }
+
+        /** Query timeout to apply to statements on this pool's connections (0 = none). */
+        public int statementTimeoutSeconds() {
+            return settings.statementTimeoutSeconds();
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        private void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+
+        private int active() {
+            return dataSource.getHikariPoolMXBean() != null ? dataSource.getHikariPoolMXBean().getActiveConnections() : 0;
+        }
+    }
+}
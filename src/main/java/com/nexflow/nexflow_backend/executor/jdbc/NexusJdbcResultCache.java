@@ -0,0 +1,381 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Ref;
+import java.sql.SQLXML;
+import java.sql.Struct;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in result cache for NEXUS JDBC SELECT nodes (node config.cache), meant for lookup queries —
+ * configuration and mapping tables — that run on every execution but rarely change.
+ *
+ *   "cache": true                                  — app.nexus.jdbc.cache.default-ttl-seconds
+ *   "cache": { "ttlSeconds": 600, "maxEntryKb": 256 }
+ *
+ * Entries are keyed by connector, the SQL with whitespace outside quotes collapsed, the bound
+ * parameters, and the read options that change the result (maxRows, keep). A hit is served before the
+ * connector's pool is touched, so it costs neither a connection nor a round trip. Results are kept on
+ * the heap only (JDBC values do not survive a JSON round trip), in an LRU bounded by
+ * app.nexus.jdbc.cache.max-heap-mb; results larger than maxEntryKb, spilled results and results holding
+ * LOB / array / struct values are never cached.
+ *
+ * Nothing is invalidated by writes — the TTL is the staleness bound. Updating or deleting a connector,
+ * or DELETE /api/nexus/connectors/{id}/cache, drops its entries; other instances hear about it through
+ * the Redis generation key {@link #GENERATION_KEY} and clear their caches. Every cached node reports
+ * { result: hit|miss, hits, misses } in its output; nexflow.nexus.jdbc.cache{result} is exported.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusJdbcResultCache {
+
+    static final String GENERATION_KEY = "nexus:jdbc:cache:generation";
+
+    private static final int MAX_TRACKED_NODES = 4096;
+    private static final int ENTRY_OVERHEAD    = 256;
+
+    public static final String HIT  = "hit";
+    public static final String MISS = "miss";
+
+    private final ObjectMapper                        objectMapper;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final MeterRegistry                       meterRegistry;
+
+    @Value("${app.nexus.jdbc.cache.max-heap-mb:32}")
+    private int maxHeapMb;
+
+    @Value("${app.nexus.jdbc.cache.max-entry-kb:1024}")
+    private int maxEntryKb;
+
+    @Value("${app.nexus.jdbc.cache.default-ttl-seconds:60}")
+    private int defaultTtlSeconds;
+
+    @Value("${app.nexus.jdbc.cache.generation-poll-ms:2000}")
+    private long generationPollMs;
+
+    /** Access-ordered so the least recently used entry goes first. Guarded by itself, as is heapBytes. */
+    private final Map<String, Entry> heap = new LinkedHashMap<>(16, 0.75f, true);
+    private long heapBytes;
+
+    /** hits / misses per node id, reported in the node output. */
+    private final Map<String, long[]> nodeCounts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+            return size() > MAX_TRACKED_NODES;
+        }
+    };
+
+    /** Last Redis generation seen; -1 until read. */
+    private volatile long generation = -1;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "nexus-jdbc-cache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ObjectWriter keyWriter;
+    private Counter      hitCounter;
+    private Counter      missCounter;
+
+    @PostConstruct
+    void init() {
+        keyWriter   = objectMapper.writer();
+        hitCounter  = counter(HIT);
+        missCounter = counter(MISS);
+        Gauge.builder("nexflow.nexus.jdbc.cache.bytes", this, c -> { synchronized (c.heap) { return c.heapBytes; } })
+                .description("Approximate heap used by cached NEXUS JDBC results")
+                .register(meterRegistry);
+        if (generationPollMs > 0) {
+            poller.scheduleWithFixedDelay(this::pollGeneration, generationPollMs, generationPollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private record Entry(UUID connectorId, NexusJdbcResults.Result result, long weight, long expiresAt) {}
+
+    /** One SELECT's cache state: its key, the node's limits and whatever live entry was found. */
+    public static final class Plan {
+        private final String nodeId;
+        private final UUID   connectorId;
+        private final String key;
+        private final long   ttlMs;
+        private final long   maxEntryBytes;
+        private final Entry  entry;
+
+        private Plan(String nodeId, UUID connectorId, String key, long ttlMs, long maxEntryBytes, Entry entry) {
+            this.nodeId        = nodeId;
+            this.connectorId   = connectorId;
+            this.key           = key;
+            this.ttlMs         = ttlMs;
+            this.maxEntryBytes = maxEntryBytes;
+            this.entry         = entry;
+        }
+
+        public boolean hit() {
+            return entry != null;
+        }
+    }
+
+    /** The result to use and how the cache produced it; cacheOutput() goes into the node output. */
+    public record Outcome(NexusJdbcResults.Result result, String outcome, long hits, long misses) {
+        public Map<String, Object> cacheOutput() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("result", outcome);
+            out.put("hits",   hits);
+            out.put("misses", misses);
+            return out;
+        }
+    }
+
+    /**
+     * Cache state for a SELECT, or null when the node does not cache (no config.cache, cache false, a
+     * TTL of 0 or a spillToFile read). Throws IllegalArgumentException for a malformed cache object.
+     */
+    public Plan plan(String nodeId, NexusConnector connector, Object nodeCache, String sql, List<Object> params,
+                     NexusJdbcResults.Options options) {
+        if (nodeCache == null || Boolean.FALSE.equals(nodeCache) || options.spillToFile() || connector.getId() == null) {
+            return null;
+        }
+        int ttlSeconds = defaultTtlSeconds;
+        int entryKb    = maxEntryKb;
+        if (nodeCache instanceof Map<?, ?> m) {
+            if (Boolean.FALSE.equals(m.get("enabled"))) return null;
+            ttlSeconds = intSetting(m.get("ttlSeconds"), ttlSeconds);
+            entryKb    = intSetting(m.get("maxEntryKb"), entryKb);
+        } else if (!Boolean.TRUE.equals(nodeCache)) {
+            throw new IllegalArgumentException("NEXUS JDBC cache must be true, false or an object, got "
+                    + nodeCache.getClass().getSimpleName());
+        }
+        if (ttlSeconds <= 0) return null;
+
+        String key = key(connector.getId(), sql, params, options);
+        return new Plan(nodeId, connector.getId(), key, TimeUnit.SECONDS.toMillis(ttlSeconds),
+                entryKb * 1024L, lookup(key));
+    }
+
+    /** Serves the cached result without touching the database. */
+    public Outcome hit(Plan plan) {
+        hitCounter.increment();
+        long[] counts = count(plan.nodeId, true);
+        return new Outcome(plan.entry.result(), HIT, counts[0], counts[1]);
+    }
+
+    /** Stores a freshly read result when it fits, and reports the miss. */
+    public Outcome complete(Plan plan, NexusJdbcResults.Result result) {
+        long weight = weight(result);
+        if (weight >= 0 && weight <= plan.maxEntryBytes) {
+            put(plan.key, new Entry(plan.connectorId, result, weight, System.currentTimeMillis() + plan.ttlMs));
+        }
+        missCounter.increment();
+        long[] counts = count(plan.nodeId, false);
+        return new Outcome(result, MISS, counts[0], counts[1]);
+    }
+
+    /** Drops a connector's cached results here and tells the other instances to clear theirs. */
+    public int invalidate(UUID connectorId) {
+        int evicted = 0;
+        synchronized (heap) {
+            var it = heap.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (!entry.connectorId().equals(connectorId)) continue;
+                heapBytes -= entry.weight();
+                it.remove();
+                evicted++;
+            }
+        }
+        StringRedisTemplate redis = redisTemplateProvider.getIfAvailable();
+        if (redis == null) return evicted;
+        try {
+            Long g = redis.opsForValue().increment(GENERATION_KEY);
+            if (g != null) generation = g; // our own bump needs no second flush
+        } catch (Exception ex) {
+            log.warn("[NexusJdbcResultCache] failed to bump generation: {}", ex.getMessage());
+        }
+        return evicted;
+    }
+
+    private void pollGeneration() {
+        StringRedisTemplate redis = redisTemplateProvider.getIfAvailable();
+        if (redis == null) return;
+        try {
+            String v = redis.opsForValue().get(GENERATION_KEY);
+            long current = v != null ? Long.parseLong(v) : 0L;
+            if (generation >= 0 && current != generation) {
+                synchronized (heap) {
+                    heap.clear();
+                    heapBytes = 0;
+                }
+                log.info("[NexusJdbcResultCache] generation {} -> {}, JDBC result cache cleared", generation, current);
+            }
+            generation = current;
+        } catch (Exception ex) {
+            log.debug("[NexusJdbcResultCache] generation poll failed: {}", ex.getMessage());
+        }
+    }
+
+    // ── Storage ──────────────────────────────────────────────────────────────
+
+    private Entry lookup(String key) {
+        synchronized (heap) {
+            Entry entry = heap.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAt() > System.currentTimeMillis()) return entry;
+            heap.remove(key);
+            heapBytes -= entry.weight();
+            return null;
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        long maxBytes = maxHeapMb * 1024L * 1024L;
+        synchronized (heap) {
+            Entry previous = heap.remove(key);
+            if (previous != null) heapBytes -= previous.weight();
+            if (entry.weight() > maxBytes) return;
+
+            heap.put(key, entry);
+            heapBytes += entry.weight();
+            var it = heap.values().iterator();
+            while (heapBytes > maxBytes && it.hasNext()) {
+                heapBytes -= it.next().weight();
+                it.remove();
+            }
+        }
+    }
+
+    /** Approximate heap size of an in-memory result, or -1 when it holds values that must not be kept. */
+    private static long weight(NexusJdbcResults.Result result) {
+        if (!(result.rows() instanceof RowSet rows)) return -1;
+        long total = ENTRY_OVERHEAD;
+        for (Object[] row : rows.values()) {
+            total += 16 + 8L * row.length;
+            for (Object value : row) {
+                long size = valueWeight(value);
+                if (size < 0) return -1;
+                total += size;
+            }
+        }
+        return total;
+    }
+
+    private static long valueWeight(Object value) {
+        if (value == null) return 0;
+        if (value instanceof String s) return 40 + 2L * s.length();
+        if (value instanceof byte[] b) return 16 + b.length;
+        if (value instanceof BigDecimal || value instanceof BigInteger) return 48;
+        // LOBs and structured values are bound to the connection that read them
+        if (value instanceof Blob || value instanceof Clob || value instanceof java.sql.Array
+                || value instanceof SQLXML || value instanceof Struct || value instanceof Ref) return -1;
+        return 24;
+    }
+
+    // ── Keys, counts ─────────────────────────────────────────────────────────
+
+    private String key(UUID connectorId, String sql, List<Object> params, NexusJdbcResults.Options options) {
+        StringBuilder raw = new StringBuilder(connectorId.toString()).append('\n')
+                .append(normalize(sql)).append('\n');
+        try {
+            raw.append(keyWriter.writeValueAsString(params));
+        } catch (Exception e) {
+            raw.append(params);
+        }
+        raw.append('\n').append(options.maxRows()).append('\n').append(options.columns());
+        return sha256(raw.toString());
+    }
+
+    /** Collapses whitespace outside quoted literals / identifiers and drops a trailing semicolon. */
+    static String normalize(String sql) {
+        StringBuilder out   = new StringBuilder(sql.length());
+        char          quote = 0;
+        boolean       space = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                out.append(c);
+                if (c == quote) quote = 0;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && !out.isEmpty()) out.append(' ');
+            space = false;
+            if (c == '\'' || c == '"' || c == '`') quote = c;
+            out.append(c);
+        }
+        int end = out.length();
+        while (end > 0 && (out.charAt(end - 1) == ';' || out.charAt(end - 1) == ' ')) end--;
+        out.setLength(end);
+        return out.toString();
+    }
+
+    private static int intSetting(Object value, int fallback) {
+        if (value == null) return fallback;
+        if (value instanceof Number n) return n.intValue();
+        try {
+            return Integer.parseInt(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("NEXUS JDBC cache: not a number: " + value);
+        }
+    }
+
+    private long[] count(String nodeId, boolean hit) {
+        synchronized (nodeCounts) {
+            long[] counts = nodeCounts.computeIfAbsent(nodeId, k -> new long[2]);
+            counts[hit ? 0 : 1]++;
+            return counts.clone();
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("nexflow.nexus.jdbc.cache")
+                .description("NEXUS JDBC result cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
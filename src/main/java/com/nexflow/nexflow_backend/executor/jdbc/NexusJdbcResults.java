@@ -0,0 +1,264 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexflow.nexflow_backend.executor.NexusProjection;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reads NEXUS JDBC SELECT results with bounded memory.
+ *
+ *   fetchSize           — rows the driver pulls per round trip instead of buffering the whole result
+ *                         (PostgreSQL only streams inside a transaction, so there the read runs in one)
+ *   maxRows             — cap on rows read (0, the default, = no cap); the output says truncated: true when it was hit
+ *   queryTimeoutSeconds — per-node override of the connector's statement timeout
+ *   spillToFile         — stream rows to a spill file and return a {@link SpilledRowSet} cursor
+ *   keep                — column names to read (a {@link NexusProjection}); other columns are never fetched
+ *
+ * In-memory results are {@link RowSet}s: one shared header plus an Object[] per row.
+ * Node config values win over the app.nexus.jdbc.* defaults.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NexusJdbcResults {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.nexus.jdbc.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.nexus.jdbc.max-rows:0}")
+    private int maxRows;
+
+    @Value("${app.nexus.jdbc.spill-dir:${java.io.tmpdir}/nexflow-jdbc-spill}")
+    private String spillDir;
+
+    @Value("${app.nexus.jdbc.spill-ttl-minutes:60}")
+    private int spillTtlMinutes;
+
+    private Path spillPath;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "nexus-jdbc-spill-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Per-node read settings; columns is null when every column is read. streaming is set when the node
+     * itself asked for a large read (its own fetchSize, or spillToFile).
+     */
+    public record Options(int fetchSize, int maxRows, Integer queryTimeoutSeconds, boolean spillToFile,
+                          Set<String> columns, boolean streaming) {}
+
+    /** What a SELECT produced: rows (a RowSet or SpilledRowSet) and whether maxRows cut it short. */
+    public record Result(List<Map<String, Object>> rows, boolean truncated) {}
+
+    @PostConstruct
+    void init() {
+        spillPath = Path.of(spillDir);
+        long period = Math.max(1, Math.min(spillTtlMinutes, 10));
+        sweeper.scheduleWithFixedDelay(this::sweep, 0, period, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /** Reads the node's options; throws IllegalArgumentException for a malformed keep path. */
+    public Options options(Map<String, Object> config) {
+        NexusProjection keep = NexusProjection.of(config.get("keep"));
+        boolean spillToFile  = Boolean.TRUE.equals(config.get("spillToFile"));
+        return new Options(
+                intOption(config.get("fetchSize"), fetchSize),
+                intOption(config.get("maxRows"), maxRows),
+                config.get("queryTimeoutSeconds") != null ? intOption(config.get("queryTimeoutSeconds"), 0) : null,
+                spillToFile,
+                keep != null ? keep.fields() : null,
+                spillToFile || config.get("fetchSize") != null);
+    }
+
+    /** Applies fetch size, row cap and timeout to a statement before it runs. */
+    public void configure(Statement stmt, Options options, int defaultTimeoutSeconds) throws SQLException {
+        int timeout = options.queryTimeoutSeconds() != null ? options.queryTimeoutSeconds() : defaultTimeoutSeconds;
+        if (timeout > 0) stmt.setQueryTimeout(timeout);
+        if (options.fetchSize() > 0) stmt.setFetchSize(options.fetchSize());
+        // One extra row so a result of exactly maxRows is not reported as truncated
+        if (options.maxRows() > 0 && options.maxRows() < Integer.MAX_VALUE) stmt.setMaxRows(options.maxRows() + 1);
+    }
+
+    /**
+     * Runs a SELECT on conn. PostgreSQL only honours a fetch size with auto-commit off, so there the query
+     * runs in its own transaction, committed at the end; other drivers get one only when the node asked to
+     * stream. Everything else runs as is — a small lookup pays no extra auto-commit round trips.
+     */
+    public Result select(Connection conn, Options options, SelectRunner runner) throws SQLException {
+        boolean wrap = options.fetchSize() > 0
+                && (options.streaming() || streamsOnlyInTransaction(conn))
+                && conn.getAutoCommit();
+        if (wrap) conn.setAutoCommit(false);
+        try {
+            Result result = runner.run();
+            if (wrap) conn.commit();
+            return result;
+        } finally {
+            if (wrap) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                    // the pool resets auto-commit when the connection is returned
+                }
+            }
+        }
+    }
+
+    private static boolean streamsOnlyInTransaction(Connection conn) throws SQLException {
+        String url = conn.getMetaData().getURL();
+        return url != null && url.toLowerCase(Locale.ROOT).startsWith("jdbc:postgresql:");
+    }
+
+    /** Runs the statement and reads its result; see {@link #select}. */
+    @FunctionalInterface
+    public interface SelectRunner {
+        Result run() throws SQLException;
+    }
+
+    /** Reads rows into memory or a spill file, stopping at maxRows. */
+    public Result read(ResultSet rs, Options options) throws SQLException {
+        ResultSetMetaData meta    = rs.getMetaData();
+        int[]             sources = sourceColumns(meta, options.columns());
+        String[]          labels  = new String[sources.length];
+        for (int i = 0; i < sources.length; i++) labels[i] = meta.getColumnLabel(sources[i]);
+        ResultColumns columns = ResultColumns.of(List.of(labels));
+        int limit = options.maxRows() > 0 ? options.maxRows() : Integer.MAX_VALUE;
+        return options.spillToFile() ? spill(rs, columns, sources, limit) : readInMemory(rs, columns, sources, limit);
+    }
+
+    /** 1-based positions of the columns to read: all of them, or those named in keep (case-insensitive). */
+    private static int[] sourceColumns(ResultSetMetaData meta, Set<String> keep) throws SQLException {
+        int count = meta.getColumnCount();
+        if (keep == null) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) all[i] = i + 1;
+            return all;
+        }
+        Set<String> wanted = new HashSet<>();
+        for (String name : keep) wanted.add(name.toLowerCase(Locale.ROOT));
+        int[] kept = new int[count];
+        int   n    = 0;
+        for (int i = 1; i <= count; i++) {
+            if (wanted.contains(meta.getColumnLabel(i).toLowerCase(Locale.ROOT))) kept[n++] = i;
+        }
+        return Arrays.copyOf(kept, n);
+    }
+
+    private Result readInMemory(ResultSet rs, ResultColumns columns, int[] sources, int limit) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        int width = columns.size();
+        while (rows.size() < limit && rs.next()) {
+            Object[] values = new Object[width];
+            for (int i = 0; i < width; i++) values[i] = rs.getObject(sources[i]);
+            rows.add(values);
+        }
+        boolean truncated = rows.size() == limit && rs.next();
+        return new Result(new RowSet(columns, rows), truncated);
+    }
+
+    private Result spill(ResultSet rs, ResultColumns columns, int[] sources, int limit) throws SQLException {
+        Path file;
+        try {
+            Files.createDirectories(spillPath);
+            file = spillPath.resolve("rows-" + UUID.randomUUID() + ".jsonl");
+        } catch (IOException e) {
+            throw new SQLException("Cannot create JDBC spill directory " + spillPath + ": " + e.getMessage(), e);
+        }
+
+        long[] offsets = new long[1024];
+        int    count   = 0;
+        int    width   = columns.size();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+            byte[] header = objectMapper.writeValueAsBytes(columns.labels());
+            out.write(header);
+            out.write('\n');
+            long position = header.length + 1;
+
+            Object[] values = new Object[width];
+            while (count < limit && rs.next()) {
+                for (int i = 0; i < width; i++) values[i] = rs.getObject(sources[i]);
+                byte[] line = objectMapper.writeValueAsBytes(values);
+                if (count + 1 >= offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                offsets[count++] = position;
+                out.write(line);
+                out.write('\n');
+                position += line.length + 1;
+            }
+            offsets[count] = position;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new SQLException("Failed to write JDBC spill file: " + e.getMessage(), e);
+        }
+        boolean truncated = count == limit && rs.next();
+        log.info("[NexusJdbcResults] spilled {} rows to {} ({} bytes)", count, file, offsets[count]);
+        return new Result(new SpilledRowSet(columns, file, Arrays.copyOf(offsets, count + 1), count, objectMapper), truncated);
+    }
+
+    /** Deletes spill files older than the TTL — the cursors handed out for them stop working. */
+    private void sweep() {
+        if (!Files.isDirectory(spillPath)) return;
+        FileTime cutoff = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(spillTtlMinutes));
+        try (Stream<Path> files = Files.list(spillPath)) {
+            files.filter(f -> f.getFileName().toString().startsWith("rows-"))
+                 .filter(f -> {
+                     try { return Files.getLastModifiedTime(f).compareTo(cutoff) < 0; }
+                     catch (IOException e) { return false; }
+                 })
+                 .forEach(NexusJdbcResults::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("[NexusJdbcResults] could not sweep spill directory {}: {}", spillPath, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try { Files.deleteIfExists(file); }
+        catch (IOException ignored) {}
+    }
+
+    private static int intOption(Object value, int fallback) {
+        if (value instanceof Number n) return Math.max(0, n.intValue());
+        if (value instanceof String s && !s.isBlank()) {
+            try { return Math.max(0, Integer.parseInt(s.trim())); }
+            catch (NumberFormatException ignored) {}
+        }
+        return fallback;
+    }
+}
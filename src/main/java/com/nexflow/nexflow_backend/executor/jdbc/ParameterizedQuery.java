@@ -0,0 +1,99 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A NEXUS JDBC query with its {{ref}}s turned into bind parameters.
+ *
+ *   SELECT * FROM users WHERE id = {{variables.userId}} AND name LIKE '%{{nex.start.body.q}}%'
+ *   → SELECT * FROM users WHERE id = ? AND name LIKE ?
+ *     params: [ ref "variables.userId", text "%{{nex.start.body.q}}%" ]
+ *
+ * A ref outside quotes becomes one parameter bound to the resolved value (keeping its type). A
+ * single-quoted literal that contains refs becomes one parameter bound to the literal's text with
+ * the refs filled in, so queries written for plain substitution ('{{x}}') keep working. Refs inside
+ * double-quoted identifiers and comments are left alone — identifiers cannot be bound.
+ *
+ * The SQL text no longer depends on the data, so it is parsed once per query and the database can
+ * reuse the prepared plan across executions.
+ */
+public record ParameterizedQuery(String sql, List<Param> params) {
+
+    /**
+     * One bind parameter: either a single reference expression (resolved to its raw value) or a
+     * literal template (resolved to a string).
+     */
+    public record Param(String expression, String template) {
+        public boolean isTemplate() {
+            return template != null;
+        }
+    }
+
+    public static ParameterizedQuery parse(String query) {
+        StringBuilder sql    = new StringBuilder(query.length());
+        List<Param>   params = new ArrayList<>();
+        int n = query.length();
+        int i = 0;
+
+        while (i < n) {
+            char c = query.charAt(i);
+
+            if (c == '\'') {
+                int end = literalEnd(query, i + 1);
+                String body = query.substring(i + 1, Math.min(end, n));
+                if (body.contains("{{") && end < n) {
+                    sql.append('?');
+                    params.add(new Param(null, body.replace("''", "'")));
+                } else {
+                    sql.append(query, i, Math.min(end + 1, n));
+                }
+                i = end + 1;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                end = end < 0 ? n : end + 1;
+                sql.append(query, i, end);
+                i = end;
+            } else if (c == '-' && query.startsWith("--", i)) {
+                int end = query.indexOf('\n', i);
+                end = end < 0 ? n : end;
+                sql.append(query, i, end);
+                i = end;
+            } else if (c == '/' && query.startsWith("/*", i)) {
+                int end = query.indexOf("*/", i + 2);
+                end = end < 0 ? n : end + 2;
+                sql.append(query, i, end);
+                i = end;
+            } else if (c == '{' && query.startsWith("{{", i)) {
+                int end = query.indexOf("}}", i + 2);
+                if (end < 0) {
+                    sql.append(query, i, n);
+                    break;
+                }
+                sql.append('?');
+                params.add(new Param(query.substring(i + 2, end).trim(), null));
+                i = end + 2;
+            } else {
+                sql.append(c);
+                i++;
+            }
+        }
+        return new ParameterizedQuery(sql.toString(), List.copyOf(params));
+    }
+
+    /** Index of the quote closing a literal that starts at from ('' is an escaped quote), or length if unterminated. */
+    private static int literalEnd(String query, int from) {
+        int i = from;
+        while (i < query.length()) {
+            if (query.charAt(i) == '\'') {
+                if (i + 1 < query.length() && query.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+            i++;
+        }
+        return query.length();
+    }
+}
@@ -0,0 +1,112 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The column header shared by every row of one JDBC result. Rows are plain Object[] and only look
+ * like maps through {@link #row(Object[])}, so a result no longer carries a LinkedHashMap and a
+ * copy of every column label per row.
+ *
+ * As with the old LinkedHashMap rows, a repeated label appears once, in the position of its first
+ * column, with the value of its last.
+ */
+final class ResultColumns {
+
+    private final String[]             labels;
+    private final Map<String, Integer> index;
+    /** Column positions that are visible as map entries (the first occurrence of each label). */
+    private final int[]                visible;
+
+    private ResultColumns(String[] labels) {
+        this.labels = labels;
+        this.index  = new HashMap<>(labels.length * 2);
+        for (int i = 0; i < labels.length; i++) index.put(labels[i], i);
+        int count = 0;
+        int[] positions = new int[labels.length];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < labels.length; i++) {
+            if (seen.add(labels[i])) positions[count++] = i;
+        }
+        this.visible = Arrays.copyOf(positions, count);
+    }
+
+    static ResultColumns of(List<String> labels) {
+        return new ResultColumns(labels.toArray(String[]::new));
+    }
+
+    int size() {
+        return labels.length;
+    }
+
+    List<String> labels() {
+        return List.of(labels);
+    }
+
+    /** Read-only map view of one row. */
+    Map<String, Object> row(Object[] values) {
+        return new Row(values);
+    }
+
+    private final class Row extends AbstractMap<String, Object> {
+
+        private final Object[] values;
+
+        private Row(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Integer i = index.get(key);
+            return i != null ? values[i] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return visible.length;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return visible.length;
+                }
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < visible.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (next >= visible.length) throw new NoSuchElementException();
+                            String label = labels[visible[next++]];
+                            return new SimpleImmutableEntry<>(label, values[index.get(label)]);
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
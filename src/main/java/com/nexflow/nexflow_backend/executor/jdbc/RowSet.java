@@ -0,0 +1,43 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * In-memory JDBC result: one shared column header plus an Object[] per row.
+ *
+ * Downstream nodes see an ordinary list of maps ({{nex.orders.rows[0].total}}, LOOP, MAPPER, JSON
+ * output) but each row is a read-only view, so a large SELECT costs roughly its values and nothing
+ * per column per row.
+ */
+public final class RowSet extends AbstractList<Map<String, Object>> implements RandomAccess {
+
+    private final ResultColumns  columns;
+    private final List<Object[]> rows;
+
+    RowSet(ResultColumns columns, List<Object[]> rows) {
+        this.columns = columns;
+        this.rows    = rows;
+    }
+
+    public List<String> columns() {
+        return columns.labels();
+    }
+
+    @Override
+    public Map<String, Object> get(int index) {
+        return columns.row(rows.get(index));
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    /** The raw rows, for sizing a cached result. */
+    List<Object[]> values() {
+        return rows;
+    }
+}
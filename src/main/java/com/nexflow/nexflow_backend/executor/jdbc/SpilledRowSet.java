@@ -0,0 +1,135 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * JDBC result streamed to a spill file (one JSON array per line) instead of the heap — the cursor a
+ * NEXUS JDBC node hands downstream when "spillToFile" is set.
+ *
+ * In-process consumers (templates, LOOP, MAPPER, DECISION) read it as a normal list of maps: get(i)
+ * reads one row at its recorded offset and iteration streams the file, so only the offsets stay in
+ * memory. Anything that serializes the NCO (execution history, SCRIPT input, API responses) gets a
+ * summary with the first PREVIEW_ROWS rows instead of the whole result, and a message saying so — a
+ * SCRIPT node never sees the full rows. The summary does not name the file. Spill files are deleted by
+ * NexusJdbcResults after app.nexus.jdbc.spill-ttl-minutes; reading one after that fails.
+ */
+public final class SpilledRowSet extends AbstractList<Map<String, Object>> implements RandomAccess {
+
+    static final int PREVIEW_ROWS = 20;
+
+    private final ResultColumns columns;
+    private final Path          file;
+    /** Byte offset of each row, plus the end of the last row. */
+    private final long[]        offsets;
+    private final int           size;
+    private final ObjectMapper  objectMapper;
+
+    SpilledRowSet(ResultColumns columns, Path file, long[] offsets, int size, ObjectMapper objectMapper) {
+        this.columns      = columns;
+        this.file         = file;
+        this.offsets      = offsets;
+        this.size         = size;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<String> columns() {
+        return columns.labels();
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Map<String, Object> get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        int length = (int) (offsets[index + 1] - offsets[index]);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = offsets[index];
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) break;
+            }
+            return columns.row(objectMapper.readValue(buffer.array(), 0, buffer.position(), Object[].class));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled JDBC result is no longer readable: " + file, e);
+        }
+    }
+
+    /** Streams the file front to back; the reader closes itself once the last row has been read. */
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+        BufferedReader reader;
+        try {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            reader.readLine(); // header
+            if (size == 0) reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled JDBC result is no longer readable: " + file, e);
+        }
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (next >= size) throw new NoSuchElementException();
+                try {
+                    String line = reader.readLine();
+                    if (++next == size) reader.close();
+                    return columns.row(objectMapper.readValue(line, Object[].class));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Spilled JDBC result is no longer readable: " + file, e);
+                }
+            }
+        };
+    }
+
+    /** What the result looks like wherever the NCO is serialized. */
+    @JsonValue
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("spilled",  true);
+        summary.put("message",  "Spilled to a file: only the first " + PREVIEW_ROWS + " of " + size + " rows are"
+                + " included here (SCRIPT input, history). LOOP, MAPPER and templates read every row; turn"
+                + " spillToFile off to pass all rows to a SCRIPT node.");
+        summary.put("rowCount", size);
+        summary.put("columns",  columns());
+        List<Map<String, Object>> preview = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.min(size, PREVIEW_ROWS); i++) preview.add(get(i));
+        } catch (UncheckedIOException e) {
+            summary.put("expired", true);
+        }
+        summary.put("preview",  preview);
+        return summary;
+    }
+}
@@ -0,0 +1,39 @@
+package com.nexflow.nexflow_backend.model.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Opt-in response cache for NEXUS REST calls, stored as JSON on {@link NexusConnector#getCacheConfig()}
+ * or given per node as config.cache (node values win). Every field is optional — null falls back to the
+ * connector, then to the app.nexus.cache.* defaults.
+ *
+ * Example: { "enabled": true, "defaultTtlSeconds": 300, "keyHeaders": ["X-Tenant"], "redis": true }
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NexusCacheConfig implements Serializable {
+
+    private Boolean enabled;
+
+    /** Freshness for responses that carry no Cache-Control max-age / Expires (0 = don't cache those). */
+    private Integer defaultTtlSeconds;
+
+    /** Fixed freshness that replaces whatever the response headers say (no-store is still honoured). */
+    private Integer ttlOverrideSeconds;
+
+    /** Upper bound on any freshness, from headers or config. */
+    private Integer maxTtlSeconds;
+
+    /** Request headers that are part of the cache key besides the auth header (e.g. "Accept-Language", "X-Tenant"). */
+    private List<String> keyHeaders;
+
+    /** HTTP methods that may be cached; default GET and HEAD. */
+    private List<String> methods;
+
+    /** Also keep entries in Redis so they survive restarts and are shared across instances. */
+    private Boolean redis;
+}
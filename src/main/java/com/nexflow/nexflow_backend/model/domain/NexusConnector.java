@@ -40,7 +40,7 @@ public class NexusConnector {
     @Column(name = "base_url")
     private String baseUrl;
 
-    // Auth type: NONE, BEARER, API_KEY, BASIC
+    // Auth type: NONE, BEARER, API_KEY, BASIC, OAUTH2_CLIENT_CREDENTIALS
     @Column(name = "auth_type")
     private String authType = "NONE";
 
@@ -66,6 +66,24 @@ public class NexusConnector {
     @Column(name = "auth_config")
     private Map<String, String> authConfig;
 
+    // Optional HTTP transport tuning (pool size per host, keep-alive, timeouts, HTTP/2, gzip); null = app defaults
+    @JsonProperty("transport")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "transport_config")
+    private NexusTransportConfig transportConfig;
+
+    // Optional response cache for GETs (TTL overrides, key headers, Redis tier); null = no caching unless a node enables it
+    @JsonProperty("cache")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "cache_config")
+    private NexusCacheConfig cacheConfig;
+
+    // Optional circuit breaker / bulkhead thresholds for REST calls; null = app defaults
+    @JsonProperty("resilience")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "resilience_config")
+    private NexusResilienceConfig resilienceConfig;
+
     // ── JDBC fields ────────────────────────────────────────────────────────────
 
     @Column(name = "jdbc_url")
@@ -80,6 +98,12 @@ public class NexusConnector {
     @Column(name = "db_password")
     private String dbPassword;
 
+    // Optional JDBC pool tuning (pool size, idle eviction, timeouts); null = app defaults
+    @JsonProperty("pool")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "pool_config")
+    private NexusJdbcPoolConfig poolConfig;
+
     // ── Ownership ──────────────────────────────────────────────────────────────
 
     /** The user who created this connector. Null for legacy connectors (accessible to all authenticated users). */
@@ -0,0 +1,35 @@
+package com.nexflow.nexflow_backend.model.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Per-connector JDBC pool settings, stored as JSON on {@link NexusConnector#getPoolConfig()}.
+ * Every field is optional — null falls back to the app.nexus.jdbc.* defaults.
+ *
+ * Example: { "maxPoolSize": 10, "minIdle": 2, "idleTimeoutSeconds": 120, "statementTimeoutSeconds": 15 }
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NexusJdbcPoolConfig implements Serializable {
+
+    /** Most connections this connector may hold open to its database at once. */
+    private Integer maxPoolSize;
+
+    /** Connections kept warm while the pool is idle (0 = close them all once idle). */
+    private Integer minIdle;
+
+    /** How long a connection above minIdle may sit unused before it is closed (min 10). */
+    private Integer idleTimeoutSeconds;
+
+    /** Connections are recycled after this long, before the database or a proxy drops them (min 30). */
+    private Integer maxLifetimeSeconds;
+
+    /** How long a node waits for a free pooled connection (or a new one) before failing. */
+    private Integer connectionTimeoutMs;
+
+    /** Query timeout applied to every statement; 0 disables it. */
+    private Integer statementTimeoutSeconds;
+}
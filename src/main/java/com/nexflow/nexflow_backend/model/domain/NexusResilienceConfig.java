@@ -0,0 +1,48 @@
+package com.nexflow.nexflow_backend.model.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Per-connector circuit breaker and bulkhead settings for NEXUS REST calls, stored as JSON on
+ * {@link NexusConnector#getResilienceConfig()}. Every field is optional — null falls back to the
+ * app.nexus.resilience.* defaults.
+ *
+ * Example: { "failureRateThreshold": 50, "slowCallDurationMs": 5000, "openSeconds": 30, "maxConcurrentCalls": 20 }
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NexusResilienceConfig implements Serializable {
+
+    /** false turns the circuit breaker off for this connector (the bulkhead still applies). */
+    private Boolean circuitBreaker;
+
+    /** Percentage of failed calls in the window that opens the circuit. */
+    private Integer failureRateThreshold;
+
+    /** Percentage of slow calls in the window that opens the circuit (0 = slow calls never open it). */
+    private Integer slowCallRateThreshold;
+
+    /** A call taking longer than this counts as slow. */
+    private Integer slowCallDurationMs;
+
+    /** Number of most recent calls the rates are computed over. */
+    private Integer windowSize;
+
+    /** Calls needed in the window before the rates are evaluated at all. */
+    private Integer minimumCalls;
+
+    /** How long an open circuit rejects calls before letting probes through. */
+    private Integer openSeconds;
+
+    /** Probe calls allowed while half-open; all must succeed to close the circuit. */
+    private Integer halfOpenCalls;
+
+    /** Most calls to this connector in flight at once (0 = unlimited). */
+    private Integer maxConcurrentCalls;
+
+    /** How long a call waits for a free slot before it is rejected. */
+    private Integer maxWaitMs;
+}
@@ -0,0 +1,51 @@
+package com.nexflow.nexflow_backend.model.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Per-connector HTTP transport settings, stored as JSON on {@link NexusConnector#getTransportConfig()}.
+ * Every field is optional — null falls back to the app.nexus.http.* defaults.
+ *
+ * Example: { "maxConnectionsPerRoute": 50, "keepAliveSeconds": 60, "readTimeoutMs": 10000, "http2": true }
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NexusTransportConfig implements Serializable {
+
+    /** Pooled connections to one host (HTTP/1.1 only; HTTP/2 multiplexes over one connection). */
+    private Integer maxConnectionsPerRoute;
+
+    /** How long an idle pooled connection is kept open; 0 disables connection reuse. */
+    private Integer keepAliveSeconds;
+
+    private Integer connectTimeoutMs;
+
+    private Integer readTimeoutMs;
+
+    /** Negotiate HTTP/2 (h2 over TLS, h2c upgrade otherwise), falling back to HTTP/1.1. */
+    private Boolean http2;
+
+    /** Send Accept-Encoding: gzip and transparently decompress responses. */
+    private Boolean gzip;
+
+    /** Largest response body read into memory; bigger responses fail the node. */
+    private Integer maxBodyKb;
+
+    /** Let identical concurrent GET / HEAD / OPTIONS requests share one upstream call. */
+    private Boolean coalesce;
+
+    /** How long a coalesced request waits for the shared one before sending its own. */
+    private Integer coalesceMaxWaitMs;
+
+    /** Send a second copy of a slow GET / HEAD / OPTIONS and take whichever answers first. */
+    private Boolean hedge;
+
+    /** Latency percentile of recent calls after which the copy is sent. */
+    private Integer hedgePercentile;
+
+    /** Lower bound on the hedge delay. */
+    private Integer hedgeMinDelayMs;
+}
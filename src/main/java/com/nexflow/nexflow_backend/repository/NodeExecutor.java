@@ -5,10 +5,22 @@ import com.nexflow.nexflow_backend.model.domain.NodeType;
 import com.nexflow.nexflow_backend.model.nco.NexflowContextObject;
 import com.nexflow.nexflow_backend.model.nco.NodeContext;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public interface NodeExecutor {
 
     NodeType supportedType();
 
     // Executes the node logic, reads from NCO, writes result back into it
     NodeContext execute(FlowNode node, NexflowContextObject nco);
+
+    /**
+     * Non-blocking variant. Executors that wait on I/O (NEXUS REST) override this so the engine can
+     * release its thread while the call is in flight and continue the flow once the stage completes.
+     * The default simply runs execute() on the calling thread.
+     */
+    default CompletionStage<NodeContext> executeAsync(FlowNode node, NexflowContextObject nco) {
+        return CompletableFuture.completedFuture(execute(node, nco));
+    }
 }
@@ -21,8 +21,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -34,8 +36,12 @@ public class FlowService {
     private final ExecutionRepository executionRepository;
     private final ExecutionListCacheService executionListCacheService;
     private final ObjectMapper objectMapper;
+    /** Runs background executions. */
     @Qualifier("flowExecutionExecutor")
     private final Executor flowExecutionExecutor;
+    /** Where a background execution continues after an async node completes; never rejects. */
+    @Qualifier("flowResumeExecutor")
+    private final Executor flowResumeExecutor;
 
     /**
      * Tracks which executionIds have an active background thread.
@@ -119,11 +125,12 @@ public class FlowService {
                 ? execution.getPayload()
                 : (payload != null ? payload : Map.of());
 
-        // The execution row is already saved. The actual flow work happens on the background executor.
-        CompletableFuture<Void> task = CompletableFuture.runAsync(
-                () -> runExecutionInBackground(executionId, execution.getFlowId(), effectivePayload),
+        // The execution row is already saved. The actual flow work happens on the background executor;
+        // while an async node (NEXUS REST) is in flight the run holds no thread, then continues on flowResumeExecutor.
+        CompletableFuture<Void> task = CompletableFuture.supplyAsync(
+                () -> runExecutionInBackground(executionId, execution.getFlowId(), effectivePayload, flowResumeExecutor),
                 flowExecutionExecutor
-        );
+        ).thenCompose(Function.identity());
         executionTasks.put(executionId, task);
         task.whenComplete((ok, err) -> {
             activeExecutions.remove(executionId);
@@ -171,14 +178,22 @@ public class FlowService {
                 payload != null ? payload.keySet() : "null"
         );
 
-        runExecutionInBackground(executionId, flowId, payload);
+        // No resume executor: the engine runs on this thread and the future is already complete.
+        runExecutionInBackground(executionId, flowId, payload, null).join();
         return executionRepository.findById(executionId)
                 .orElseThrow(() -> new IllegalStateException("Execution not found after run: " + executionId));
     }
 
-    private void runExecutionInBackground(UUID executionId, UUID flowId, Map<String, Object> payload) {
+    /**
+     * Runs the engine and finalizes the execution row. With a resumeExecutor the run may outlive this
+     * call (async nodes); the returned future completes once the row is final. A failed run is recorded
+     * on the row instead of failing the future, which fails only if recording that failure throws too.
+     */
+    private CompletableFuture<Void> runExecutionInBackground(UUID executionId, UUID flowId, Map<String, Object> payload,
+                                                             Executor resumeExecutor) {
         Execution execution = executionRepository.findById(executionId)
                 .orElseThrow(() -> new IllegalStateException("Execution not found: " + executionId));
+        CompletableFuture<NexflowContextObject> run;
         try {
             // This is the real flow run. If it throws, we mark the execution as failed.
             log.info(
@@ -192,50 +207,70 @@ public class FlowService {
             UUID flowOwnerId = flowRepository.findById(flowId)
                     .map(f -> f.getUserId())
                     .orElse(null);
-            NexflowContextObject nco = engine.execute(flowId, executionId.toString(), payload, flowOwnerId);
-            Execution latest = executionRepository.findById(executionId).orElse(execution);
-            if (isExternallyFinalized(latest)) {
-                log.info("[FlowService] runExecutionInBackground skip finalize: executionId={} already finalized", executionId);
-                return;
-            }
-            latest.setStatus(nco.getMeta().getStatus());
-            latest.setNcoSnapshot(objectMapper.convertValue(nco, new TypeReference<Map<String, Object>>() {}));
-            latest.setCompletedAt(Instant.now());
-            executionRepository.save(latest);
-            executionListCacheService.bumpGeneration();
-
-            log.info(
-                    "[FlowService] runExecutionInBackground END flowId={} executionId={} status={}",
-                    flowId,
-                    executionId,
-                    nco.getMeta().getStatus()
-            );
+            run = engine.executeAsync(flowId, executionId.toString(), payload, flowOwnerId, resumeExecutor);
         } catch (Exception ex) {
-            String msg = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
-            log.error("Flow {} execution failed: {}", flowId, msg, ex);
-            Execution latest = executionRepository.findById(executionId).orElse(execution);
-            if (isExternallyFinalized(latest)) {
-                log.info("[FlowService] runExecutionInBackground skip failure finalize: executionId={} already finalized", executionId);
-                return;
+            run = CompletableFuture.failedFuture(ex);
+        }
+        return run.handle((nco, error) -> {
+            if (error == null) {
+                try {
+                    completeExecution(execution, executionId, flowId, nco);
+                    return null;
+                } catch (Exception ex) {
+                    error = ex;
+                }
             }
-            latest.setStatus(ExecutionStatus.FAILURE);
-            latest.setErrorMessage(msg);
-            // Persist snapshot so transaction is always created and detail page can show error for debugging
-            Map<String, Object> meta = new java.util.LinkedHashMap<>();
-            meta.put("flowId", flowId.toString());
-            meta.put("executionId", executionId.toString());
-            meta.put("status", ExecutionStatus.FAILURE.name());
-            meta.put("completedAt", Instant.now().toString());
-            latest.setNcoSnapshot(Map.of(
-                    "nodes", Map.of(),
-                    "nodeExecutionOrder", List.of(),
-                    "meta", meta,
-                    "error", msg
-            ));
-            latest.setCompletedAt(Instant.now());
-            executionRepository.save(latest);
-            executionListCacheService.bumpGeneration();
+            failExecution(execution, executionId, flowId,
+                    error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            return null;
+        });
+    }
+
+    private void completeExecution(Execution execution, UUID executionId, UUID flowId, NexflowContextObject nco) {
+        Execution latest = executionRepository.findById(executionId).orElse(execution);
+        if (isExternallyFinalized(latest)) {
+            log.info("[FlowService] runExecutionInBackground skip finalize: executionId={} already finalized", executionId);
+            return;
+        }
+        latest.setStatus(nco.getMeta().getStatus());
+        latest.setNcoSnapshot(objectMapper.convertValue(nco, new TypeReference<Map<String, Object>>() {}));
+        latest.setCompletedAt(Instant.now());
+        executionRepository.save(latest);
+        executionListCacheService.bumpGeneration();
+
+        log.info(
+                "[FlowService] runExecutionInBackground END flowId={} executionId={} status={}",
+                flowId,
+                executionId,
+                nco.getMeta().getStatus()
+        );
+    }
+
+    private void failExecution(Execution execution, UUID executionId, UUID flowId, Throwable ex) {
+        String msg = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        log.error("Flow {} execution failed: {}", flowId, msg, ex);
+        Execution latest = executionRepository.findById(executionId).orElse(execution);
+        if (isExternallyFinalized(latest)) {
+            log.info("[FlowService] runExecutionInBackground skip failure finalize: executionId={} already finalized", executionId);
+            return;
         }
+        latest.setStatus(ExecutionStatus.FAILURE);
+        latest.setErrorMessage(msg);
+        // Persist snapshot so transaction is always created and detail page can show error for debugging
+        Map<String, Object> meta = new java.util.LinkedHashMap<>();
+        meta.put("flowId", flowId.toString());
+        meta.put("executionId", executionId.toString());
+        meta.put("status", ExecutionStatus.FAILURE.name());
+        meta.put("completedAt", Instant.now().toString());
+        latest.setNcoSnapshot(Map.of(
+                "nodes", Map.of(),
+                "nodeExecutionOrder", List.of(),
+                "meta", meta,
+                "error", msg
+        ));
+        latest.setCompletedAt(Instant.now());
+        executionRepository.save(latest);
+        executionListCacheService.bumpGeneration();
     }
 
     public int discardRunningExecutions(Set<UUID> allowedFlowIds) {
@@ -0,0 +1,174 @@
+package com.nexflow.nexflow_backend.service;
+
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.repository.NexusConnectorRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory NexusConnector lookup for NEXUS node execution, so a node does not cost a Postgres round
+ * trip (and a Hikari checkout) per run. Each entry also carries the connector's auth headers, built
+ * once instead of per call (BASIC is Base64-encoded here).
+ *
+ * NexusController invalidates an entry on create / update / delete. Other instances hear about it
+ * through a Redis generation counter (the same scheme as {@link ExecutionListCacheService}): every
+ * invalidation bumps {@link #GENERATION_KEY}, and each instance polls it every
+ * app.nexus.connectors.generation-poll-ms and drops its whole cache when it moved. Without Redis,
+ * entries still expire after app.nexus.connectors.cache-ttl-seconds.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NexusConnectorCache {
+
+    static final String GENERATION_KEY = "nexus:connectors:generation";
+
+    private final NexusConnectorRepository            connectorRepository;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${app.nexus.connectors.cache-ttl-seconds:300}")
+    private int cacheTtlSeconds;
+
+    @Value("${app.nexus.connectors.generation-poll-ms:2000}")
+    private long generationPollMs;
+
+    private record Entry(NexusConnector connector, Map<String, String> authHeaders, long loadedAt) {}
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Bumped on every invalidation so a load that raced one does not put a stale connector back. */
+    private long epoch;
+    private final Object epochLock = new Object();
+
+    /** Last Redis generation seen; -1 until read. */
+    private volatile long generation = -1;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "nexus-connector-cache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    void init() {
+        if (generationPollMs > 0) {
+            poller.scheduleWithFixedDelay(this::pollGeneration, generationPollMs, generationPollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /** The connector, from memory when a live entry exists, otherwise loaded (and cached) from the DB. */
+    public Optional<NexusConnector> find(UUID id) {
+        Entry entry = entries.get(id);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt() < TimeUnit.SECONDS.toMillis(cacheTtlSeconds)) {
+            return Optional.of(entry.connector());
+        }
+
+        long loadEpoch;
+        synchronized (epochLock) {
+            loadEpoch = epoch;
+        }
+        Optional<NexusConnector> loaded = connectorRepository.findById(id);
+        loaded.ifPresent(connector -> {
+            Entry fresh = new Entry(connector, buildAuthHeaders(connector), System.currentTimeMillis());
+            synchronized (epochLock) {
+                if (epoch == loadEpoch) entries.put(id, fresh);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Headers carrying the connector's credentials — precomputed for connectors handed out by
+     * {@link #find}, built on the spot for any other instance.
+     */
+    public Map<String, String> authHeaders(NexusConnector connector) {
+        Entry entry = connector.getId() != null ? entries.get(connector.getId()) : null;
+        return entry != null && entry.connector() == connector ? entry.authHeaders() : buildAuthHeaders(connector);
+    }
+
+    /** Drops a connector here and tells the other instances to drop their caches. */
+    public void invalidate(UUID id) {
+        synchronized (epochLock) {
+            epoch++;
+            entries.remove(id);
+        }
+        StringRedisTemplate redis = redisTemplateProvider.getIfAvailable();
+        if (redis == null) return;
+        try {
+            Long g = redis.opsForValue().increment(GENERATION_KEY);
+            if (g != null) generation = g; // our own bump needs no second flush
+        } catch (Exception ex) {
+            log.warn("[NexusConnectorCache] failed to bump generation: {}", ex.getMessage());
+        }
+    }
+
+    private void pollGeneration() {
+        StringRedisTemplate redis = redisTemplateProvider.getIfAvailable();
+        if (redis == null) return;
+        try {
+            String v = redis.opsForValue().get(GENERATION_KEY);
+            long current = v != null ? Long.parseLong(v) : 0L;
+            if (generation >= 0 && current != generation) {
+                synchronized (epochLock) {
+                    epoch++;
+                    entries.clear();
+                }
+                log.info("[NexusConnectorCache] generation {} -> {}, connector cache cleared", generation, current);
+            }
+            generation = current;
+        } catch (Exception ex) {
+            log.debug("[NexusConnectorCache] generation poll failed: {}", ex.getMessage());
+        }
+    }
+
+    private static Map<String, String> buildAuthHeaders(NexusConnector connector) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        Map<String, String> auth    = connector.getAuthConfig();
+        if (auth == null || connector.getAuthType() == null || "NONE".equalsIgnoreCase(connector.getAuthType())) {
+            return Map.of();
+        }
+
+        switch (connector.getAuthType().toUpperCase()) {
+            case "BEARER" -> {
+                String token = auth.get("token");
+                if (token != null) headers.put("Authorization", "Bearer " + token);
+            }
+            case "API_KEY" -> {
+                String key      = auth.getOrDefault("headerName", "X-API-Key");
+                String keyValue = auth.get("key");
+                if (keyValue != null) headers.put(key, keyValue);
+            }
+            case "BASIC" -> {
+                String username = auth.getOrDefault("username", "");
+                String password = auth.getOrDefault("password", "");
+                String encoded  = Base64.getEncoder()
+                        .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+                headers.put("Authorization", "Basic " + encoded);
+            }
+            default -> { }
+        }
+        return Map.copyOf(headers);
+    }
+}
@@ -0,0 +1,5 @@
+-- Optional per-connector HTTP transport settings (pool size per host, keep-alive, timeouts, HTTP/2, gzip).
+-- NULL means the app.nexus.http.* defaults apply.
+
+ALTER TABLE nexus_connectors
+    ADD COLUMN IF NOT EXISTS transport_config JSONB;
@@ -0,0 +1,5 @@
+-- Optional per-connector JDBC pool settings (pool size, idle eviction, lifetime, connection / statement timeouts).
+-- NULL means the app.nexus.jdbc.* defaults apply.
+
+ALTER TABLE nexus_connectors
+    ADD COLUMN IF NOT EXISTS pool_config JSONB;
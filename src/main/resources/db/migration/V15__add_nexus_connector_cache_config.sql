@@ -0,0 +1,5 @@
+-- Optional per-connector response cache settings for NEXUS REST calls (TTLs, key headers, Redis tier).
+-- NULL means caching is off unless a node turns it on.
+
+ALTER TABLE nexus_connectors
+    ADD COLUMN IF NOT EXISTS cache_config JSONB;
@@ -0,0 +1,5 @@
+-- Optional per-connector circuit breaker / bulkhead settings for NEXUS REST calls.
+-- NULL means the app.nexus.resilience.* defaults.
+
+ALTER TABLE nexus_connectors
+    ADD COLUMN IF NOT EXISTS resilience_config JSONB;
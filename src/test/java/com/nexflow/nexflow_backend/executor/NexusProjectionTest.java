@@ -0,0 +1,111 @@
+package com.nexflow.nexflow_backend.executor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NexusProjectionTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final String BODY = """
+			{ "data": { "items": [ { "id": 1, "name": "a", "tags": ["x", "y"] },
+			                       { "id": 2, "name": "b", "tags": [] } ],
+			            "total": 2, "next": null },
+			  "meta": { "took": 5, "host": "h" } }""";
+
+	private static Object read(Object keep, String json) {
+		return NexusProjection.of(keep).read(MAPPER, json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Object parse(String json) throws Exception {
+		return MAPPER.readValue(json, Object.class);
+	}
+
+	@Test
+	void indexWildcardKeepsFieldOfEveryElement() throws Exception {
+		Object result = read(List.of("data.items[*].id", "data.total"), BODY);
+
+		assertEquals(parse("{ \"data\": { \"items\": [ { \"id\": 1 }, { \"id\": 2 } ], \"total\": 2 } }"), result);
+	}
+
+	@Test
+	void fieldPathAppliesToEachArrayElement() throws Exception {
+		assertEquals(read("data.items[*].name", BODY), read("data.items.name", BODY));
+		assertEquals(parse("{ \"data\": { \"items\": [ { \"name\": \"a\" }, { \"name\": \"b\" } ] } }"),
+				read("data.items.name", BODY));
+	}
+
+	@Test
+	void indexKeepsOneElement() throws Exception {
+		assertEquals(parse("{ \"data\": { \"items\": [ { \"id\": 2, \"name\": \"b\", \"tags\": [] } ] } }"),
+				read("data.items[1]", BODY));
+		assertEquals(parse("{ \"data\": { \"items\": [ { \"tags\": [\"y\"] }, { \"tags\": [] } ] } }"),
+				read("data.items[*].tags[1]", BODY));
+	}
+
+	@Test
+	void fieldWildcardMatchesEveryField() throws Exception {
+		assertEquals(parse("{ \"data\": { \"total\": 2 }, \"meta\": {} }"), read("*.total", BODY));
+		assertEquals(parse("{ \"meta\": { \"took\": 5, \"host\": \"h\" } }"), read("meta.*", BODY));
+	}
+
+	@Test
+	void keptNullAndWholeSubtreesSurvive() throws Exception {
+		assertEquals(parse("{ \"data\": { \"next\": null }, \"meta\": { \"took\": 5, \"host\": \"h\" } }"),
+				read("data.next, meta", BODY));
+	}
+
+	@Test
+	void topLevelArray() throws Exception {
+		String json = "[ { \"a\": 1, \"b\": 2 }, { \"a\": 3, \"b\": 4 } ]";
+
+		assertEquals(parse("[ { \"a\": 1 }, { \"a\": 3 } ]"), read("[*].a", json));
+		assertEquals(parse("[ { \"b\": 4 } ]"), read("[1].b", json));
+		assertEquals(parse("[ { \"a\": 1 }, { \"a\": 3 } ]"), read("a", json));
+	}
+
+	@Test
+	void nothingMatchedGivesEmptyContainer() {
+		assertEquals(Map.of(), read("missing.path", BODY));
+		assertEquals(List.of(), read("[5]", "[1, 2]"));
+	}
+
+	@Test
+	void nonContainerOrTrailingContentIsNotProjected() {
+		assertNull(read("a", "42"));
+		assertNull(read("a", "\"text\""));
+		assertNull(read("a", "{ \"a\": 1 } { \"a\": 2 }"));
+		assertNull(read("a", "{ \"a\": "));
+	}
+
+	@Test
+	void fieldsAreTopLevelNamesUnlessAPathIsWildOrIndexed() {
+		assertEquals(Set.of("id", "name"), NexusProjection.of("id, name.first").fields());
+		assertNull(NexusProjection.of(List.of("id", "*.x")).fields());
+		assertNull(NexusProjection.of("[0].id").fields());
+	}
+
+	@Test
+	void emptyKeepKeepsEverything() {
+		assertNull(NexusProjection.of(null));
+		assertNull(NexusProjection.of(" , "));
+		assertNull(NexusProjection.of(List.of()));
+	}
+
+	@Test
+	void malformedPathIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> NexusProjection.of("data..id"));
+		assertThrows(IllegalArgumentException.class, () -> NexusProjection.of("items[x]"));
+		assertThrows(IllegalArgumentException.class, () -> NexusProjection.of("items[1"));
+		assertThrows(IllegalArgumentException.class, () -> NexusProjection.of(42));
+	}
+}
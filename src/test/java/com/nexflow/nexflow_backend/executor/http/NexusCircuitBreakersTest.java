@@ -0,0 +1,193 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.nexflow.nexflow_backend.model.domain.NexusConnector;
+import com.nexflow.nexflow_backend.model.domain.NexusResilienceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NexusCircuitBreakersTest {
+
+	private static final String URL = "https://api.example.com/v1/items";
+
+	private SimpleMeterRegistry  registry;
+	private NexusCircuitBreakers breakers;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		breakers = new NexusCircuitBreakers(registry);
+		ReflectionTestUtils.setField(breakers, "circuitBreaker", true);
+		ReflectionTestUtils.setField(breakers, "failureRateThreshold", 50);
+		ReflectionTestUtils.setField(breakers, "slowCallRateThreshold", 0);
+		ReflectionTestUtils.setField(breakers, "slowCallDurationMs", 10_000);
+		ReflectionTestUtils.setField(breakers, "windowSize", 4);
+		ReflectionTestUtils.setField(breakers, "minimumCalls", 4);
+		ReflectionTestUtils.setField(breakers, "openSeconds", 1);
+		ReflectionTestUtils.setField(breakers, "halfOpenCalls", 2);
+		ReflectionTestUtils.setField(breakers, "maxConcurrentCalls", 0);
+		ReflectionTestUtils.setField(breakers, "maxWaitMs", 0);
+		breakers.init();
+	}
+
+	private void call(NexusConnector connector, String owner, Throwable error) {
+		breakers.acquire(connector, owner, URL).release(error);
+	}
+
+	private void trip(NexusConnector connector, String owner) {
+		for (int i = 0; i < 4; i++) call(connector, owner, new IOException("connection reset"));
+	}
+
+	private NexusCallRejectedException rejected(NexusConnector connector, String owner) {
+		return assertThrows(NexusCallRejectedException.class, () -> breakers.acquire(connector, owner, URL));
+	}
+
+	private double transitions(String state) {
+		return registry.counter("nexflow.nexus.circuit.transitions", "state", state).count();
+	}
+
+	@Test
+	void opensOnceFailureRateIsReachedOverMinimumCalls() {
+		call(null, "u1", null);
+		call(null, "u1", null);
+		call(null, "u1", new IOException("timeout"));
+		assertDoesNotThrow(() -> call(null, "u1", new IOException("timeout"))); // 4th call: 2 of 4 failed
+
+		NexusCallRejectedException ex = rejected(null, "u1");
+		assertEquals(NexusCallRejectedException.Reason.CIRCUIT_OPEN, ex.getReason());
+		assertEquals("host:api.example.com", ex.getTarget());
+		assertEquals(1.0, registry.counter("nexflow.nexus.circuit.rejected", "reason", "circuit_open").count());
+	}
+
+	@Test
+	void staysClosedBelowThresholdAsTheWindowSlides() {
+		call(null, "u1", new IOException("timeout"));
+		for (int i = 0; i < 10; i++) call(null, "u1", null);
+		call(null, "u1", new IOException("timeout"));
+
+		assertDoesNotThrow(() -> call(null, "u1", null));
+		assertEquals(0.0, transitions("open"));
+	}
+
+	@Test
+	void clientErrorsCountAsSuccessButTooManyRequestsDoesNot() {
+		for (int i = 0; i < 8; i++) call(null, "u1", new HttpClientErrorException(HttpStatus.NOT_FOUND));
+		assertDoesNotThrow(() -> call(null, "u1", null));
+
+		for (int i = 0; i < 4; i++) call(null, "u2", new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+		rejected(null, "u2");
+
+		for (int i = 0; i < 4; i++) call(null, "u3", new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+		rejected(null, "u3");
+	}
+
+	@Test
+	void halfOpenProbesCloseTheCircuit() throws InterruptedException {
+		trip(null, "u1");
+		rejected(null, "u1");
+		Thread.sleep(1_100);
+
+		NexusCircuitBreakers.Permit first  = breakers.acquire(null, "u1", URL);
+		NexusCircuitBreakers.Permit second = breakers.acquire(null, "u1", URL);
+		rejected(null, "u1"); // only halfOpenCalls probes at a time
+		first.release(null);
+		second.release(null);
+
+		for (int i = 0; i < 5; i++) assertDoesNotThrow(() -> call(null, "u1", null));
+		assertEquals(1.0, transitions("half_open"));
+		assertEquals(1.0, transitions("closed"));
+	}
+
+	@Test
+	void failedProbeReopensTheCircuit() throws InterruptedException {
+		trip(null, "u1");
+		Thread.sleep(1_100);
+
+		NexusCircuitBreakers.Permit probe = breakers.acquire(null, "u1", URL);
+		probe.release(new IOException("still down"));
+		probe.release(null); // a second release is ignored
+
+		rejected(null, "u1");
+		assertEquals(2.0, transitions("open"));
+		assertEquals(0.0, transitions("closed"));
+	}
+
+	@Test
+	void outcomesFromBeforeATransitionAreIgnored() throws InterruptedException {
+		NexusCircuitBreakers.Permit late = breakers.acquire(null, "u1", URL);
+		trip(null, "u1");
+		Thread.sleep(1_100);
+
+		NexusCircuitBreakers.Permit probe = breakers.acquire(null, "u1", URL);
+		late.release(new IOException("timeout")); // admitted while closed: must not fail the probe
+		probe.release(null);
+		call(null, "u1", null);
+
+		assertEquals(1.0, transitions("closed"));
+	}
+
+	@Test
+	void inlineBreakersAreSeparatePerOwnerAndHost() {
+		trip(null, "user:a");
+		rejected(null, "user:a");
+
+		assertDoesNotThrow(() -> call(null, "user:b", null));
+		assertDoesNotThrow(() -> breakers.acquire(null, "user:a", "https://other.example.com/x").release(null));
+	}
+
+	@Test
+	void connectorBreakerUsesItsOwnSettingsAndCanBeInvalidated() {
+		NexusResilienceConfig resilience = new NexusResilienceConfig();
+		resilience.setMinimumCalls(1);
+		NexusConnector connector = new NexusConnector();
+		connector.setId(UUID.randomUUID());
+		connector.setResilienceConfig(resilience);
+
+		call(connector, "u1", new IOException("timeout"));
+		NexusCallRejectedException ex = rejected(connector, "u2"); // shared by everyone using the connector
+		assertEquals(connector.getId().toString(), ex.getTarget());
+
+		breakers.invalidate(connector.getId());
+		assertDoesNotThrow(() -> call(connector, "u1", null));
+	}
+
+	@Test
+	void disabledBreakerNeverOpens() {
+		NexusResilienceConfig resilience = new NexusResilienceConfig();
+		resilience.setCircuitBreaker(false);
+		NexusConnector connector = new NexusConnector();
+		connector.setId(UUID.randomUUID());
+		connector.setResilienceConfig(resilience);
+
+		trip(connector, "u1");
+		trip(connector, "u1");
+		assertDoesNotThrow(() -> call(connector, "u1", null));
+	}
+
+	@Test
+	void bulkheadRejectsWhenFullAndFreesOnRelease() {
+		NexusResilienceConfig resilience = new NexusResilienceConfig();
+		resilience.setMaxConcurrentCalls(1);
+		NexusConnector connector = new NexusConnector();
+		connector.setId(UUID.randomUUID());
+		connector.setResilienceConfig(resilience);
+
+		NexusCircuitBreakers.Permit held = breakers.acquire(connector, "u1", URL);
+		assertEquals(NexusCallRejectedException.Reason.BULKHEAD_FULL, rejected(connector, "u1").getReason());
+
+		held.release(null);
+		assertDoesNotThrow(() -> call(connector, "u1", null));
+		assertEquals(1.0, registry.counter("nexflow.nexus.circuit.rejected", "reason", "bulkhead_full").count());
+	}
+}
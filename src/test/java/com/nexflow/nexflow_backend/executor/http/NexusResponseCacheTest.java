@@ -0,0 +1,167 @@
+package com.nexflow.nexflow_backend.executor.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NexusResponseCacheTest {
+
+	private static final String URL  = "https://api.example.com/v1/items";
+	private static final byte[] BODY = "{\"items\":[1,2,3]}".getBytes(StandardCharsets.UTF_8);
+
+	private NexusResponseCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new NexusResponseCache(new ObjectMapper(),
+				new DefaultListableBeanFactory().getBeanProvider(StringRedisTemplate.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cache, "maxHeapMb", 64);
+		ReflectionTestUtils.setField(cache, "maxEntryKb", 1024);
+		ReflectionTestUtils.setField(cache, "defaultTtlSeconds", 0);
+		ReflectionTestUtils.setField(cache, "maxTtlSeconds", 86_400);
+		ReflectionTestUtils.setField(cache, "staleRetentionSeconds", 3_600);
+		ReflectionTestUtils.setField(cache, "redisDefault", false);
+		cache.init();
+	}
+
+	private NexusResponseCache.Plan plan(Object nodeCache) {
+		return cache.plan("node-1", null, nodeCache, "GET", URL, new HttpHeaders(), null);
+	}
+
+	private static ResponseEntity<byte[]> response(HttpStatus status, String... headerPairs) {
+		HttpHeaders headers = new HttpHeaders();
+		for (int i = 0; i < headerPairs.length; i += 2) headers.add(headerPairs[i], headerPairs[i + 1]);
+		return new ResponseEntity<>(BODY, headers, status);
+	}
+
+	/** Sends a miss through the cache and returns the plan the next identical call would get. */
+	private NexusResponseCache.Plan storeThenPlan(Object nodeCache, ResponseEntity<byte[]> response) {
+		NexusResponseCache.Plan first = plan(nodeCache);
+		assertFalse(first.fresh());
+		assertEquals(NexusResponseCache.MISS, cache.complete(first, response).result());
+		return plan(nodeCache);
+	}
+
+	@Test
+	void maxAgeResponseIsServedFromCache() {
+		NexusResponseCache.Plan plan = storeThenPlan(true, response(HttpStatus.OK, "Cache-Control", "public, max-age=60"));
+
+		assertTrue(plan.fresh());
+		NexusResponseCache.Outcome outcome = cache.hit(plan);
+		assertEquals(NexusResponseCache.HIT, outcome.result());
+		assertArrayEquals(BODY, outcome.response().getBody());
+		assertEquals(Map.of("result", "hit", "hits", 1L, "misses", 1L), outcome.cacheOutput());
+	}
+
+	@Test
+	void ageIsSubtractedFromMaxAge() {
+		assertFalse(storeThenPlan(true, response(HttpStatus.OK, "Cache-Control", "max-age=60", "Age", "60")).fresh());
+		assertTrue(storeThenPlan(true, response(HttpStatus.OK, "Cache-Control", "max-age=60", "Age", "30")).fresh());
+	}
+
+	@Test
+	void expiresIsMeasuredFromDate() {
+		HttpHeaders headers = new HttpHeaders();
+		long now = System.currentTimeMillis();
+		headers.setDate(now);
+		headers.setExpires(now + 120_000);
+
+		assertTrue(storeThenPlan(true, new ResponseEntity<>(BODY, headers, HttpStatus.OK)).fresh());
+	}
+
+	@Test
+	void freshnessRunsOut() throws InterruptedException {
+		NexusResponseCache.Plan plan = storeThenPlan(true, response(HttpStatus.OK, "Cache-Control", "max-age=1"));
+		assertTrue(plan.fresh());
+
+		Thread.sleep(1_100);
+		assertFalse(plan(true).fresh());
+	}
+
+	@Test
+	void responsesWithoutFreshnessUseDefaultTtlOrAreNotStored() {
+		assertFalse(storeThenPlan(true, response(HttpStatus.OK)).fresh());
+		assertTrue(storeThenPlan(Map.of("defaultTtlSeconds", 30), response(HttpStatus.OK)).fresh());
+	}
+
+	@Test
+	void ttlOverrideReplacesHeaders() {
+		assertTrue(storeThenPlan(Map.of("ttlOverrideSeconds", 30),
+				response(HttpStatus.OK, "Cache-Control", "no-cache")).fresh());
+	}
+
+	@Test
+	void noStoreWinsOverTtlOverride() {
+		assertFalse(storeThenPlan(Map.of("ttlOverrideSeconds", 30),
+				response(HttpStatus.OK, "Cache-Control", "no-store")).fresh());
+	}
+
+	@Test
+	void maxTtlCapsFreshness() {
+		assertFalse(storeThenPlan(Map.of("maxTtlSeconds", 0),
+				response(HttpStatus.OK, "Cache-Control", "max-age=600")).fresh());
+	}
+
+	@Test
+	void varyStarAndErrorsAreNeverStored() {
+		assertFalse(storeThenPlan(true, response(HttpStatus.OK, "Cache-Control", "max-age=60", "Vary", "*")).fresh());
+		assertFalse(storeThenPlan(true, response(HttpStatus.INTERNAL_SERVER_ERROR, "Cache-Control", "max-age=60")).fresh());
+	}
+
+	@Test
+	void staleEntryWithEtagIsRevalidated() {
+		NexusResponseCache.Plan stale = storeThenPlan(true,
+				response(HttpStatus.OK, "Cache-Control", "no-cache", "ETag", "\"v1\""));
+		assertFalse(stale.fresh());
+
+		HttpHeaders conditional = cache.requestHeaders(stale, new HttpHeaders());
+		assertEquals("\"v1\"", conditional.getIfNoneMatch().get(0));
+
+		HttpHeaders notModified = new HttpHeaders();
+		notModified.setCacheControl("max-age=60");
+		NexusResponseCache.Outcome outcome = cache.complete(stale,
+				new ResponseEntity<>(null, notModified, HttpStatus.NOT_MODIFIED));
+		assertEquals(NexusResponseCache.REVALIDATED, outcome.result());
+		assertEquals(200, outcome.response().getStatusCode().value());
+		assertArrayEquals(BODY, outcome.response().getBody());
+
+		assertTrue(plan(true).fresh()); // the 304's max-age refreshed the stored entry
+	}
+
+	@Test
+	void cachingIsOffUnlessEnabledAndForUncachedMethods() {
+		assertNull(plan(null));
+		assertNull(plan(false));
+		assertNull(cache.plan("node-1", null, true, "POST", URL, new HttpHeaders(), Map.of("a", 1)));
+	}
+
+	@Test
+	void authorizationIsPartOfTheKey() {
+		HttpHeaders alice = new HttpHeaders();
+		alice.setBearerAuth("alice");
+		HttpHeaders bob = new HttpHeaders();
+		bob.setBearerAuth("bob");
+
+		NexusResponseCache.Plan first = cache.plan("node-1", null, true, "GET", URL, alice, null);
+		cache.complete(first, response(HttpStatus.OK, "Cache-Control", "max-age=60"));
+
+		assertTrue(cache.plan("node-1", null, true, "GET", URL, alice, null).fresh());
+		assertFalse(cache.plan("node-1", null, true, "GET", URL, bob, null).fresh());
+	}
+}
@@ -0,0 +1,72 @@
+package com.nexflow.nexflow_backend.executor.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParameterizedQueryTest {
+
+	@Test
+	void refBecomesBindParameter() {
+		ParameterizedQuery q = ParameterizedQuery.parse("SELECT * FROM users WHERE id = {{ nex.start.id }} AND x = 1");
+
+		assertEquals("SELECT * FROM users WHERE id = ? AND x = 1", q.sql());
+		assertEquals(List.of(new ParameterizedQuery.Param("nex.start.id", null)), q.params());
+		assertFalse(q.params().get(0).isTemplate());
+	}
+
+	@Test
+	void literalContainingRefBecomesTemplateParameter() {
+		ParameterizedQuery q = ParameterizedQuery.parse("SELECT * FROM t WHERE name LIKE '%{{ nex.start.q }}%' AND note = 'it''s {{x}}'");
+
+		assertEquals("SELECT * FROM t WHERE name LIKE ? AND note = ?", q.sql());
+		assertEquals(2, q.params().size());
+		assertTrue(q.params().get(0).isTemplate());
+		assertEquals("%{{ nex.start.q }}%", q.params().get(0).template());
+		assertEquals("it's {{x}}", q.params().get(1).template());
+	}
+
+	@Test
+	void literalWithoutRefIsKept() {
+		ParameterizedQuery q = ParameterizedQuery.parse("SELECT 'it''s {x}' AS a");
+
+		assertEquals("SELECT 'it''s {x}' AS a", q.sql());
+		assertTrue(q.params().isEmpty());
+	}
+
+	@Test
+	void refsInQuotedIdentifiersAndCommentsAreLeftAlone() {
+		String query = "SELECT \"{{col}}\" -- {{ line }}\nFROM t /* {{ block }} */ WHERE a = {{ v }}";
+		ParameterizedQuery q = ParameterizedQuery.parse(query);
+
+		assertEquals("SELECT \"{{col}}\" -- {{ line }}\nFROM t /* {{ block }} */ WHERE a = ?", q.sql());
+		assertEquals(List.of(new ParameterizedQuery.Param("v", null)), q.params());
+	}
+
+	@Test
+	void unterminatedLiteralIsCopiedWithoutParameter() {
+		ParameterizedQuery q = ParameterizedQuery.parse("SELECT * FROM t WHERE a = {{ v }} AND b = '{{ w }}");
+
+		assertEquals("SELECT * FROM t WHERE a = ? AND b = '{{ w }}", q.sql());
+		assertEquals(List.of(new ParameterizedQuery.Param("v", null)), q.params());
+	}
+
+	@Test
+	void unterminatedIdentifierAndCommentRunToTheEnd() {
+		assertEquals("SELECT \"{{ a }}", ParameterizedQuery.parse("SELECT \"{{ a }}").sql());
+		assertEquals("SELECT 1 /* {{ a }}", ParameterizedQuery.parse("SELECT 1 /* {{ a }}").sql());
+		assertTrue(ParameterizedQuery.parse("SELECT \"{{ a }}").params().isEmpty());
+	}
+
+	@Test
+	void unterminatedRefIsKeptAsIs() {
+		ParameterizedQuery q = ParameterizedQuery.parse("SELECT {{ a }}, {{ b");
+
+		assertEquals("SELECT ?, {{ b", q.sql());
+		assertEquals(List.of(new ParameterizedQuery.Param("a", null)), q.params());
+	}
+}